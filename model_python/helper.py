@@ -36,6 +36,132 @@ def sort_by_similarity(vector, matrix):
     return sorted(range(len(matrix_as_dict)), key=lambda k: vector_difference(vector, matrix_as_dict[k]))
 
 
+BINARY_NEIGHBORS_MAGIC = 0x4E563257
+BINARY_COUNTS_MAGIC = 0x43563257
+BINARY_NEIGHBORS_HEADER_SIZE = 32
+
+
+def binary_neighbors_magic(filename):
+    """
+    Returns the magic of a binary neighbors file (BINARY_NEIGHBORS_MAGIC, or BINARY_COUNTS_MAGIC for a file with
+    counts), or None if the file is not a binary neighbors file.
+    """
+    with open(filename, 'rb') as f:
+        magic = np.fromfile(f, dtype='<i4', count=1)
+        if len(magic) == 1 and magic[0] in (BINARY_NEIGHBORS_MAGIC, BINARY_COUNTS_MAGIC):
+            return int(magic[0])
+        return None
+
+
+def is_binary_neighbors_file(filename):
+    return binary_neighbors_magic(filename) is not None
+
+
+def is_counts_file(filename):
+    """
+    Returns whether the given neighbors file contains distinct pairs with counts (generated by BuildNeighbors with
+    --mode=COUNTS), either binary, or text with "word context count" lines.
+    """
+    magic = binary_neighbors_magic(filename)
+    if magic is not None:
+        return magic == BINARY_COUNTS_MAGIC
+    with open(filename) as f:
+        return len(f.readline().split()) == 3
+
+
+class BinaryNeighbors(object):
+    """
+    A binary neighbors file, generated by BuildNeighbors with --format=BINARY, memory-mapped as a numpy array.
+    """
+    def __init__(self, filename):
+        header = np.fromfile(filename, dtype='<i4', count=6)
+        if header[0] == BINARY_COUNTS_MAGIC:
+            raise ValueError('A binary neighbors file with counts is not supported (use --mode=PAIRS): ' + filename)
+        if header[0] != BINARY_NEIGHBORS_MAGIC:
+            raise ValueError('Not a binary neighbors file: ' + filename)
+        self.vocabulary_size = int(header[2])
+        self.window_size = int(header[3])
+        self.number_of_stop_words = int(header[4])
+        self.number_of_pairs = int(np.fromfile(filename, dtype='<i8', count=4)[3])
+        id_type = '<u2' if header[5] == 2 else '<i4'
+        self.pairs = np.memmap(filename, dtype=id_type, mode='r', offset=BINARY_NEIGHBORS_HEADER_SIZE,
+                               shape=(self.number_of_pairs, 2))
+        self.position = 0
+
+    def read_in_loop(self, number_of_pairs):
+        """
+        Like read_file_in_loop, but returns a list of (word, context) tuples of word-IDs.
+        """
+        ret = list()
+        while len(ret) < number_of_pairs:
+            end = min(self.position + number_of_pairs - len(ret), self.number_of_pairs)
+            ret.extend((int(word), int(context)) for (word, context) in self.pairs[self.position:end])
+            self.position = end if end < self.number_of_pairs else 0
+        return ret
+
+
+EMBEDDING_STORE_MAGIC = 0x45563257
+EMBEDDING_STORE_VERSION = 1
+EMBEDDING_STORE_VECTORS_POSITION = 64
+EMBEDDING_STORE_PRECISIONS = ['<f4', '<f2', '<i1']
+EMBEDDING_STORE_INT8 = 2
+
+
+def utf8_bytes(word):
+    """
+    Returns the given word as UTF-8 bytes. Words read from words.txt (by load_word_map) are byte strings already, and
+    are returned as they are; only unicode strings are encoded.
+    """
+    if isinstance(word, bytes):
+        return word
+    return word.encode('utf-8')
+
+
+def save_embedding_store(filename, words, matrix, float16=False):
+    """
+    Writes vectors in the embedding store format, which is memory-mapped by EmbeddingStore on the JVM.
+    :param words: the word of each row of the matrix
+    :param matrix: a numpy matrix, a row per word
+    :param float16: if True, the vectors are written in half precision
+    """
+    precision = 1 if float16 else 0
+    (number_of_words, dimension) = matrix.shape
+    word_bytes = [utf8_bytes(w) + b'\n' for w in words]
+    with open(filename, 'wb') as f:
+        f.write(np.zeros(EMBEDDING_STORE_VECTORS_POSITION, dtype=np.uint8).tobytes())
+        f.write(np.ascontiguousarray(matrix, dtype=EMBEDDING_STORE_PRECISIONS[precision]).tobytes())
+        f.write(np.zeros((-f.tell()) % 8, dtype=np.uint8).tobytes())
+        offsets_position = f.tell()
+        f.write(np.cumsum([0] + [len(w) for w in word_bytes]).astype('<i8').tobytes())
+        f.write(b''.join(word_bytes))
+        f.seek(0)
+        f.write(np.array([EMBEDDING_STORE_MAGIC, EMBEDDING_STORE_VERSION, precision, dimension, number_of_words, 0], dtype='<i4').tobytes())
+        f.write(np.array([offsets_position], dtype='<i8').tobytes())
+
+
+def load_embedding_store(filename):
+    """
+    Memory-maps an embedding store (written by save_embedding_store, or by EmbeddingStore on the JVM).
+    :return: (words, matrix), where the matrix is a read-only numpy memmap. For an int8 store, the matrix is
+    the int8 values multiplied by the scale of each row, in memory.
+    """
+    header = np.fromfile(filename, dtype='<i4', count=6)
+    if header[0] != EMBEDDING_STORE_MAGIC:
+        raise ValueError('Not an embedding store file: ' + filename)
+    (precision, dimension, number_of_words) = (int(header[2]), int(header[3]), int(header[4]))
+    offsets_position = int(np.fromfile(filename, dtype='<i8', count=4)[3])
+    matrix = np.memmap(filename, dtype=EMBEDDING_STORE_PRECISIONS[precision], mode='r',
+                       offset=EMBEDDING_STORE_VECTORS_POSITION, shape=(number_of_words, dimension))
+    if precision == EMBEDDING_STORE_INT8:
+        scales_position = EMBEDDING_STORE_VECTORS_POSITION + ((number_of_words*dimension + 3) // 4) * 4
+        scales = np.memmap(filename, dtype='<f4', mode='r', offset=scales_position, shape=(number_of_words,))
+        matrix = matrix * scales[:, np.newaxis]
+    with open(filename, 'rb') as f:
+        f.seek(offsets_position + 8*(number_of_words+1))
+        words = f.read().decode('utf-8').split('\n')[0:number_of_words]
+    return (words, matrix)
+
+
 def read_file_in_loop(f, number_of_lines):
     ret = list()
     for _ in range(number_of_lines):
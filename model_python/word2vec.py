@@ -11,6 +11,8 @@ maximum_number_of_words = 10000
 number_of_stop_words = 40
 word_file = '/home/asher/main/data/word2vec_working_directory/preprocess/bnc_0.1/words.txt'
 neighbors_file = '/home/asher/main/data/word2vec_working_directory/preprocess/bnc_0.1/neighbors.txt'
+# The trained vectors are saved here, in the embedding store format (see helper.save_embedding_store).
+vectors_file = '/home/asher/main/data/word2vec_working_directory/preprocess/bnc_0.1/vectors.w2ve'
 
 # Constants related to the model
 vector_size = 30
@@ -61,23 +63,33 @@ def generate_example(word, context):
     return (word_list, context_list)
 
 
-def generate_batch(neighbors_file):
+def read_positive_examples(neighbors):
+    """
+    Reads the next batch_size word-context pairs, either from neighbors.txt or from a binary neighbors file.
+    :param neighbors: an open neighbors.txt file, or helper.BinaryNeighbors
+    :return: list of (word, context) tuples of word-IDs
+    """
+    if isinstance(neighbors, helper.BinaryNeighbors):
+        return neighbors.read_in_loop(batch_size)
+    return [tuple(int(x) for x in example.split()) for example in helper.read_file_in_loop(neighbors, batch_size)]
+
+
+def generate_batch(neighbors):
     """
     Builds batch_size examples. Each example is 10 pairs (assuming negative_examples=9).
     The first pair is a word and a correct context.
     In the next 9 pairs, the word is the same word as the first, and the context is randomly picked.
     The words and the contexts are given as word-IDs.
-    :param neighbors_file: the file neighbors.txt, which contains word-context pairs
+    :param neighbors: the file neighbors.txt, which contains word-context pairs (or helper.BinaryNeighbors)
     :return: two lists of the same size. List of words (in which each word repeats 10 times
     consequently), and a list of contexts (in which the first context is correct, and the following
     9 contexts are randomly picked). The lists' size is batch_size*(1+negative_examples).
     """
     batch_word_list = list()
     batch_context_list = list()
-    positive_examples = helper.read_file_in_loop(neighbors_file, batch_size)
-    for example in positive_examples:
-        (word, context) = example.split()
-        (word_list, context_list) = generate_example(model_index(int(word)), model_index(int(context)))
+    positive_examples = read_positive_examples(neighbors)
+    for (word, context) in positive_examples:
+        (word_list, context_list) = generate_example(model_index(word), model_index(context))
         batch_word_list.extend(word_list)
         batch_context_list.extend(context_list)
     return (batch_word_list, batch_context_list)
@@ -110,15 +122,27 @@ train_op = tf.train.GradientDescentOptimizer(learning_rate=learning_rate).minimi
 init_op = tf.global_variables_initializer()
 
 
+def train(neighbors):
+    with tf.Session() as session:
+        session.run(init_op)
+        for batch_number in range(number_of_batches):
+            (batch_word_list, batch_context_list) = generate_batch(neighbors)
+            feed_dict = {words_ph: batch_word_list, context_ph: batch_context_list}
+            (_vectors, _, _loss) = session.run([vectors, train_op, loss], feed_dict=feed_dict)
+            if 0==(batch_number % 50):
+                print batch_number, ": ", _loss
+                print similar_words('year', _vectors)[0:20]
+                print similar_words('development', _vectors)[0:20]
+        trained_vectors = session.run(vectors)
+        helper.save_embedding_store(vectors_file, [indexToWord[word_index(i)] for i in range(number_of_words)], trained_vectors)
+
+
 if __name__ == '__main__':
-    with open(neighbors_file) as nf:
-        with tf.Session() as session:
-            session.run(init_op)
-            for batch_number in range(number_of_batches):
-                (batch_word_list, batch_context_list) = generate_batch(nf)
-                feed_dict = {words_ph: batch_word_list, context_ph: batch_context_list}
-                (_vectors, _, _loss) = session.run([vectors, train_op, loss], feed_dict=feed_dict)
-                if 0==(batch_number % 50):
-                    print batch_number, ": ", _loss
-                    print similar_words('year', _vectors)[0:20]
-                    print similar_words('development', _vectors)[0:20]
+    if helper.is_counts_file(neighbors_file):
+        raise ValueError('The neighbors file contains pairs with counts, but training reads each occurrence of a pair. '
+                         'Generate it by BuildNeighbors with --mode=PAIRS: ' + neighbors_file)
+    if helper.is_binary_neighbors_file(neighbors_file):
+        train(helper.BinaryNeighbors(neighbors_file))
+    else:
+        with open(neighbors_file) as nf:
+            train(nf)
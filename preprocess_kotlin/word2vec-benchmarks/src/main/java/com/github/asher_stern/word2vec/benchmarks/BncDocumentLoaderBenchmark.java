@@ -0,0 +1,75 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.corpora.BncDocumentLoader;
+import com.github.asher_stern.word2vec.corpora.BncXmlParser;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a BNC file into a CAS by {@link BncDocumentLoader}, per file, by both XML parsers, with and without the POS and
+ * Lemma annotations.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class BncDocumentLoaderBenchmark
+{
+    @Param({"STREAMING", "DOM"})
+    public BncXmlParser parser;
+
+    @Param({"true", "false"})
+    public boolean posAndLemma;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        file = new File(directory, "A00.xml");
+        new SyntheticCorpora(10000, 1).writeBncDocument(file, NUMBER_OF_SENTENCES);
+        jcas = JCasFactory.createJCas();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    public int load()
+    {
+        jcas.reset();
+        new BncDocumentLoader(jcas, file, true, parser, posAndLemma).load();
+        return jcas.getDocumentText().length();
+    }
+
+
+    private static final int NUMBER_OF_SENTENCES = 500;
+
+    private File directory;
+    private File file;
+    private JCas jcas;
+}
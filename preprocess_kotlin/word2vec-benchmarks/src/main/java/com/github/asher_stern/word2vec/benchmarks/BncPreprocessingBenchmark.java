@@ -0,0 +1,84 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.corpora.preprocess.CorpusToTokensAndSentences;
+import com.github.asher_stern.word2vec.corpora.preprocess.CorpusType;
+import com.github.asher_stern.word2vec.corpora.preprocess.PipelineMetricsOptions;
+import com.github.asher_stern.word2vec.corpora.preprocess.PreprocessingOptions;
+import com.github.asher_stern.word2vec.corpora.preprocess.SentencesOrder;
+import com.github.asher_stern.word2vec.utilities.CompressedFiles.Compression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preprocessing a BNC corpus end-to-end by {@link CorpusToTokensAndSentences}, single-threaded, reading the documents
+ * either directly or through UIMA (option "uima"). Each invocation writes sentences.txt, words.txt and counts.txt.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class BncPreprocessingBenchmark
+{
+    @Param({"false", "true"})
+    public boolean uima;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        corpusDirectory = new File(directory, "corpus");
+        outputDirectory = new File(directory, "output");
+        if (!corpusDirectory.mkdir() || !outputDirectory.mkdir()) {throw new IOException("Cannot create directories in "+directory);}
+        SyntheticCorpora corpora = new SyntheticCorpora(VOCABULARY_SIZE, 1);
+        for (int index=0; index<NUMBER_OF_DOCUMENTS; ++index)
+        {
+            corpora.writeBncDocument(new File(corpusDirectory, "A"+index+".xml"), SENTENCES_PER_DOCUMENT);
+        }
+        options = new PreprocessingOptions(1, SentencesOrder.DETERMINISTIC, CorpusToTokensAndSentences.NUMBER_OF_DISTINCT_WORDS, 0,
+                uima, Compression.NONE, new PipelineMetricsOptions(0, new File(directory, "metrics.json"), false));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    public long preprocess()
+    {
+        new CorpusToTokensAndSentences(corpusDirectory.getPath(), outputDirectory.getPath(), CorpusType.BNC, options, null).go();
+        return new File(outputDirectory, CorpusToTokensAndSentences.SENTENCES_FILE).length();
+    }
+
+
+    private static final int VOCABULARY_SIZE = 10000;
+    private static final int NUMBER_OF_DOCUMENTS = 20;
+    private static final int SENTENCES_PER_DOCUMENT = 200;
+
+    private File directory;
+    private File corpusDirectory;
+    private File outputDirectory;
+    private PreprocessingOptions options;
+}
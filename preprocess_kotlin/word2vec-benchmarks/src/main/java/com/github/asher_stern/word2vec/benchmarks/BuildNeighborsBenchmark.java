@@ -0,0 +1,114 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.corpora.preprocess.BuildNeighbors;
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsOptions;
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsWriter;
+import com.github.asher_stern.word2vec.corpora.preprocess.SentenceEdges;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating the word-context pairs of a sentence by {@link BuildNeighbors}: tokenizing a line of sentences.txt into
+ * word-IDs, and writing the pairs of its windows. The pairs are only counted, so the cost of writing a file is excluded.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class BuildNeighborsBenchmark
+{
+    @Param({"5"})
+    public int windowSize;
+
+    @Param({"SKIP", "CLIP"})
+    public SentenceEdges sentenceEdges;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        SyntheticCorpora corpora = new SyntheticCorpora(VOCABULARY_SIZE, 1);
+        File wordFile = corpora.writeWords(directory);
+        File sentenceFile = corpora.writeSentences(directory, NUMBER_OF_SENTENCES);
+        sentences = Files.readAllLines(sentenceFile.toPath(), StandardCharsets.UTF_8).toArray(new String[0]);
+        counter = new CountingWriter();
+        NeighborsOptions options = new NeighborsOptions(0.0, false, 1, sentenceEdges);
+        buildNeighbors = new BuildNeighbors(wordFile, sentenceFile, VOCABULARY_SIZE, windowSize, NUMBER_OF_STOP_WORDS, counter, options);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        buildNeighbors.close();
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_SENTENCES)
+    public long buildSentence()
+    {
+        for (String sentence : sentences)
+        {
+            buildNeighbors.build(sentence);
+        }
+        return counter.count;
+    }
+
+
+    /**
+     * Counts the pairs, without writing them.
+     */
+    private static class CountingWriter implements NeighborsWriter
+    {
+        @Override
+        public void write(int wordId, int contextWordId)
+        {
+            count += wordId^contextWordId;
+        }
+
+        @Override
+        public void write(int wordId, int contextWordId, int count)
+        {
+            this.count += count;
+        }
+
+        @Override
+        public void close() {}
+
+        private long count = 0;
+    }
+
+
+    private static final int VOCABULARY_SIZE = 10000;
+    private static final int NUMBER_OF_STOP_WORDS = 100;
+    private static final int NUMBER_OF_SENTENCES = 1000;
+
+    private File directory;
+    private String[] sentences;
+    private CountingWriter counter;
+    private BuildNeighbors buildNeighbors;
+}
@@ -0,0 +1,96 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.corpora.preprocess.BuildNeighbors;
+import com.github.asher_stern.word2vec.corpora.preprocess.CompareWords;
+import com.github.asher_stern.word2vec.corpora.preprocess.ContextComparison;
+import com.github.asher_stern.word2vec.corpora.preprocess.CooccurrenceIndex;
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsFormat;
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsMode;
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparing the contexts of two words, as done by {@link CompareWords#compare(String, String)}: merging the rows of the
+ * two words in a {@link CooccurrenceIndex}. The index is built at setup from the neighbors of a synthetic corpus, and the
+ * words are drawn by their frequency, so frequent words (with long rows) are compared more often.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class CompareWordsBenchmark
+{
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        SyntheticCorpora corpora = new SyntheticCorpora(VOCABULARY_SIZE, 1);
+        File wordFile = corpora.writeWords(directory);
+        File sentenceFile = corpora.writeSentences(directory, NUMBER_OF_SENTENCES);
+        File neighborsFile = new File(directory, "neighbors.bin");
+        try (BuildNeighbors buildNeighbors = new BuildNeighbors(wordFile, sentenceFile, VOCABULARY_SIZE, neighborsFile, 5, 0,
+                NeighborsFormat.BINARY, NeighborsMode.COUNTS, BuildNeighbors.DEFAULT_MAXIMUM_MEMORY, new NeighborsOptions()))
+        {
+            buildNeighbors.build();
+        }
+        File indexFile = new File(directory, "neighbors.index");
+        CooccurrenceIndex.Companion.build(neighborsFile, indexFile);
+        index = new CooccurrenceIndex(indexFile);
+
+        // Word-IDs are 1-based: the word-ID of "w<i>" is i+1.
+        Random random = new Random(1);
+        wordIds = new int[NUMBER_OF_QUERIES];
+        for (int query=0; query<NUMBER_OF_QUERIES; ++query)
+        {
+            wordIds[query] = 1+corpora.nextWordIndex();
+        }
+        query = random.nextInt(NUMBER_OF_QUERIES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        index.close();
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    public ContextComparison compare()
+    {
+        int wordId1 = wordIds[query];
+        int wordId2 = wordIds[(query+1)%NUMBER_OF_QUERIES];
+        query = (query+2)%NUMBER_OF_QUERIES;
+        return index.compare(wordId1, wordId2);
+    }
+
+
+    private static final int VOCABULARY_SIZE = 10000;
+    private static final int NUMBER_OF_SENTENCES = 20000;
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    private File directory;
+    private CooccurrenceIndex index;
+    private int[] wordIds;
+    private int query;
+}
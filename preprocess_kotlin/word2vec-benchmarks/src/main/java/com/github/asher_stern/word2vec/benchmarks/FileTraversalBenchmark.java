@@ -0,0 +1,76 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.utilities.FileTree;
+import com.github.asher_stern.word2vec.utilities.RecursiveFileIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing all the ".xml" files of a directory tree (like a corpus directory), by {@link RecursiveFileIterator}, and by
+ * a parallel stream of {@link FileTree}. Repeated traversals are served by the file-system cache, so this measures the
+ * cost of listing and filtering, rather than of the disk.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class FileTraversalBenchmark
+{
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        SyntheticCorpora.writeFileTree(directory, NUMBER_OF_DIRECTORIES, FILES_PER_DIRECTORY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    public int recursiveFileIterator()
+    {
+        RecursiveFileIterator iterator = new RecursiveFileIterator(directory, null, (f)->f.getName().endsWith(".xml"), null);
+        int count = 0;
+        while (iterator.hasNext())
+        {
+            iterator.next();
+            ++count;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long fileTreeParallelStream()
+    {
+        return new FileTree(directory.toPath(), null, (p)->p.getFileName().toString().endsWith(".xml"), null).parallelStream().count();
+    }
+
+
+    private static final int NUMBER_OF_DIRECTORIES = 200;
+    private static final int FILES_PER_DIRECTORY = 100;
+
+    private File directory;
+}
@@ -0,0 +1,108 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.vectors.HnswIndex;
+import com.github.asher_stern.word2vec.vectors.HnswOptions;
+import com.github.asher_stern.word2vec.vectors.NearestNeighbors;
+import com.github.asher_stern.word2vec.vectors.Neighbor;
+import com.github.asher_stern.word2vec.vectors.Similarity;
+import com.github.asher_stern.word2vec.vectors.WordVectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency of a nearest-words query: the exact scan of {@link NearestNeighbors}, against the approximate search of
+ * an {@link HnswIndex} with several values of <i>ef</i>. The vectors are synthetic and clustered (see
+ * {@link SyntheticCorpora#clusteredVectors(int, int, int, long)}), and the index is built at setup.
+ * <br>
+ * The recall of each <i>ef</i> is reported by the main function of HnswRecall.kt, which can be run on the same vectors.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class NearestNeighborsBenchmark
+{
+    @Param({"10", "50", "200"})
+    public int ef;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        vectors = SyntheticCorpora.clusteredVectors(NUMBER_OF_WORDS, DIMENSION, NUMBER_OF_CLUSTERS, 1);
+        File indexFile = new File(directory, "vectors.hnsw");
+        HnswIndex.Companion.build(vectors, indexFile, new HnswOptions());
+        index = new HnswIndex(indexFile);
+        exact = new NearestNeighbors(vectors, ForkJoinPool.commonPool());
+
+        Random random = new Random(1);
+        queries = new String[NUMBER_OF_QUERIES];
+        for (int query=0; query<NUMBER_OF_QUERIES; ++query)
+        {
+            queries[query] = vectors.getWords().get(random.nextInt(NUMBER_OF_WORDS));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        index.close();
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    public List<Neighbor> exactScan()
+    {
+        return exact.similarWords(nextQuery(), K, Similarity.COSINE);
+    }
+
+    @Benchmark
+    public List<Neighbor> hnsw()
+    {
+        return index.similarWords(nextQuery(), K, ef);
+    }
+
+
+    private String nextQuery()
+    {
+        query = (query+1)%NUMBER_OF_QUERIES;
+        return queries[query];
+    }
+
+
+    private static final int NUMBER_OF_WORDS = 100000;
+    private static final int DIMENSION = 100;
+    private static final int NUMBER_OF_CLUSTERS = 1000;
+    private static final int NUMBER_OF_QUERIES = 1024;
+    private static final int K = 10;
+
+    private File directory;
+    private WordVectors vectors;
+    private HnswIndex index;
+    private NearestNeighbors exact;
+    private String[] queries;
+    private int query;
+}
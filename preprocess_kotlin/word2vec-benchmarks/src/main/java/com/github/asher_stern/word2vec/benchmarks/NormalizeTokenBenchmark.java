@@ -0,0 +1,71 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.corpora.preprocess.CorpusToTokensAndSentences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizing the tokens of a corpus into the words of sentences.txt, by {@link CorpusToTokensAndSentences#normalizeToken(String)}.
+ * The tokens are a mixture of words, capitalized words, words with punctuation, numbers and punctuation tokens.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class NormalizeTokenBenchmark
+{
+    @Setup
+    public void setup()
+    {
+        SyntheticCorpora corpora = new SyntheticCorpora(10000, 1);
+        Random random = new Random(1);
+        tokens = new String[NUMBER_OF_TOKENS];
+        for (int index=0; index<NUMBER_OF_TOKENS; ++index)
+        {
+            String word = corpora.nextWord();
+            switch (random.nextInt(6))
+            {
+                case 0: tokens[index] = "W"+word.substring(1); break;
+                case 1: tokens[index] = word+","; break;
+                case 2: tokens[index] = "("+word+")"; break;
+                case 3: tokens[index] = String.valueOf(random.nextInt(2000)); break;
+                case 4: tokens[index] = "--"; break;
+                default: tokens[index] = word;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_TOKENS)
+    public void normalizeToken(Blackhole blackhole)
+    {
+        for (String token : tokens)
+        {
+            blackhole.consume(CorpusToTokensAndSentences.normalizeToken(token));
+        }
+    }
+
+
+    private static final int NUMBER_OF_TOKENS = 1000;
+
+    private String[] tokens;
+}
@@ -0,0 +1,86 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.corpora.ReutersParser;
+import com.github.asher_stern.word2vec.corpora.ReutersParser.ParseType;
+import com.github.asher_stern.word2vec.corpora.ReutersParser.XmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a single Reuters (RCV1) document by {@link ReutersParser}: from a string (parsing only), and from a file (reading
+ * and parsing, as done by the collection reader per file), by both XML parsers.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class ReutersParserBenchmark
+{
+    @Param({"TEXT", "PARAGRAPHS"})
+    public ParseType parseType;
+
+    @Param({"STREAMING", "DOM"})
+    public XmlParser xmlParser;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        directory = SyntheticCorpora.createTemporaryDirectory();
+        xml = new SyntheticCorpora(10000, 1).reutersDocument(1000, 10);
+        file = new File(directory, "1000newsML.xml");
+        Files.write(file.toPath(), xml.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        SyntheticCorpora.delete(directory);
+    }
+
+    @Benchmark
+    public Object parse()
+    {
+        return parse(new ReutersParser(xml));
+    }
+
+    @Benchmark
+    public Object parseFile()
+    {
+        return parse(ReutersParser.fromFile(file));
+    }
+
+
+    private Object parse(ReutersParser parser)
+    {
+        parser.parse(parseType, xmlParser);
+        return (parseType==ParseType.TEXT) ? parser.getText() : parser.getParagraphs();
+    }
+
+
+    private File directory;
+    private String xml;
+    private File file;
+}
@@ -0,0 +1,291 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.vectors.WordVectors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic corpora and preprocessing files for the benchmarks, so that they do not depend on the BNC or
+ * Reuters corpora being available.
+ * <br>
+ * Words are drawn from a vocabulary of "w0", "w1", ... by a Zipf distribution (word "w<i>i</i>" has probability
+ * proportional to 1/(<i>i</i>+1)), like the words of natural text. All the generated data is determined by the seed.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class SyntheticCorpora
+{
+    /**
+     * The BNC parts of speech (attribute "pos"), as recognized by the BNC loader.
+     */
+    public static final String[] BNC_POS = {"SUBST", "VERB", "ADJ", "ADV", "ART", "PREP", "PRON", "CONJ", "INTERJ", "UNC"};
+
+    /**
+     * Constructor.
+     * @param vocabularySize the number of distinct words.
+     * @param seed the seed of the random numbers.
+     */
+    public SyntheticCorpora(int vocabularySize, long seed)
+    {
+        super();
+        this.random = new Random(seed);
+        this.cumulative = new double[vocabularySize];
+        double sum = 0;
+        for (int index=0; index<vocabularySize; ++index)
+        {
+            sum += 1.0/(index+1);
+            cumulative[index] = sum;
+        }
+        for (int index=0; index<vocabularySize; ++index)
+        {
+            cumulative[index] /= sum;
+        }
+    }
+
+    /**
+     * Draws a word-index by the Zipf distribution.
+     */
+    public int nextWordIndex()
+    {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index<0) {index = -index-1;}
+        return Math.min(index, cumulative.length-1);
+    }
+
+    /**
+     * Draws a word.
+     */
+    public String nextWord()
+    {
+        return "w"+nextWordIndex();
+    }
+
+    /**
+     * Returns a sentence of the given number of words, separated by spaces, like a line of sentences.txt.
+     */
+    public String sentence(int length)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int index=0; index<length; ++index)
+        {
+            if (index>0) {sb.append(' ');}
+            sb.append(nextWord());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a random sentence length, in 5..34.
+     */
+    public int nextSentenceLength()
+    {
+        return 5+random.nextInt(30);
+    }
+
+    /**
+     * Writes words.txt (all the words of the vocabulary, from most common to least common) into the given directory.
+     */
+    public File writeWords(File directory) throws IOException
+    {
+        File file = new File(directory, "words.txt");
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name()))
+        {
+            for (int index=0; index<cumulative.length; ++index)
+            {
+                writer.println("w"+index);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Writes sentences.txt with the given number of sentences into the given directory.
+     */
+    public File writeSentences(File directory, int numberOfSentences) throws IOException
+    {
+        File file = new File(directory, "sentences.txt");
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name()))
+        {
+            for (int index=0; index<numberOfSentences; ++index)
+            {
+                writer.println(sentence(nextSentenceLength()));
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Returns a Reuters (RCV1) document with the given number of paragraphs, each of a few sentences.
+     */
+    public String reutersDocument(int itemId, int numberOfParagraphs)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"iso-8859-1\" ?>\n");
+        sb.append("<newsitem itemid=\"").append(itemId).append("\" id=\"root\" date=\"1996-08-20\" xml:lang=\"en\">\n");
+        sb.append("<title>").append(sentence(6)).append("</title>\n");
+        sb.append("<headline>").append(sentence(8)).append("</headline>\n");
+        sb.append("<text>\n");
+        for (int paragraph=0; paragraph<numberOfParagraphs; ++paragraph)
+        {
+            sb.append("<p>");
+            int numberOfSentences = 1+random.nextInt(3);
+            for (int index=0; index<numberOfSentences; ++index)
+            {
+                if (index>0) {sb.append(' ');}
+                String sentence = sentence(nextSentenceLength());
+                sb.append(Character.toUpperCase(sentence.charAt(0))).append(sentence.substring(1)).append(" &amp; more.");
+            }
+            sb.append("</p>\n");
+        }
+        sb.append("</text>\n");
+        sb.append("<copyright>(c) Reuters Limited 1996</copyright>\n");
+        sb.append("<metadata><codes class=\"bip:topics:1.0\"><code code=\"GCAT\"></code></codes></metadata>\n");
+        sb.append("</newsitem>\n");
+        return sb.toString();
+    }
+
+    /**
+     * Writes a Reuters corpus: the given number of date-directories, each with the given number of documents.
+     */
+    public void writeReutersCorpus(File directory, int numberOfDirectories, int documentsPerDirectory) throws IOException
+    {
+        int itemId = 1000;
+        for (int dateIndex=0; dateIndex<numberOfDirectories; ++dateIndex)
+        {
+            File dateDirectory = new File(directory, String.valueOf(19960820+dateIndex));
+            dateDirectory.mkdirs();
+            for (int index=0; index<documentsPerDirectory; ++index)
+            {
+                Files.write(new File(dateDirectory, itemId+"newsML.xml").toPath(), reutersDocument(itemId, 10).getBytes(StandardCharsets.ISO_8859_1));
+                ++itemId;
+            }
+        }
+    }
+
+    /**
+     * Writes a BNC document with the given number of sentences into the given file.
+     */
+    public void writeBncDocument(File file, int numberOfSentences) throws IOException
+    {
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name()))
+        {
+            writer.print("<?xml version=\"1.0\"?>\n<bncDoc><teiHeader><fileDesc><titleStmt><title>Synthetic</title></titleStmt></fileDesc></teiHeader>");
+            writer.print("<wtext type=\"OTHERPUB\"><div level=\"1\"><head><s n=\"0\">");
+            writeBncWords(writer, 4);
+            writer.print("</s></head>");
+            for (int sentence=1; sentence<=numberOfSentences; ++sentence)
+            {
+                if (1==(sentence%5)) {writer.print("<p>");}
+                writer.print("<s n=\""+sentence+"\">");
+                writeBncWords(writer, nextSentenceLength());
+                writer.print("<c c5=\"PUN\">.</c></s>");
+                if ( (0==(sentence%5)) || (sentence==numberOfSentences) ) {writer.print("</p>");}
+                writer.print('\n');
+            }
+            writer.print("</div></wtext></bncDoc>\n");
+        }
+    }
+
+    /**
+     * Returns word vectors "w0", "w1", ..., drawn around the given number of random centers, like trained vectors, whose
+     * similar words form clusters.
+     */
+    public static WordVectors clusteredVectors(int numberOfWords, int dimension, int numberOfClusters, long seed)
+    {
+        Random random = new Random(seed);
+        float[] centers = new float[numberOfClusters*dimension];
+        for (int index=0; index<centers.length; ++index)
+        {
+            centers[index] = (float) random.nextGaussian();
+        }
+        List<String> words = new ArrayList<>(numberOfWords);
+        float[] matrix = new float[numberOfWords*dimension];
+        for (int word=0; word<numberOfWords; ++word)
+        {
+            words.add("w"+word);
+            int center = random.nextInt(numberOfClusters);
+            for (int index=0; index<dimension; ++index)
+            {
+                matrix[word*dimension+index] = centers[center*dimension+index]+0.7f*(float) random.nextGaussian();
+            }
+        }
+        return new WordVectors(words, dimension, matrix);
+    }
+
+    /**
+     * Writes a tree of the given number of directories, each with the given number of (empty) ".xml" files.
+     */
+    public static void writeFileTree(File directory, int numberOfDirectories, int filesPerDirectory) throws IOException
+    {
+        for (int index=0; index<numberOfDirectories; ++index)
+        {
+            File subDirectory = new File(new File(directory, String.valueOf(index%10)), String.valueOf(index));
+            subDirectory.mkdirs();
+            for (int fileIndex=0; fileIndex<filesPerDirectory; ++fileIndex)
+            {
+                new File(subDirectory, fileIndex+".xml").createNewFile();
+            }
+        }
+    }
+
+    /**
+     * Creates a temporary directory, for the files generated by a benchmark.
+     */
+    public static File createTemporaryDirectory() throws IOException
+    {
+        return Files.createTempDirectory("word2vec-benchmarks").toFile();
+    }
+
+    /**
+     * Deletes the given directory with all its contents.
+     */
+    public static void delete(File directory) throws IOException
+    {
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException
+            {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException
+            {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+
+    private void writeBncWords(PrintWriter writer, int numberOfWords)
+    {
+        for (int index=0; index<numberOfWords; ++index)
+        {
+            String word = nextWord();
+            if ( (index>0) && (0==random.nextInt(8)) ) {writer.print("<c c5=\"PUN\">,</c>");}
+            String pos = BNC_POS[random.nextInt(BNC_POS.length)];
+            writer.print("<w c5=\"NN1\" hw=\""+word+"\" pos=\""+pos+"\">"+(0==index ? "W"+word.substring(1) : word)+" </w>");
+        }
+    }
+
+
+    private final Random random;
+    private final double[] cumulative;
+}
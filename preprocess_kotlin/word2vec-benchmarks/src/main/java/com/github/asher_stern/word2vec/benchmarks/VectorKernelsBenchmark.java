@@ -0,0 +1,99 @@
+package com.github.asher_stern.word2vec.benchmarks;
+
+import com.github.asher_stern.word2vec.utilities.VectorKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link VectorKernels} of the Vector API against the scalar loops, for the vector sizes of word2vec: the similarity
+ * kernels (dot product and squared distance of two rows), and the update of stochastic gradient descent
+ * (<i>y</i> += <i>alpha</i>*<i>x</i>). The rows are taken in turn from a random matrix, larger than the caches.
+ * <br>
+ * The Vector API implementation is available only in a jar built by the "vector-api" profile, run by Java 17 or later:
+ * <pre>
+ * mvn package -Pvector-api -Djdk17.home=...
+ * java --add-modules jdk.incubator.vector -jar word2vec-benchmarks/target/benchmarks.jar VectorKernels
+ * </pre>
+ * Otherwise, run only the scalar kernels, with <tt>-p implementation=SCALAR</tt>.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class VectorKernelsBenchmark
+{
+    @Param({"30", "50", "100", "200", "300"})
+    public int dimension;
+
+    @Param({"SCALAR", "VECTOR_API"})
+    public VectorKernels.Implementation implementation;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        kernels = VectorKernels.get(implementation);
+        Random random = new Random(1);
+        matrix = new float[NUMBER_OF_ROWS*dimension];
+        for (int index=0; index<matrix.length; ++index)
+        {
+            matrix[index] = random.nextFloat()-0.5f;
+        }
+    }
+
+    @Benchmark
+    public float dot()
+    {
+        nextRows();
+        return kernels.dot(matrix, first*dimension, matrix, second*dimension, dimension);
+    }
+
+    @Benchmark
+    public float squaredDistance()
+    {
+        nextRows();
+        return kernels.squaredDistance(matrix, first*dimension, matrix, second*dimension, dimension);
+    }
+
+    @Benchmark
+    public void axpy()
+    {
+        nextRows();
+        // A small, alternating step, so the rows do not grow over the iterations.
+        kernels.axpy(((first&1)==0) ? ALPHA : -ALPHA, matrix, first*dimension, matrix, second*dimension, dimension);
+    }
+
+
+    private void nextRows()
+    {
+        first = (first+1)%NUMBER_OF_ROWS;
+        second = (second+7)%NUMBER_OF_ROWS;
+    }
+
+
+    private static final int NUMBER_OF_ROWS = 1<<16;
+    private static final float ALPHA = 0.001f;
+
+    private VectorKernels kernels;
+    private float[] matrix;
+    private int first = 0;
+    private int second = 1;
+}
@@ -1,6 +1,7 @@
 package com.github.asher_stern.word2vec.corpora;
 
 import com.github.asher_stern.word2vec.corpora.ReutersParser.ParseType;
+import com.github.asher_stern.word2vec.utilities.FileShard;
 import org.apache.uima.UimaContext;
 import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.component.JCasCollectionReader_ImplBase;
@@ -11,10 +12,11 @@ import org.apache.uima.util.Progress;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Iterator;
 
 /**
  * A UIMA collection reader for Reuters corpus, RCV1.
+ * <br>
+ * The corpus may be extracted, or given as the archives of its distribution (see {@link ReutersDocumentIterator}).
  *
  * <p>
  * Date: 15 Jun 2017
@@ -29,6 +31,17 @@ public class ReutersCollectionReader extends JCasCollectionReader_ImplBase
     @ConfigurationParameter(name=DIRECTORY_PARAM, mandatory=true)
     private String directory;
 
+    /**
+     * The shard of the corpus files to read (see {@link FileShard}). By default, all the files are read.
+     */
+    public static final String SHARD_PARAM = "shard";
+    @ConfigurationParameter(name=SHARD_PARAM, mandatory=false, defaultValue="0")
+    private int shard;
+
+    public static final String NUMBER_OF_SHARDS_PARAM = "numberOfShards";
+    @ConfigurationParameter(name=NUMBER_OF_SHARDS_PARAM, mandatory=false, defaultValue="1")
+    private int numberOfShards;
+
 
 
     @Override
@@ -36,7 +49,7 @@ public class ReutersCollectionReader extends JCasCollectionReader_ImplBase
     {
         super.initialize(context);
         if (null==directory) throw new ResourceInitializationException(new RuntimeException("Null directory."));
-        iterator = new ReutersIterator(directory);
+        iterator = new ReutersDocumentIterator(directory, new FileShard(new File(directory), shard, numberOfShards));
 //		iterator = new RecursiveFileIterator(new File(directory), null, (f)->f.getPath().endsWith(".xml"), null);
     }
 
@@ -51,10 +64,9 @@ public class ReutersCollectionReader extends JCasCollectionReader_ImplBase
     @Override
     public void getNext(JCas jCas) throws IOException, CollectionException
     {
-        File file = iterator.next();
+        ReutersParser reutersParser = iterator.next();
         jCas.reset();
         jCas.setDocumentLanguage(LANGUAGE);
-        ReutersParser reutersParser = ReutersParser.fromFile(file);
         reutersParser.parse(ParseType.TEXT);
         jCas.setDocumentText(reutersParser.getText());
     }
@@ -65,6 +77,13 @@ public class ReutersCollectionReader extends JCasCollectionReader_ImplBase
         return null;
     }
 
+    @Override
+    public void close() throws IOException
+    {
+        if (iterator!=null) {iterator.close();}
+        super.close();
+    }
+
 
-    private Iterator<File> iterator = null;
+    private ReutersDocumentIterator iterator = null;
 }
@@ -0,0 +1,141 @@
+package com.github.asher_stern.word2vec.corpora;
+
+import com.github.asher_stern.word2vec.utilities.CompressedFiles;
+import com.github.asher_stern.word2vec.utilities.CompressedFiles.Compression;
+import com.github.asher_stern.word2vec.utilities.FileShard;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over all the documents in Reuters corpus RCV1, each given as a {@link ReutersParser} (not parsed yet).
+ * <br>
+ * The corpus directory may contain XML files, compressed XML files, and archives of XML files (zip or tar, possibly
+ * compressed), such as the zip files of the original RCV1 distribution (see {@link ReutersIterator}). Archives are read
+ * as streams, entry by entry, so they are never extracted to disk. The documents of an archive are given in the order of
+ * its entries.
+ * <br>
+ * When a shard is given, it applies to the files of the corpus directory, so all the documents of an archive belong to
+ * the shard of the archive.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class ReutersDocumentIterator implements Iterator<ReutersParser>, Closeable
+{
+    /**
+     * Constructor.
+     * @param rootDirectory the root directory of the corpus.
+     * @param shard the shard of the files to read. Null means all the files.
+     */
+    public ReutersDocumentIterator(String rootDirectory, FileShard shard)
+    {
+        super();
+        files = new ReutersIterator(rootDirectory, shard);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext()
+    {
+        if (null==next) {next = advance();}
+        return (next!=null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public ReutersParser next()
+    {
+        if (!hasNext()) {throw new NoSuchElementException();}
+        ReutersParser ret = next;
+        next = null;
+        return ret;
+    }
+
+    /**
+     * Closes the archive that is currently read, if any.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (archive!=null)
+        {
+            archive.close();
+            archive = null;
+        }
+    }
+
+
+    /**
+     * Returns the next document, or null if there are no more documents.
+     */
+    private ReutersParser advance()
+    {
+        try
+        {
+            while (true)
+            {
+                if (archive!=null)
+                {
+                    ArchiveEntry entry;
+                    while ( (entry=archive.getNextEntry())!=null )
+                    {
+                        if ( (!entry.isDirectory()) && (entry.getName().endsWith(".xml")) )
+                        {
+                            return ReutersParser.fromStream(archive);
+                        }
+                    }
+                    close();
+                }
+
+                if (!files.hasNext()) {return null;}
+                File file = files.next();
+                if (ReutersIterator.isArchive(file))
+                {
+                    archive = openArchive(file);
+                }
+                else
+                {
+                    return ReutersParser.fromFile(file);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ArchiveInputStream openArchive(File file) throws IOException
+    {
+        String name = CompressedFiles.withoutCompressionExtension(file.getName());
+        if (name.endsWith(".tgz"))
+        {
+            return new TarArchiveInputStream(CompressedFiles.decompress(new FileInputStream(file), Compression.GZIP));
+        }
+        InputStream stream = CompressedFiles.newInputStream(file);
+        if (name.endsWith(".zip")) {return new ZipArchiveInputStream(stream);}
+        return new TarArchiveInputStream(stream);
+    }
+
+
+    private final Iterator<File> files;
+    private ArchiveInputStream archive = null;
+    private ReutersParser next = null;
+}
@@ -1,5 +1,7 @@
 package com.github.asher_stern.word2vec.corpora;
 
+import com.github.asher_stern.word2vec.utilities.CompressedFiles;
+import com.github.asher_stern.word2vec.utilities.FileShard;
 import com.github.asher_stern.word2vec.utilities.RecursiveFileIterator;
 
 import java.io.File;
@@ -7,6 +9,10 @@ import java.util.regex.Pattern;
 
 /**
  * An iterator over all the files in Reuters corpus RCV1.
+ * <br>
+ * Besides XML files, the files may be compressed XML files (like "2286newsML.xml.gz"), or archives of XML files (like
+ * "19960820.zip" or "rcv1.tar.gz"), which can be read by {@link ReutersDocumentIterator}. See {@link #isXmlFile(File)} and
+ * {@link #isArchive(File)}.
  *
  * <p>
  * Date: 25 May 2017
@@ -16,13 +22,40 @@ import java.util.regex.Pattern;
 public class ReutersIterator extends RecursiveFileIterator
 {
     public ReutersIterator(String rootDirectory)
+    {
+        this(rootDirectory, null);
+    }
+
+    /**
+     * Constructor which iterates only over the files of the given shard.
+     * @param rootDirectory the root directory of the corpus.
+     * @param shard the shard of the files to iterate over. Null means all the files.
+     */
+    public ReutersIterator(String rootDirectory, FileShard shard)
     {
         super(new File(rootDirectory),
                 (f)->digitsOnly.matcher(f.getName()).matches(),
-                (f)->f.getAbsolutePath().endsWith(".xml"),
+                (f)->( isXmlFile(f) || isArchive(f) ) && ( (null==shard) || shard.accept(f) ),
                 null
         );
     }
 
+    /**
+     * Returns true if the given file is an XML file, possibly compressed (see {@link CompressedFiles}).
+     */
+    public static boolean isXmlFile(File file)
+    {
+        return CompressedFiles.withoutCompressionExtension(file.getName()).endsWith(".xml");
+    }
+
+    /**
+     * Returns true if the given file is a zip or tar archive, possibly compressed (like ".tar.gz"), or a ".tgz" archive.
+     */
+    public static boolean isArchive(File file)
+    {
+        String name = CompressedFiles.withoutCompressionExtension(file.getName());
+        return name.endsWith(".zip") || name.endsWith(".tar") || name.endsWith(".tgz");
+    }
+
     private static Pattern digitsOnly = Pattern.compile("\\d+");
 }
@@ -1,14 +1,22 @@
 package com.github.asher_stern.word2vec.corpora;
 
+import com.github.asher_stern.word2vec.utilities.CompressedFiles;
 import com.github.asher_stern.word2vec.utilities.XmlDomElement;
 import org.apache.commons.io.IOUtils;
 import org.xml.sax.SAXException;
 
+import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -18,6 +26,10 @@ import java.util.List;
  * <br>
  * The file is an XML file, with several XML-elements, amongst which the most important is the one that contains the text
  * (the document contents).
+ * <br>
+ * By default, the XML is parsed by StAX ({@link XmlParser#STREAMING}), in a single pass, without building a DOM tree. The
+ * DOM parser gives identical results, and is kept for reference. Documents read from files or streams are kept as bytes,
+ * and are decoded by the XML parser, by the encoding declared in the XML (iso-8859-1 in RCV1).
  *
  * <p>
  * Date: Apr 9, 2017
@@ -31,26 +43,66 @@ public class ReutersParser
      */
     public static enum ParseType {TEXT, PARAGRAPHS}
 
+    /**
+     * How the XML is parsed. Both give identical results.
+     */
+    public static enum XmlParser
+    {
+        /**
+         * Builds a DOM tree of the whole document, and then walks it.
+         */
+        DOM,
+
+        /**
+         * Reads the document in a single pass of StAX events, by a factory that is reused by each thread.
+         */
+        STREAMING
+    }
+
     /**
      * Constructor with the entire Reuters XML file as a string.
      * @param xml the XML contents.
      */
     public ReutersParser(String xml)
+    {
+        this(xml, null);
+    }
+
+    private ReutersParser(String xml, byte[] bytes)
     {
         super();
         this.xml = xml;
+        this.bytes = bytes;
     }
 
     /**
      * Builds {@link ReutersParser} from an XML file.
-     * @param file an XML file, which is a single Reuters document.
+     * @param file an XML file, which is a single Reuters document. It may be compressed (see {@link CompressedFiles}).
      * @return {@link ReutersParser}
      */
     public static ReutersParser fromFile(File file)
     {
-        try(Reader reader = new FileReader(file))
+        try(InputStream stream = CompressedFiles.newInputStream(file))
+        {
+            return fromStream(stream);
+        }
+        catch(IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Builds {@link ReutersParser} from a stream of a single Reuters document (e.g., an entry of an archive).
+     * The stream is read to its end, but is not closed.
+     * @param stream the XML contents, encoded as declared in the XML.
+     * @return {@link ReutersParser}
+     */
+    public static ReutersParser fromStream(InputStream stream)
+    {
+        try
         {
-            return new ReutersParser(IOUtils.toString(reader));
+            return new ReutersParser(null, IOUtils.toByteArray(stream));
         }
         catch(IOException e)
         {
@@ -64,6 +116,14 @@ public class ReutersParser
      * of strings, each contains a single paragraph.
      */
     public void parse(ParseType parseType)
+    {
+        parse(parseType, XmlParser.STREAMING);
+    }
+
+    /**
+     * Like {@link #parse(ParseType)}, by the given XML parser.
+     */
+    public void parse(ParseType parseType, XmlParser xmlParser)
     {
         text = null;
         paragraphs = null;
@@ -77,12 +137,9 @@ public class ReutersParser
 
         try
         {
-            XmlDomElement root = XmlDomElement.fromString(xml);
-            XmlDomElement textElement = root.getSingleChildElement("text");
             boolean firstIteration = true;
-            for (XmlDomElement paragraphElement : textElement.getChildElements("p"))
+            for (String text : (xmlParser==XmlParser.DOM) ? paragraphTextsDom() : paragraphTextsStreaming())
             {
-                String text = paragraphElement.getText(true, false, true, "");
                 if ( (text!=null) && (text.length()>0) )
                 {
                     if (parseType==ParseType.TEXT)
@@ -101,7 +158,7 @@ public class ReutersParser
             }
             if (parseType==ParseType.TEXT) {this.text = sb.toString();}
         }
-        catch (IOException | SAXException | ParserConfigurationException e)
+        catch (IOException | SAXException | ParserConfigurationException | XMLStreamException e)
         {
             throw new RuntimeException(e);
         }
@@ -131,7 +188,131 @@ public class ReutersParser
 
 
 
+    /**
+     * Returns the first text of each paragraph (trimmed), or null for a paragraph without text, by a DOM tree.
+     */
+    private List<String> paragraphTextsDom() throws IOException, SAXException, ParserConfigurationException
+    {
+        XmlDomElement root = (xml!=null) ? XmlDomElement.fromString(xml) :
+                XmlDomElement.fromDocument(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(bytes)));
+        XmlDomElement textElement = root.getSingleChildElement("text");
+        List<String> ret = new ArrayList<>();
+        for (XmlDomElement paragraphElement : textElement.getChildElements("p"))
+        {
+            ret.add(paragraphElement.getText(true, false, true, ""));
+        }
+        return ret;
+    }
+
+    /**
+     * Like {@link #paragraphTextsDom()}, by StAX.
+     */
+    private List<String> paragraphTextsStreaming() throws XMLStreamException
+    {
+        XMLInputFactory factory = xmlInputFactory.get();
+        XMLStreamReader reader = (xml!=null) ? factory.createXMLStreamReader(new StringReader(xml)) : factory.createXMLStreamReader(new ByteArrayInputStream(bytes));
+        try
+        {
+            List<String> ret = new ArrayList<>();
+            int numberOfTextElements = 0;
+            reader.nextTag(); // the root element
+            while (nextStructure(reader)==XMLStreamConstants.START_ELEMENT)
+            {
+                if ("text".equals(reader.getLocalName()))
+                {
+                    ++numberOfTextElements;
+                    while (nextStructure(reader)==XMLStreamConstants.START_ELEMENT)
+                    {
+                        if ("p".equals(reader.getLocalName())) {ret.add(firstText(reader));}
+                        else {skipElement(reader);}
+                    }
+                }
+                else
+                {
+                    skipElement(reader);
+                }
+            }
+            if (numberOfTextElements!=1) {throw new RuntimeException("Number of child element whose name is \"text\" is not 1, but "+numberOfTextElements);}
+            return ret;
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the current element to its end-tag, and returns its first text (trimmed), like
+     * {@link XmlDomElement#getText(boolean, boolean, boolean, String)}: the first run of characters directly inside the element,
+     * which ends at a sub-element, a comment, a processing instruction or a CDATA section. Returns null if there is no text.
+     */
+    private static String firstText(XMLStreamReader reader) throws XMLStreamException
+    {
+        String ret = null;
+        StringBuilder run = null;
+        while (true)
+        {
+            int event = reader.next();
+            if ( (event==XMLStreamConstants.CHARACTERS) || (event==XMLStreamConstants.SPACE) )
+            {
+                if (null==ret)
+                {
+                    if (null==run) {run = new StringBuilder();}
+                    run.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+            else
+            {
+                if ( (null==ret) && (run!=null) ) {ret = run.toString().trim();}
+                run = null;
+                if (event==XMLStreamConstants.START_ELEMENT) {skipElement(reader);}
+                else if (event==XMLStreamConstants.END_ELEMENT) {return ret;}
+                else if (event==XMLStreamConstants.END_DOCUMENT) {throw new RuntimeException("Unexpected end of XML document");}
+            }
+        }
+    }
+
+    /**
+     * Moves the reader to the next start-tag or end-tag, skipping text, comments and processing instructions.
+     */
+    private static int nextStructure(XMLStreamReader reader) throws XMLStreamException
+    {
+        while (true)
+        {
+            int event = reader.next();
+            if ( (event==XMLStreamConstants.START_ELEMENT) || (event==XMLStreamConstants.END_ELEMENT) ) {return event;}
+            if (event==XMLStreamConstants.END_DOCUMENT) {throw new RuntimeException("Unexpected end of XML document");}
+        }
+    }
+
+    /**
+     * Moves the reader from the start-tag of the current element to its end-tag.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException
+    {
+        int depth = 1;
+        while (depth>0)
+        {
+            if (nextStructure(reader)==XMLStreamConstants.START_ELEMENT) {++depth;}
+            else {--depth;}
+        }
+    }
+
+
+    private static final String REPORT_CDATA_PROPERTY = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    // Like the DOM parser: not namespace-aware, and CDATA sections are not part of the surrounding text.
+    private static final ThreadLocal<XMLInputFactory> xmlInputFactory = ThreadLocal.withInitial(()->
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        if (factory.isPropertySupported(REPORT_CDATA_PROPERTY)) {factory.setProperty(REPORT_CDATA_PROPERTY, true);}
+        return factory;
+    });
+
     private final String xml;
+    private final byte[] bytes;
 
     private String text = null;
     private List<String> paragraphs = null;
@@ -0,0 +1,165 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens files for reading and writing, compressed or not, by the extension of the file name: ".gz" for gzip, ".xz" for xz
+ * and ".bz2" for bzip2. Other files are read and written as they are.
+ * <br>
+ * Compressed files are read as concatenations of compressed streams, so files written in parts (e.g., by several shards)
+ * can be concatenated byte by byte.
+ * <br>
+ * All the streams are buffered. Readers and writers use UTF-8.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class CompressedFiles
+{
+    /**
+     * The compression formats, by file extension.
+     */
+    public static enum Compression
+    {
+        NONE(""), GZIP(".gz"), XZ(".xz"), BZIP2(".bz2");
+
+        private Compression(String extension)
+        {
+            this.extension = extension;
+        }
+
+        /**
+         * The extension of the file names of this format (empty for {@link #NONE}).
+         */
+        public String getExtension()
+        {
+            return extension;
+        }
+
+        private final String extension;
+    }
+
+    /**
+     * Returns the compression format of the given file, by its name.
+     */
+    public static Compression compressionOf(File file)
+    {
+        return compressionOf(file.getName());
+    }
+
+    /**
+     * Returns the compression format of the given file name.
+     */
+    public static Compression compressionOf(String fileName)
+    {
+        for (Compression compression : Compression.values())
+        {
+            if ( (compression!=Compression.NONE) && (fileName.endsWith(compression.getExtension())) ) {return compression;}
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * Returns the given file name without the extension of its compression format (e.g., "a.tar" for "a.tar.gz").
+     */
+    public static String withoutCompressionExtension(String fileName)
+    {
+        return fileName.substring(0, fileName.length()-compressionOf(fileName).getExtension().length());
+    }
+
+    /**
+     * Opens the given file for reading, decompressing it if it is compressed.
+     */
+    public static InputStream newInputStream(File file) throws IOException
+    {
+        return decompress(new FileInputStream(file), compressionOf(file));
+    }
+
+    /**
+     * Returns a stream that decompresses the given stream by the given format.
+     * The given stream is closed if the decompressing stream cannot be created.
+     */
+    public static InputStream decompress(InputStream stream, Compression compression) throws IOException
+    {
+        InputStream buffered = new BufferedInputStream(stream, BUFFER_SIZE);
+        try
+        {
+            switch (compression)
+            {
+                case NONE: return buffered;
+                case GZIP: return new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE);
+                case XZ: return new BufferedInputStream(new XZCompressorInputStream(buffered, true), BUFFER_SIZE);
+                case BZIP2: return new BufferedInputStream(new BZip2CompressorInputStream(buffered, true), BUFFER_SIZE);
+                default: throw new RuntimeException("Unsupported compression: "+compression);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            buffered.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the given file for writing, compressing it if its name has the extension of a compression format.
+     */
+    public static OutputStream newOutputStream(File file) throws IOException
+    {
+        OutputStream stream = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+        try
+        {
+            switch (compressionOf(file))
+            {
+                case NONE: return stream;
+                case GZIP: return new BufferedOutputStream(new GZIPOutputStream(stream, BUFFER_SIZE), BUFFER_SIZE);
+                case XZ: return new BufferedOutputStream(new XZCompressorOutputStream(stream), BUFFER_SIZE);
+                case BZIP2: return new BufferedOutputStream(new BZip2CompressorOutputStream(stream), BUFFER_SIZE);
+                default: throw new RuntimeException("Unsupported compression: "+compressionOf(file));
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the given file for reading text, decompressing it if it is compressed.
+     */
+    public static BufferedReader newReader(File file) throws IOException
+    {
+        return new BufferedReader(new InputStreamReader(newInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens the given file for writing text, compressing it if its name has the extension of a compression format.
+     */
+    public static PrintWriter newPrintWriter(File file) throws IOException
+    {
+        return new PrintWriter(new OutputStreamWriter(newOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+
+    private static final int BUFFER_SIZE = 1<<16;
+}
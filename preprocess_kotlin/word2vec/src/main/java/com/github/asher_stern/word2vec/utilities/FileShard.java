@@ -0,0 +1,69 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.nio.file.Path;
+
+/**
+ * Accepts the files of one shard of a directory tree, out of a given number of shards.
+ * <br>
+ * The shard of a file is determined by the hash-code of its path relative to the root directory (with '/' as separator),
+ * so it does not depend on the order in which the files are listed, nor on the location of the root directory. Thus
+ * several processes, even on different machines, agree on the files of each shard.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class FileShard implements FileFilter
+{
+    /**
+     * Constructor.
+     * @param root the root directory of the tree.
+     * @param shard the shard accepted by this filter, in 0..numberOfShards-1.
+     * @param numberOfShards the number of shards.
+     */
+    public FileShard(File root, int shard, int numberOfShards)
+    {
+        super();
+        if ( (numberOfShards<1) || (shard<0) || (shard>=numberOfShards) ) {throw new RuntimeException("Illegal shard: "+shard+" of "+numberOfShards);}
+        this.root = root.getAbsoluteFile().toPath();
+        this.shard = shard;
+        this.numberOfShards = numberOfShards;
+    }
+
+    /**
+     * Returns the shard of the given file, which is in the tree of the given root directory.
+     */
+    public static int shardOf(File root, File file, int numberOfShards)
+    {
+        String relativePath = root.getAbsoluteFile().toPath().relativize(file.getAbsoluteFile().toPath()).toString().replace(File.separatorChar, '/');
+        return Math.floorMod(relativePath.hashCode(), numberOfShards);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.FileFilter#accept(java.io.File)
+     */
+    @Override
+    public boolean accept(File file)
+    {
+        if (numberOfShards==1) {return true;}
+        return shardOf(root.toFile(), file, numberOfShards)==shard;
+    }
+
+    public int getShard()
+    {
+        return shard;
+    }
+
+    public int getNumberOfShards()
+    {
+        return numberOfShards;
+    }
+
+
+    private final Path root;
+    private final int shard;
+    private final int numberOfShards;
+}
@@ -0,0 +1,251 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * All the files in a given directory and all its sub-directories recursively, listed by <tt>java.nio.file</tt>.
+ * <br>
+ * Each directory is listed once, and the type of each entry is taken from the attributes given with the directory listing
+ * (on file-systems that provide them, otherwise each entry is queried once). The files are given in the same order as by
+ * {@link RecursiveFileIterator}: the files of a directory, and then the files of each of its sub-directories, recursively.
+ * <br>
+ * The files can be iterated by {@link #iterator()}, or streamed by {@link #stream()} and {@link #parallelStream()}.
+ * The {@link Spliterator} of a parallel stream splits the tree into disjoint parts, which are listed and processed by
+ * different threads.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class FileTree implements Iterable<Path>
+{
+    /**
+     * Constructor with the root directory.
+     * @param root the root directory.
+     */
+    public FileTree(Path root)
+    {
+        this(root, null, null, null);
+    }
+
+    /**
+     * Constructor with the root directory and filters. Each filter may be null, which means that all are accepted.
+     * @param root the root directory.
+     * @param firstDirectoriesFilter Filter for the immediate sub-directories of the root directories (i.e, not sub-sub-directories).
+     * @param fileFilter Filter for files (i.e., not directories)
+     * @param directoryFilter Filter for directories (all the sub-directories, recursively). Applied on directories only, not files.
+     */
+    public FileTree(Path root, Predicate<Path> firstDirectoriesFilter, Predicate<Path> fileFilter, Predicate<Path> directoryFilter)
+    {
+        super();
+        if (!Files.isDirectory(root)) {throw new RuntimeException("Given root directory is not a directory (or does not exist): "+root.toAbsolutePath());}
+        this.root = root;
+        this.firstDirectoriesFilter = firstDirectoriesFilter;
+        this.fileFilter = fileFilter;
+        this.directoryFilter = directoryFilter;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<Path> iterator()
+    {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Iterable#spliterator()
+     */
+    @Override
+    public Spliterator<Path> spliterator()
+    {
+        Deque<Entry> entries = new ArrayDeque<>();
+        entries.add(new Entry(root, true, 0));
+        return new FileTreeSpliterator(entries);
+    }
+
+    /**
+     * Returns a sequential stream of the files.
+     */
+    public Stream<Path> stream()
+    {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the files.
+     */
+    public Stream<Path> parallelStream()
+    {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+
+    /**
+     * A file or a directory which was not listed yet.
+     */
+    private static class Entry
+    {
+        public Entry(Path path, boolean directory, int depth)
+        {
+            this.path = path;
+            this.directory = directory;
+            this.depth = depth;
+        }
+
+        public final Path path;
+        public final boolean directory;
+        public final int depth;
+    }
+
+    /**
+     * Holds a sequence of entries, in encounter order. Traversal replaces a directory by its files and sub-directories, and
+     * splitting gives away the first half of the entries.
+     */
+    private class FileTreeSpliterator implements Spliterator<Path>
+    {
+        public FileTreeSpliterator(Deque<Entry> entries)
+        {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Path> action)
+        {
+            while (!entries.isEmpty())
+            {
+                Entry entry = entries.removeFirst();
+                if (entry.directory)
+                {
+                    expand(entry);
+                }
+                else
+                {
+                    action.accept(entry.path);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<Path> trySplit()
+        {
+            if ( (entries.size()==1) && (entries.getFirst().directory) )
+            {
+                expand(entries.removeFirst());
+            }
+            int size = entries.size();
+            if (size<2) {return null;}
+            Deque<Entry> prefix = new ArrayDeque<>(size/2);
+            for (int index=0; index<(size/2); ++index)
+            {
+                prefix.addLast(entries.removeFirst());
+            }
+            return new FileTreeSpliterator(prefix);
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return ORDERED|NONNULL;
+        }
+
+        private void expand(Entry directory)
+        {
+            List<Entry> children = list(directory);
+            for (int index=children.size()-1; index>=0; --index)
+            {
+                entries.addFirst(children.get(index));
+            }
+        }
+
+        private final Deque<Entry> entries;
+    }
+
+
+    /**
+     * Lists a directory: returns its files, and then its sub-directories, each in the order of the directory listing.
+     * A directory that cannot be listed is regarded as empty.
+     */
+    private List<Entry> list(Entry directory)
+    {
+        final int depth = directory.depth+1;
+        final List<Entry> files = new ArrayList<>();
+        final List<Entry> directories = new ArrayList<>();
+        try
+        {
+            Files.walkFileTree(directory.path, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                {
+                    if (attributes.isDirectory())
+                    {
+                        if (acceptDirectory(file, depth)) {directories.add(new Entry(file, true, depth));}
+                    }
+                    else if (attributes.isRegularFile())
+                    {
+                        if ( (fileFilter==null) || (fileFilter.test(file)) ) {files.add(new Entry(file, false, depth));}
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc)
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            return new ArrayList<>();
+        }
+        files.addAll(directories);
+        return files;
+    }
+
+    private boolean acceptDirectory(Path directory, int depth)
+    {
+        return
+                ( (depth!=1) || (firstDirectoriesFilter==null) || (firstDirectoriesFilter.test(directory)) )
+                &&
+                ( (directoryFilter==null) || (directoryFilter.test(directory)) )
+                ;
+    }
+
+
+    private final Path root;
+
+    private final Predicate<Path> firstDirectoriesFilter;
+    private final Predicate<Path> fileFilter;
+    private final Predicate<Path> directoryFilter;
+}
@@ -0,0 +1,82 @@
+package com.github.asher_stern.word2vec.utilities;
+
+/**
+ * Conversions between <tt>float</tt> and IEEE 754 half precision (binary16), stored as <tt>short</tt>.
+ * <br>
+ * Conversion to half precision rounds to the nearest value (ties to even), and values too large for half precision
+ * become infinities. Conversion from half precision is exact, and is done by a table of all the 2^16 values.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class Float16
+{
+    /**
+     * Returns the half-precision value nearest to the given value.
+     */
+    public static short fromFloat(float value)
+    {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits>>>16)&0x8000;
+        int exponent = (bits>>>23)&0xFF;
+        int mantissa = bits&0x7FFFFF;
+        if (exponent==0xFF) // infinity or NaN
+        {
+            return (short) (sign|0x7C00|(mantissa!=0 ? 0x200|(mantissa>>>13) : 0));
+        }
+        int halfExponent = exponent-127+15;
+        if (halfExponent>=0x1F) {return (short) (sign|0x7C00);}
+        if (halfExponent<=0) // subnormal in half precision, or zero
+        {
+            if (halfExponent<-10) {return (short) sign;}
+            mantissa |= 0x800000;
+            int shift = 14-halfExponent;
+            return (short) (sign|roundShift(mantissa, shift));
+        }
+        // Rounding may carry into the exponent, which is still the correct result (up to infinity).
+        return (short) (sign|((halfExponent<<10)+roundShift(mantissa, 13)));
+    }
+
+    /**
+     * Returns the value of the given half-precision value.
+     */
+    public static float toFloat(short half)
+    {
+        return TABLE[half&0xFFFF];
+    }
+
+
+    private static int roundShift(int value, int shift)
+    {
+        int ret = value>>>shift;
+        int remainder = value&((1<<shift)-1);
+        int halfway = 1<<(shift-1);
+        if ( (remainder>halfway) || ( (remainder==halfway) && (0!=(ret&1)) ) ) {++ret;}
+        return ret;
+    }
+
+    private static float convert(int bits)
+    {
+        int sign = (bits&0x8000)<<16;
+        int exponent = (bits>>>10)&0x1F;
+        int mantissa = bits&0x3FF;
+        if (exponent==0x1F) {return Float.intBitsToFloat(sign|0x7F800000|(mantissa<<13));}
+        if (exponent==0)
+        {
+            float value = mantissa*0x1p-24f;
+            return (sign!=0) ? -value : value;
+        }
+        return Float.intBitsToFloat(sign|((exponent-15+127)<<23)|(mantissa<<13));
+    }
+
+
+    private static final float[] TABLE = new float[1<<16];
+    static
+    {
+        for (int bits=0; bits<TABLE.length; ++bits)
+        {
+            TABLE[bits] = convert(bits);
+        }
+    }
+}
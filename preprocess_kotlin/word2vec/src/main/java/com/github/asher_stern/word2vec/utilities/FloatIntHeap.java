@@ -0,0 +1,126 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of (<tt>float</tt> key, <tt>int</tt> value) pairs, in primitive arrays which grow as needed.
+ * Pairs with equal keys are ordered by their values, so the order of the pairs does not depend on the order of insertion.
+ * <br>
+ * A max-heap is obtained by negating the keys.
+ * <br>
+ * This class is not thread-safe.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class FloatIntHeap
+{
+    /**
+     * Constructor.
+     * @param initialCapacity the initial capacity. The heap grows automatically if more pairs are pushed.
+     */
+    public FloatIntHeap(int initialCapacity)
+    {
+        super();
+        keys = new float[Math.max(initialCapacity, 1)];
+        values = new int[keys.length];
+    }
+
+    public void push(float key, int value)
+    {
+        if (size==keys.length)
+        {
+            keys = Arrays.copyOf(keys, 2*keys.length);
+            values = Arrays.copyOf(values, 2*values.length);
+        }
+        keys[size] = key;
+        values[size] = value;
+        int position = size++;
+        while (position>0)
+        {
+            int parent = (position-1)/2;
+            if (!less(position, parent)) {break;}
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    /**
+     * Returns the smallest key.
+     */
+    public float peekKey()
+    {
+        if (size==0) {throw new RuntimeException("Empty heap.");}
+        return keys[0];
+    }
+
+    /**
+     * Returns the value of the smallest key.
+     */
+    public int peekValue()
+    {
+        if (size==0) {throw new RuntimeException("Empty heap.");}
+        return values[0];
+    }
+
+    /**
+     * Removes the pair with the smallest key, and returns its value.
+     */
+    public int pop()
+    {
+        int ret = peekValue();
+        --size;
+        keys[0] = keys[size];
+        values[0] = values[size];
+        int position = 0;
+        while (true)
+        {
+            int smallest = position;
+            int left = 2*position+1;
+            int right = left+1;
+            if ( (left<size) && (less(left, smallest)) ) {smallest = left;}
+            if ( (right<size) && (less(right, smallest)) ) {smallest = right;}
+            if (smallest==position) {break;}
+            swap(smallest, position);
+            position = smallest;
+        }
+        return ret;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size==0;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+
+
+    private boolean less(int position1, int position2)
+    {
+        return (keys[position1]<keys[position2]) || ( (keys[position1]==keys[position2]) && (values[position1]<values[position2]) );
+    }
+
+    private void swap(int position1, int position2)
+    {
+        float key = keys[position1];
+        keys[position1] = keys[position2];
+        keys[position2] = key;
+        int value = values[position1];
+        values[position1] = values[position2];
+        values[position2] = value;
+    }
+
+
+    private float[] keys;
+    private int[] values;
+    private int size = 0;
+}
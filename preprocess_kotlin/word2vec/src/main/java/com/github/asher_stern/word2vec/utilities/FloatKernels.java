@@ -0,0 +1,158 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.nio.FloatBuffer;
+
+/**
+ * The arithmetic kernels of vector similarity, over rows of flat, row-major <tt>float</tt> matrices: each vector is given
+ * as an array (or a buffer, e.g., of a memory-mapped file) and the offset of its first element.
+ * <br>
+ * The loops are written to be auto-vectorized by the JIT compiler: simple counted loops, with several independent
+ * accumulators, so the additions do not wait for each other.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class FloatKernels
+{
+    /**
+     * Returns the dot product of the two vectors.
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            sum0 += a[aOffset+index]*b[bOffset+index];
+            sum1 += a[aOffset+index+1]*b[bOffset+index+1];
+            sum2 += a[aOffset+index+2]*b[bOffset+index+2];
+            sum3 += a[aOffset+index+3]*b[bOffset+index+3];
+        }
+        for (; index<length; ++index)
+        {
+            sum0 += a[aOffset+index]*b[bOffset+index];
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared Euclidean (L2) distance between the two vectors.
+     */
+    public static float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            float d0 = a[aOffset+index]-b[bOffset+index];
+            float d1 = a[aOffset+index+1]-b[bOffset+index+1];
+            float d2 = a[aOffset+index+2]-b[bOffset+index+2];
+            float d3 = a[aOffset+index+3]-b[bOffset+index+3];
+            sum0 += d0*d0;
+            sum1 += d1*d1;
+            sum2 += d2*d2;
+            sum3 += d3*d3;
+        }
+        for (; index<length; ++index)
+        {
+            float d = a[aOffset+index]-b[bOffset+index];
+            sum0 += d*d;
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the dot product of the two vectors, where the second is in a buffer (read by absolute positions).
+     */
+    public static float dot(float[] a, int aOffset, FloatBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            sum0 += a[aOffset+index]*b.get(bOffset+index);
+            sum1 += a[aOffset+index+1]*b.get(bOffset+index+1);
+            sum2 += a[aOffset+index+2]*b.get(bOffset+index+2);
+            sum3 += a[aOffset+index+3]*b.get(bOffset+index+3);
+        }
+        for (; index<length; ++index)
+        {
+            sum0 += a[aOffset+index]*b.get(bOffset+index);
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared Euclidean (L2) distance between the two vectors, where the second is in a buffer.
+     */
+    public static float squaredDistance(float[] a, int aOffset, FloatBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            float d0 = a[aOffset+index]-b.get(bOffset+index);
+            float d1 = a[aOffset+index+1]-b.get(bOffset+index+1);
+            float d2 = a[aOffset+index+2]-b.get(bOffset+index+2);
+            float d3 = a[aOffset+index+3]-b.get(bOffset+index+3);
+            sum0 += d0*d0;
+            sum1 += d1*d1;
+            sum2 += d2*d2;
+            sum3 += d3*d3;
+        }
+        for (; index<length; ++index)
+        {
+            float d = a[aOffset+index]-b.get(bOffset+index);
+            sum0 += d*d;
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared norm of the vector in the given buffer.
+     */
+    public static float squaredNorm(FloatBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            float value0 = b.get(bOffset+index);
+            float value1 = b.get(bOffset+index+1);
+            float value2 = b.get(bOffset+index+2);
+            float value3 = b.get(bOffset+index+3);
+            sum0 += value0*value0;
+            sum1 += value1*value1;
+            sum2 += value2*value2;
+            sum3 += value3*value3;
+        }
+        for (; index<length; ++index)
+        {
+            float value = b.get(bOffset+index);
+            sum0 += value*value;
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the cosine similarity of the two vectors, or 0 if either of them is a zero vector.
+     */
+    public static float cosine(float[] a, int aOffset, float[] b, int bOffset, int length)
+    {
+        float norms = (float)Math.sqrt(dot(a, aOffset, a, aOffset, length)*dot(b, bOffset, b, bOffset, length));
+        return (norms>0) ? (dot(a, aOffset, b, bOffset, length)/norms) : 0f;
+    }
+
+    /**
+     * Scales the given vector, in place, to unit length. A zero vector is left as is.
+     */
+    public static void normalize(float[] a, int aOffset, int length)
+    {
+        float norm = (float)Math.sqrt(dot(a, aOffset, a, aOffset, length));
+        if (norm>0)
+        {
+            for (int index=0; index<length; ++index) {a[aOffset+index] /= norm;}
+        }
+    }
+}
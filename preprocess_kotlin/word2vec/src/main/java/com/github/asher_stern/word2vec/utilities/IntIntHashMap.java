@@ -0,0 +1,136 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A map from non-negative <tt>int</tt> keys to <tt>int</tt> values, implemented as an open-addressing hash table with
+ * linear probing. Mainly used for counting, by {@link #addTo(int, int)}.
+ * <br>
+ * This class is not thread-safe.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class IntIntHashMap
+{
+    /**
+     * Constructor with the expected number of keys. The table grows automatically if more keys are put.
+     * @param expectedSize expected number of keys.
+     */
+    public IntIntHashMap(int expectedSize)
+    {
+        super();
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < (2L*expectedSize)) {capacity <<= 1;}
+        allocate(capacity);
+    }
+
+    /**
+     * Adds <code>delta</code> to the value of the given key. A key that does not exist is added with the value <code>delta</code>.
+     * @param key a non-negative key
+     * @param delta the value to add
+     */
+    public void addTo(int key, int delta)
+    {
+        if (key<0) {throw new IllegalArgumentException("Negative key: "+key);}
+        int slot = findSlot(key);
+        if (keys[slot]==EMPTY)
+        {
+            keys[slot] = key;
+            values[slot] = delta;
+            ++size;
+            if ((2*size) > keys.length)
+            {
+                rehash(keys.length*2);
+            }
+        }
+        else
+        {
+            values[slot] += delta;
+        }
+    }
+
+    /**
+     * Returns the value of the given key, or <code>defaultValue</code> if the key does not exist.
+     */
+    public int get(int key, int defaultValue)
+    {
+        if (key<0) {return defaultValue;}
+        int slot = findSlot(key);
+        return (keys[slot]==EMPTY)?defaultValue:values[slot];
+    }
+
+    /**
+     * Returns the number of keys.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns all the keys, sorted in ascending order.
+     */
+    public int[] sortedKeys()
+    {
+        int[] ret = new int[size];
+        int index = 0;
+        for (int key : keys)
+        {
+            if (key!=EMPTY) {ret[index++] = key;}
+        }
+        Arrays.sort(ret);
+        return ret;
+    }
+
+
+    private int findSlot(int key)
+    {
+        int slot = hash(key) & mask;
+        while ( (keys[slot]!=EMPTY) && (keys[slot]!=key) )
+        {
+            slot = (slot+1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int newCapacity)
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int index=0; index<oldKeys.length; ++index)
+        {
+            if (oldKeys[index]!=EMPTY)
+            {
+                int slot = findSlot(oldKeys[index]);
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity-1;
+    }
+
+    private static int hash(int key)
+    {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+}
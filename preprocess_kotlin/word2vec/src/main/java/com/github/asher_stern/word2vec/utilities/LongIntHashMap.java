@@ -0,0 +1,155 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A map from non-negative <tt>long</tt> keys to <tt>int</tt> values, implemented as an open-addressing hash table with
+ * linear probing. Mainly used for counting, by {@link #addTo(long, int)}.
+ * <br>
+ * This class is not thread-safe.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class LongIntHashMap
+{
+    /**
+     * The approximate number of bytes used per key, with the maximum load factor of the table.
+     */
+    public static final int BYTES_PER_KEY = 2*(8+4);
+
+    /**
+     * Constructor with the expected number of keys. The table grows automatically if more keys are put.
+     * @param expectedSize expected number of keys.
+     */
+    public LongIntHashMap(int expectedSize)
+    {
+        super();
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds <code>delta</code> to the value of the given key. A key that does not exist is added with the value <code>delta</code>.
+     * @param key a non-negative key
+     * @param delta the value to add
+     */
+    public void addTo(long key, int delta)
+    {
+        if (key<0) {throw new IllegalArgumentException("Negative key: "+key);}
+        int slot = findSlot(key);
+        if (keys[slot]==EMPTY)
+        {
+            keys[slot] = key;
+            values[slot] = delta;
+            ++size;
+            if ((2*size) > keys.length)
+            {
+                rehash(keys.length*2);
+            }
+        }
+        else
+        {
+            values[slot] += delta;
+        }
+    }
+
+    /**
+     * Returns the value of the given key, or <code>defaultValue</code> if the key does not exist.
+     */
+    public int get(long key, int defaultValue)
+    {
+        if (key<0) {return defaultValue;}
+        int slot = findSlot(key);
+        return (keys[slot]==EMPTY)?defaultValue:values[slot];
+    }
+
+    /**
+     * Returns the number of keys.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes all the keys, and shrinks the table to its initial capacity.
+     */
+    public void clear()
+    {
+        allocate(MINIMUM_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns all the keys, sorted in ascending order.
+     */
+    public long[] sortedKeys()
+    {
+        long[] ret = new long[size];
+        int index = 0;
+        for (long key : keys)
+        {
+            if (key!=EMPTY) {ret[index++] = key;}
+        }
+        Arrays.sort(ret);
+        return ret;
+    }
+
+
+    private int findSlot(long key)
+    {
+        int slot = hash(key) & mask;
+        while ( (keys[slot]!=EMPTY) && (keys[slot]!=key) )
+        {
+            slot = (slot+1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int newCapacity)
+    {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int index=0; index<oldKeys.length; ++index)
+        {
+            if (oldKeys[index]!=EMPTY)
+            {
+                int slot = findSlot(oldKeys[index]);
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity-1;
+    }
+
+    private static int capacityFor(int expectedSize)
+    {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < (2L*expectedSize)) {capacity <<= 1;}
+        return capacity;
+    }
+
+    private static int hash(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int)(hash ^ (hash >>> 32));
+    }
+
+
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+}
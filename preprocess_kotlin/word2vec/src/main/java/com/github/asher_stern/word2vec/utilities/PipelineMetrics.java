@@ -0,0 +1,391 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects the throughput metrics of a processing pipeline (like preprocessing a corpus, or generating neighbors), and
+ * reports them periodically as JSON lines (one JSON object per line), and optionally through JMX.
+ * <br>
+ * The pipeline adds to the {@link Counter}s, and adds the time it spends in each {@link Stage}. All the methods are
+ * thread-safe, and can be called by many threads concurrently. The time of a stage is summed over all the threads, so in a
+ * multi-threaded pipeline it can exceed the elapsed time. The fraction of each stage (of the total time of all the stages)
+ * shows which stage is the bottleneck.
+ * <br>
+ * Each report contains, for each counter, its total, its rate (per second) since the previous report, and its average
+ * rate since the start; the seconds and fraction of each stage; and the heap usage and the GC counts and times of the JVM.
+ * A final report (with "final":true) is written by {@link #close()}.
+ * <br>
+ * Usage: construct, call {@link #start(long, File, boolean)}, run the pipeline, and close. Metrics which are not started
+ * still collect the counters and times (which can be read by {@link #get(Counter)} and {@link #getSeconds(Stage)}), but
+ * write no report at all, so they can be given to a pipeline whose caller does not want any report.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class PipelineMetrics implements PipelineMetricsMBean, AutoCloseable
+{
+    /**
+     * The counted quantities.
+     */
+    public static enum Counter
+    {
+        DOCUMENTS("documents"), SENTENCES("sentences"), TOKENS("tokens"), PAIRS("pairs"), BYTES_READ("bytesRead"), BYTES_WRITTEN("bytesWritten");
+
+        private Counter(String jsonName)
+        {
+            this.jsonName = jsonName;
+        }
+
+        /**
+         * The name of this counter in the JSON reports.
+         */
+        public String getJsonName()
+        {
+            return jsonName;
+        }
+
+        private final String jsonName;
+    }
+
+    /**
+     * The stages of a pipeline, whose times are measured.
+     */
+    public static enum Stage
+    {
+        /**
+         * Reading and parsing the input: the XML of the documents, or the lines of sentences.txt.
+         */
+        PARSING("parsing"),
+
+        /**
+         * Splitting the input into sentences and tokens, and normalizing or looking-up the tokens.
+         */
+        SEGMENTATION("segmentation"),
+
+        /**
+         * Generating and writing the output.
+         */
+        OUTPUT("output");
+
+        private Stage(String jsonName)
+        {
+            this.jsonName = jsonName;
+        }
+
+        /**
+         * The name of this stage in the JSON reports.
+         */
+        public String getJsonName()
+        {
+            return jsonName;
+        }
+
+        private final String jsonName;
+    }
+
+    /**
+     * Constructor.
+     * @param pipeline the name of the pipeline, which is written in each report, and is the name of the MBean.
+     */
+    public PipelineMetrics(String pipeline)
+    {
+        super();
+        this.pipeline = pipeline;
+        for (int index=0; index<counters.length; ++index) {counters[index] = new LongAdder();}
+        for (int index=0; index<times.length; ++index) {times[index] = new LongAdder();}
+    }
+
+    /**
+     * Starts reporting.
+     * @param intervalMillis the interval between reports, in milliseconds. 0 means that only the final report is written.
+     * @param file the file to which the reports are appended, or null to write them to the standard output.
+     * @param jmx whether to register this object as an MBean.
+     * @return this object.
+     */
+    public PipelineMetrics start(long intervalMillis, File file, boolean jmx)
+    {
+        if (started) {throw new RuntimeException("Metrics of "+pipeline+" were already started.");}
+        started = true;
+        if (file!=null)
+        {
+            try
+            {
+                output = new PrintStream(new FileOutputStream(file, true), true, StandardCharsets.UTF_8.name());
+                ownOutput = true;
+            }
+            catch (FileNotFoundException | UnsupportedEncodingException e)
+            {
+                throw new RuntimeException("Cannot write metrics into "+file, e);
+            }
+        }
+        if (jmx) {register();}
+        if (intervalMillis>0)
+        {
+            scheduler = Executors.newSingleThreadScheduledExecutor((runnable)->
+            {
+                Thread thread = new Thread(runnable, "metrics-"+pipeline);
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(()->report(false), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    public void add(Counter counter, long value)
+    {
+        counters[counter.ordinal()].add(value);
+    }
+
+    public void increment(Counter counter)
+    {
+        counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * Adds the given time to the given stage.
+     * @param nanoseconds time, as measured by {@link System#nanoTime()}.
+     */
+    public void addTime(Stage stage, long nanoseconds)
+    {
+        times[stage.ordinal()].add(nanoseconds);
+    }
+
+    /**
+     * Takes the value of the given counter from the given source (e.g., the length of an output file), rather than from
+     * {@link #add(Counter, long)}.
+     */
+    public void setSource(Counter counter, LongSupplier source)
+    {
+        sources[counter.ordinal()] = source;
+    }
+
+    public long get(Counter counter)
+    {
+        LongSupplier source = sources[counter.ordinal()];
+        return (source!=null) ? source.getAsLong() : counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Returns the time of the given stage, in seconds.
+     */
+    public double getSeconds(Stage stage)
+    {
+        return times[stage.ordinal()].sum()/1e9;
+    }
+
+    /**
+     * Returns a stream which reads the given stream, and adds the number of bytes it reads to {@link Counter#BYTES_READ}.
+     */
+    public InputStream countBytesRead(InputStream stream)
+    {
+        return new FilterInputStream(stream)
+        {
+            @Override
+            public int read() throws IOException
+            {
+                int ret = super.read();
+                if (ret>=0) {increment(Counter.BYTES_READ);}
+                return ret;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException
+            {
+                int ret = super.read(buffer, offset, length);
+                if (ret>0) {add(Counter.BYTES_READ, ret);}
+                return ret;
+            }
+
+            @Override
+            public long skip(long n) throws IOException
+            {
+                long ret = super.skip(n);
+                if (ret>0) {add(Counter.BYTES_READ, ret);}
+                return ret;
+            }
+        };
+    }
+
+    /**
+     * Returns the current metrics as a JSON object, in a single line.
+     * Rates are computed since the previous report, which is this one, if this is a report.
+     * @param isFinal the value of the "final" field.
+     */
+    public synchronized String toJson(boolean isFinal)
+    {
+        long now = System.nanoTime();
+        double elapsed = (now-startTime)/1e9;
+        double interval = (now-lastReportTime)/1e9;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"pipeline\":").append(quote(pipeline));
+        sb.append(",\"timestamp\":").append(System.currentTimeMillis());
+        sb.append(",\"elapsedSeconds\":").append(format(elapsed));
+        sb.append(",\"final\":").append(isFinal);
+        for (Counter counter : Counter.values())
+        {
+            long value = get(counter);
+            String name = counter.getJsonName();
+            sb.append(",\"").append(name).append("\":").append(value);
+            sb.append(",\"").append(name).append("PerSecond\":").append(format(rate(value-lastValues[counter.ordinal()], interval)));
+            sb.append(",\"").append(name).append("PerSecondAverage\":").append(format(rate(value, elapsed)));
+            lastValues[counter.ordinal()] = value;
+        }
+        double totalSeconds = 0;
+        for (Stage stage : Stage.values()) {totalSeconds += getSeconds(stage);}
+        for (Stage stage : Stage.values())
+        {
+            double seconds = getSeconds(stage);
+            sb.append(",\"").append(stage.getJsonName()).append("Seconds\":").append(format(seconds));
+            sb.append(",\"").append(stage.getJsonName()).append("Fraction\":").append(format( (totalSeconds>0) ? (seconds/totalSeconds) : 0.0 ));
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        sb.append(",\"heapUsed\":").append(heap.getUsed());
+        sb.append(",\"heapCommitted\":").append(heap.getCommitted());
+        sb.append(",\"heapMax\":").append(heap.getMax());
+        long gcCount = 0;
+        long gcMillis = 0;
+        StringBuilder collectors = new StringBuilder();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            long count = Math.max(collector.getCollectionCount(), 0);
+            long millis = Math.max(collector.getCollectionTime(), 0);
+            gcCount += count;
+            gcMillis += millis;
+            if (collectors.length()>0) {collectors.append(',');}
+            collectors.append(quote(collector.getName())).append(":{\"count\":").append(count).append(",\"seconds\":").append(format(millis/1e3)).append('}');
+        }
+        sb.append(",\"gcCount\":").append(gcCount);
+        sb.append(",\"gcSeconds\":").append(format(gcMillis/1e3));
+        sb.append(",\"gc\":{").append(collectors).append('}');
+        sb.append('}');
+
+        lastReportTime = now;
+        lastReport = sb.toString();
+        return lastReport;
+    }
+
+    /**
+     * Stops reporting, writes the final report (if started), and unregisters the MBean.
+     */
+    @Override
+    public void close()
+    {
+        if (closed) {return;}
+        closed = true;
+        if (scheduler!=null) {scheduler.shutdownNow();}
+        if (started) {report(true);}
+        if (objectName!=null)
+        {
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+            catch (JMException e)
+            {
+                throw new RuntimeException(e);
+            }
+            objectName = null;
+        }
+        if (ownOutput) {output.close();}
+    }
+
+
+    @Override public String getPipeline() {return pipeline;}
+    @Override public double getElapsedSeconds() {return (System.nanoTime()-startTime)/1e9;}
+    @Override public long getDocuments() {return get(Counter.DOCUMENTS);}
+    @Override public long getSentences() {return get(Counter.SENTENCES);}
+    @Override public long getTokens() {return get(Counter.TOKENS);}
+    @Override public long getPairs() {return get(Counter.PAIRS);}
+    @Override public long getBytesRead() {return get(Counter.BYTES_READ);}
+    @Override public long getBytesWritten() {return get(Counter.BYTES_WRITTEN);}
+    @Override public double getParsingSeconds() {return getSeconds(Stage.PARSING);}
+    @Override public double getSegmentationSeconds() {return getSeconds(Stage.SEGMENTATION);}
+    @Override public double getOutputSeconds() {return getSeconds(Stage.OUTPUT);}
+    @Override public synchronized String getLastReport() {return lastReport;}
+
+
+    private void report(boolean isFinal)
+    {
+        output.println(toJson(isFinal));
+    }
+
+    private void register()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.github.asher_stern.word2vec:type=PipelineMetrics,name="+ObjectName.quote(pipeline)+",id="+ids.incrementAndGet());
+            server.registerMBean(this, name);
+            objectName = name;
+        }
+        catch (JMException e)
+        {
+            throw new RuntimeException("Cannot register the metrics of "+pipeline+" in JMX.", e);
+        }
+    }
+
+    private static double rate(long value, double seconds)
+    {
+        return (seconds>0) ? (value/seconds) : 0.0;
+    }
+
+    private static String format(double value)
+    {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String value)
+    {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray())
+        {
+            if ( (c=='"') || (c=='\\') ) {sb.append('\\').append(c);}
+            else if (c<0x20) {sb.append(String.format("\\u%04x", (int)c));}
+            else {sb.append(c);}
+        }
+        return sb.append('"').toString();
+    }
+
+
+    private static final AtomicInteger ids = new AtomicInteger(0);
+
+    private final String pipeline;
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final LongAdder[] times = new LongAdder[Stage.values().length];
+    private final LongSupplier[] sources = new LongSupplier[Counter.values().length];
+    private final long[] lastValues = new long[Counter.values().length];
+    private final long startTime = System.nanoTime();
+    private long lastReportTime = startTime;
+    private String lastReport = null;
+
+    private boolean started = false;
+    private volatile boolean closed = false;
+    private PrintStream output = System.out;
+    private boolean ownOutput = false;
+    private ScheduledExecutorService scheduler = null;
+    private ObjectName objectName = null;
+}
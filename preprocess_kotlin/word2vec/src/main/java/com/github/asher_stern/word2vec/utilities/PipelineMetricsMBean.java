@@ -0,0 +1,31 @@
+package com.github.asher_stern.word2vec.utilities;
+
+/**
+ * The JMX interface of {@link PipelineMetrics}. Heap and GC statistics are not repeated here, since the JVM exposes them
+ * by its own platform MBeans.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public interface PipelineMetricsMBean
+{
+    public String getPipeline();
+    public double getElapsedSeconds();
+
+    public long getDocuments();
+    public long getSentences();
+    public long getTokens();
+    public long getPairs();
+    public long getBytesRead();
+    public long getBytesWritten();
+
+    public double getParsingSeconds();
+    public double getSegmentationSeconds();
+    public double getOutputSeconds();
+
+    /**
+     * The last report, as a JSON object (see {@link PipelineMetrics#toJson(boolean)}).
+     */
+    public String getLastReport();
+}
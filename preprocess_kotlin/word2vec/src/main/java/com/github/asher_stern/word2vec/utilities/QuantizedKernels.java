@@ -0,0 +1,170 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * The arithmetic kernels of vector similarity between a <tt>float</tt> query and a quantized vector, read directly from
+ * its buffer (e.g., of a memory-mapped file), so no vector is converted into a temporary <tt>float</tt> array.
+ * <br>
+ * A vector of int8 values <i>q</i> with a scale <i>s</i> stands for the vector <i>s*q</i>. The int8 kernels return the
+ * results for <i>q</i>, and the caller multiplies them by the scale (or by its square). A half-precision vector is given
+ * as its <tt>short</tt> values (see {@link Float16}).
+ * <br>
+ * Like {@link FloatKernels}, the loops use several independent accumulators.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class QuantizedKernels
+{
+    /**
+     * Returns the dot product of the query and the int8 vector (not multiplied by its scale).
+     */
+    public static float dot(float[] a, int aOffset, ByteBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            sum0 += a[aOffset+index]*b.get(bOffset+index);
+            sum1 += a[aOffset+index+1]*b.get(bOffset+index+1);
+            sum2 += a[aOffset+index+2]*b.get(bOffset+index+2);
+            sum3 += a[aOffset+index+3]*b.get(bOffset+index+3);
+        }
+        for (; index<length; ++index)
+        {
+            sum0 += a[aOffset+index]*b.get(bOffset+index);
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared Euclidean (L2) distance between the query and the int8 vector multiplied by the given scale.
+     */
+    public static float squaredDistance(float[] a, int aOffset, ByteBuffer b, int bOffset, float scale, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            float d0 = a[aOffset+index]-scale*b.get(bOffset+index);
+            float d1 = a[aOffset+index+1]-scale*b.get(bOffset+index+1);
+            float d2 = a[aOffset+index+2]-scale*b.get(bOffset+index+2);
+            float d3 = a[aOffset+index+3]-scale*b.get(bOffset+index+3);
+            sum0 += d0*d0;
+            sum1 += d1*d1;
+            sum2 += d2*d2;
+            sum3 += d3*d3;
+        }
+        for (; index<length; ++index)
+        {
+            float d = a[aOffset+index]-scale*b.get(bOffset+index);
+            sum0 += d*d;
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared norm of the int8 vector (not multiplied by the square of its scale), exactly, as an integer.
+     */
+    public static int squaredNorm(ByteBuffer b, int bOffset, int length)
+    {
+        int sum = 0;
+        for (int index=0; index<length; ++index)
+        {
+            int value = b.get(bOffset+index);
+            sum += value*value;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the dot product of the query and the half-precision vector.
+     */
+    public static float dot(float[] a, int aOffset, ShortBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            sum0 += a[aOffset+index]*Float16.toFloat(b.get(bOffset+index));
+            sum1 += a[aOffset+index+1]*Float16.toFloat(b.get(bOffset+index+1));
+            sum2 += a[aOffset+index+2]*Float16.toFloat(b.get(bOffset+index+2));
+            sum3 += a[aOffset+index+3]*Float16.toFloat(b.get(bOffset+index+3));
+        }
+        for (; index<length; ++index)
+        {
+            sum0 += a[aOffset+index]*Float16.toFloat(b.get(bOffset+index));
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared Euclidean (L2) distance between the query and the half-precision vector.
+     */
+    public static float squaredDistance(float[] a, int aOffset, ShortBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int index = 0;
+        for (; index+3<length; index+=4)
+        {
+            float d0 = a[aOffset+index]-Float16.toFloat(b.get(bOffset+index));
+            float d1 = a[aOffset+index+1]-Float16.toFloat(b.get(bOffset+index+1));
+            float d2 = a[aOffset+index+2]-Float16.toFloat(b.get(bOffset+index+2));
+            float d3 = a[aOffset+index+3]-Float16.toFloat(b.get(bOffset+index+3));
+            sum0 += d0*d0;
+            sum1 += d1*d1;
+            sum2 += d2*d2;
+            sum3 += d3*d3;
+        }
+        for (; index<length; ++index)
+        {
+            float d = a[aOffset+index]-Float16.toFloat(b.get(bOffset+index));
+            sum0 += d*d;
+        }
+        return (sum0+sum1)+(sum2+sum3);
+    }
+
+    /**
+     * Returns the squared norm of the half-precision vector.
+     */
+    public static float squaredNorm(ShortBuffer b, int bOffset, int length)
+    {
+        float sum0 = 0, sum1 = 0;
+        int index = 0;
+        for (; index+1<length; index+=2)
+        {
+            float value0 = Float16.toFloat(b.get(bOffset+index));
+            float value1 = Float16.toFloat(b.get(bOffset+index+1));
+            sum0 += value0*value0;
+            sum1 += value1*value1;
+        }
+        for (; index<length; ++index)
+        {
+            float value = Float16.toFloat(b.get(bOffset+index));
+            sum0 += value*value;
+        }
+        return sum0+sum1;
+    }
+
+    /**
+     * Quantizes the given vector into int8 values, written into <tt>destination</tt> from <tt>destinationOffset</tt>, and returns
+     * their scale: the largest absolute value of the vector divided by 127 (0 for a zero vector).
+     */
+    public static float quantize(float[] a, int aOffset, int length, byte[] destination, int destinationOffset)
+    {
+        float maximum = 0;
+        for (int index=0; index<length; ++index)
+        {
+            maximum = Math.max(maximum, Math.abs(a[aOffset+index]));
+        }
+        float scale = maximum/127f;
+        for (int index=0; index<length; ++index)
+        {
+            destination[destinationOffset+index] = (scale==0) ? 0 : (byte) Math.max(-127, Math.min(127, Math.round(a[aOffset+index]/scale)));
+        }
+        return scale;
+    }
+}
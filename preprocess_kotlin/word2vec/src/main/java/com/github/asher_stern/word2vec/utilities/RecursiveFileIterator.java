@@ -1,18 +1,16 @@
 package com.github.asher_stern.word2vec.utilities;
 
-import org.apache.commons.collections4.iterators.ObjectArrayIterator;
-
 import java.io.File;
 import java.io.FileFilter;
+import java.nio.file.Path;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
+import java.util.function.Predicate;
 
 /**
  * Iterator over all the files in a given directory and all its sub-directories recursively.
  * <br>
- * This iterator is similar to UNIX <tt>find</tt> command.
+ * This iterator is similar to UNIX <tt>find</tt> command. The files are listed by {@link FileTree}, which can also split the
+ * tree for parallel processing.
  *
  *
  * <p>
@@ -41,17 +39,8 @@ public class RecursiveFileIterator implements Iterator<File>
     public RecursiveFileIterator(File root, FileFilter firstDirectoriesFilter, FileFilter fileFilter, FileFilter directoryFilter)
     {
         super();
-        this.root = root;
-        this.firstDirectoriesFilter = firstDirectoriesFilter;
-        this.fileFilter = fileFilter;
-        this.directoryFilter = directoryFilter;
-
         if (!root.isDirectory()) {throw new RuntimeException("Given root directory is not a directory (or does not exist): "+root.getAbsolutePath());}
-        Queue<File> firstQueue = new LinkedList<>();
-        firstQueue.add(root);
-        stack = new Stack<>();
-        stack.push(firstQueue);
-        findNextFile();
+        iterator = new FileTree(root.toPath(), toPredicate(firstDirectoriesFilter), toPredicate(fileFilter), toPredicate(directoryFilter)).iterator();
     }
 
     /*
@@ -61,7 +50,7 @@ public class RecursiveFileIterator implements Iterator<File>
     @Override
     public boolean hasNext()
     {
-        return (nextFile != null);
+        return iterator.hasNext();
     }
 
     /*
@@ -71,110 +60,17 @@ public class RecursiveFileIterator implements Iterator<File>
     @Override
     public File next()
     {
-        File ret = nextFile;
-        findNextFile();
-        return ret;
+        if (!iterator.hasNext()) {return null;}
+        return iterator.next().toFile();
     }
 
 
-    private void findNextFile()
-    {
-        boolean doItAgain = false;
-        do
-        {
-            doItAgain = false;
-            nextFile = null;
-            if ((currentDirectoryIterator!=null)&&(currentDirectoryIterator.hasNext()))
-            {
-                nextFile = currentDirectoryIterator.next();
-            }
-            else
-            {
-                if (!stack.isEmpty())
-                {
-                    Queue<File> currentQueue = null;
-                    while ( (!stack.isEmpty()) && (currentQueue==null) )
-                    {
-                        currentQueue = stack.pop();
-                        if (currentQueue.isEmpty())
-                        {
-                            currentQueue = null;
-                        }
-                    }
-                    if (currentQueue!=null)
-                    {
-                        File directory = currentQueue.remove();
-                        stack.push(currentQueue);
-
-                        File[] subDirectories = getDirectoriesOfDirectory(directory);
-                        if ( (subDirectories!=null) && (subDirectories.length>0) )
-                        {
-                            Queue<File> newQueue = new LinkedList<>();
-                            for (File subDir : subDirectories)
-                            {
-                                newQueue.add(subDir);
-                            }
-                            stack.push(newQueue);
-                        }
-
-                        File[] files = getFiles_notDirectories_OfDirectory(directory);
-                        if ( (files!=null) && (files.length>0) )
-                        {
-                            currentDirectoryIterator = new ObjectArrayIterator<>(files);
-                            nextFile = currentDirectoryIterator.next();
-                        }
-                        else
-                        {
-                            doItAgain = true;
-                        }
-                    }
-                }
-            }
-        }while(doItAgain);
-    }
-
-    private File[] getFiles_notDirectories_OfDirectory(File dir)
-    {
-        return dir.listFiles(new FileFilter()
-        {
-            @Override
-            public boolean accept(File pathname)
-            {
-                return
-                        (pathname.isFile())
-                                &&
-                                ((fileFilter!=null)?fileFilter.accept(pathname):true)
-                        ;
-            }
-        });
-    }
-    private File[] getDirectoriesOfDirectory(File dir)
+    private static Predicate<Path> toPredicate(FileFilter filter)
     {
-        return dir.listFiles(new FileFilter()
-        {
-            @Override
-            public boolean accept(File pathname)
-            {
-                return
-                        (pathname.isDirectory())
-                                &&
-                                (root.equals(dir)?( (firstDirectoriesFilter!=null)?firstDirectoriesFilter.accept(pathname):true ):true)
-                                &&
-                                ((directoryFilter!=null)?directoryFilter.accept(pathname):true)
-                        ;
-            }
-        });
+        if (null==filter) {return null;}
+        return (path)->filter.accept(path.toFile());
     }
 
 
-    private final File root;
-
-    private final FileFilter firstDirectoriesFilter;
-    private final FileFilter fileFilter;
-    private final FileFilter directoryFilter;
-
-
-    private Stack<Queue<File>> stack;
-    private Iterator<File> currentDirectoryIterator = null;
-    private File nextFile = null;
+    private final Iterator<Path> iterator;
 }
@@ -0,0 +1,161 @@
+package com.github.asher_stern.word2vec.utilities;
+
+/**
+ * A map from strings to primitive <tt>int</tt> values, implemented as an open-addressing hash table with linear probing.
+ * <br>
+ * Unlike {@link java.util.HashMap}, values are not boxed, and keys can be looked-up by a region of a {@link CharSequence},
+ * so a token can be found in a line of text without creating a substring for it.
+ * <br>
+ * This class is not thread-safe. However, once all the keys were put, it can be read concurrently by several threads.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class StringIntHashMap
+{
+    /**
+     * Constructor with the expected number of keys. The table grows automatically if more keys are put.
+     * @param expectedSize expected number of keys.
+     */
+    public StringIntHashMap(int expectedSize)
+    {
+        super();
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < (2L*expectedSize)) {capacity <<= 1;}
+        allocate(capacity);
+    }
+
+    /**
+     * Associates the given value with the given key. If the key already exists, its value is replaced.
+     * @param key the key (must not be null).
+     * @param value the value.
+     */
+    public void put(String key, int value)
+    {
+        if (null==key) {throw new NullPointerException("Null key.");}
+        final int hash = hash(key, 0, key.length());
+        int slot = findSlot(key, 0, key.length(), hash);
+        if (keys[slot]==null)
+        {
+            keys[slot] = key;
+            hashes[slot] = hash;
+            ++size;
+        }
+        values[slot] = value;
+        if ((2*size) > keys.length)
+        {
+            rehash(keys.length*2);
+        }
+    }
+
+    /**
+     * Returns the value of the given key, or <code>defaultValue</code> if the key does not exist.
+     */
+    public int get(String key, int defaultValue)
+    {
+        return get(key, 0, key.length(), defaultValue);
+    }
+
+    /**
+     * Returns the value of the key composed of the characters <code>begin</code> (inclusive) to <code>end</code> (exclusive)
+     * of <code>text</code>, or <code>defaultValue</code> if that key does not exist.
+     */
+    public int get(CharSequence text, int begin, int end, int defaultValue)
+    {
+        int slot = findSlot(text, begin, end, hash(text, begin, end));
+        return (keys[slot]==null)?defaultValue:values[slot];
+    }
+
+    /**
+     * Returns whether the given key exists.
+     */
+    public boolean containsKey(String key)
+    {
+        return keys[findSlot(key, 0, key.length(), hash(key, 0, key.length()))] != null;
+    }
+
+    /**
+     * Returns the number of keys.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    private int findSlot(CharSequence text, int begin, int end, int hash)
+    {
+        int slot = hash & mask;
+        while (keys[slot]!=null)
+        {
+            if ( (hashes[slot]==hash) && equal(keys[slot], text, begin, end) )
+            {
+                return slot;
+            }
+            slot = (slot+1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int newCapacity)
+    {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(newCapacity);
+        for (int index=0; index<oldKeys.length; ++index)
+        {
+            if (oldKeys[index]!=null)
+            {
+                int slot = oldHashes[index] & mask;
+                while (keys[slot]!=null) {slot = (slot+1) & mask;}
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+                hashes[slot] = oldHashes[index];
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new String[capacity];
+        values = new int[capacity];
+        hashes = new int[capacity];
+        mask = capacity-1;
+    }
+
+    private static boolean equal(String key, CharSequence text, int begin, int end)
+    {
+        final int length = end-begin;
+        if (key.length()!=length) {return false;}
+        for (int index=0; index<length; ++index)
+        {
+            if (key.charAt(index)!=text.charAt(begin+index)) {return false;}
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int begin, int end)
+    {
+        int hash = 0;
+        for (int index=begin; index<end; ++index)
+        {
+            hash = 31*hash + text.charAt(index);
+        }
+        // Spread the bits, since the table index is taken from the lower bits only.
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash;
+    }
+
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private String[] keys;
+    private int[] values;
+    private int[] hashes;
+    private int mask;
+    private int size = 0;
+}
@@ -0,0 +1,162 @@
+package com.github.asher_stern.word2vec.utilities;
+
+/**
+ * Keeps the <i>k</i> best of the (index, score) pairs offered to it, in a bounded min-heap of primitive arrays, so
+ * selecting the best <i>k</i> of <i>n</i> pairs takes O(<i>n</i> log <i>k</i>) time and no allocation per pair.
+ * <br>
+ * A pair is better than another if its score is larger, or if the scores are equal and its index is smaller. So the
+ * result does not depend on the order in which the pairs are offered (e.g., by several threads, merged by {@link #addAll(TopK)}).
+ * <br>
+ * This class is not thread-safe.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class TopK
+{
+    /**
+     * Constructor.
+     * @param k the number of pairs to keep.
+     */
+    public TopK(int k)
+    {
+        super();
+        if (k<0) {throw new IllegalArgumentException("Negative k: "+k);}
+        this.indexes = new int[k];
+        this.scores = new float[k];
+    }
+
+    /**
+     * Offers a pair, which is kept if it is among the best <i>k</i> pairs offered so far.
+     */
+    public void offer(int index, float score)
+    {
+        if (size<indexes.length)
+        {
+            indexes[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+        }
+        else if ( (size>0) && (better(index, score, indexes[0], scores[0])) )
+        {
+            indexes[0] = index;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Offers all the pairs kept by the given {@link TopK}.
+     */
+    public void addAll(TopK other)
+    {
+        for (int index=0; index<other.size; ++index)
+        {
+            offer(other.indexes[index], other.scores[index]);
+        }
+    }
+
+    /**
+     * Returns the number of pairs kept (<i>k</i>, unless fewer pairs were offered).
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the indexes of the kept pairs, from the best to the worst.
+     */
+    public int[] sortedIndexes()
+    {
+        sort();
+        int[] ret = new int[size];
+        for (int index=0; index<size; ++index) {ret[index] = sortedIndexes[index];}
+        return ret;
+    }
+
+    /**
+     * Returns the scores of the kept pairs, in the order of {@link #sortedIndexes()}.
+     */
+    public float[] sortedScores()
+    {
+        sort();
+        float[] ret = new float[size];
+        for (int index=0; index<size; ++index) {ret[index] = sortedScores[index];}
+        return ret;
+    }
+
+
+    /**
+     * Sorts a copy of the heap into {@link #sortedIndexes} and {@link #sortedScores}, by heap-sort. The heap is kept.
+     */
+    private void sort()
+    {
+        TopK copy = new TopK(indexes.length);
+        System.arraycopy(indexes, 0, copy.indexes, 0, size);
+        System.arraycopy(scores, 0, copy.scores, 0, size);
+        copy.size = size;
+        sortedIndexes = new int[size];
+        sortedScores = new float[size];
+        for (int position=size-1; position>=0; --position)
+        {
+            // The root is the worst pair.
+            sortedIndexes[position] = copy.indexes[0];
+            sortedScores[position] = copy.scores[0];
+            --copy.size;
+            copy.indexes[0] = copy.indexes[copy.size];
+            copy.scores[0] = copy.scores[copy.size];
+            copy.siftDown(0);
+        }
+    }
+
+    private void siftUp(int position)
+    {
+        while (position>0)
+        {
+            int parent = (position-1)/2;
+            if (!better(indexes[parent], scores[parent], indexes[position], scores[position])) {break;}
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position)
+    {
+        while (true)
+        {
+            int worst = position;
+            int left = 2*position+1;
+            int right = left+1;
+            if ( (left<size) && (better(indexes[worst], scores[worst], indexes[left], scores[left])) ) {worst = left;}
+            if ( (right<size) && (better(indexes[worst], scores[worst], indexes[right], scores[right])) ) {worst = right;}
+            if (worst==position) {return;}
+            swap(worst, position);
+            position = worst;
+        }
+    }
+
+    private void swap(int position1, int position2)
+    {
+        int index = indexes[position1];
+        indexes[position1] = indexes[position2];
+        indexes[position2] = index;
+        float score = scores[position1];
+        scores[position1] = scores[position2];
+        scores[position2] = score;
+    }
+
+    private static boolean better(int index1, float score1, int index2, float score2)
+    {
+        return (score1>score2) || ( (score1==score2) && (index1<index2) );
+    }
+
+
+    private final int[] indexes;
+    private final float[] scores;
+    private int size = 0;
+
+    private int[] sortedIndexes;
+    private float[] sortedScores;
+}
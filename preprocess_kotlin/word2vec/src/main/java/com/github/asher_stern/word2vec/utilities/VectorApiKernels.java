@@ -0,0 +1,21 @@
+package com.github.asher_stern.word2vec.utilities;
+
+/**
+ * The kernels of the JDK Vector API (see {@link VectorKernels}). This is the version of Java 8, in which the Vector API
+ * is not available. The version of Java 17 is in src/main/java17, and is packaged into META-INF/versions/17 of the
+ * (multi-release) jar, where Java 17 and later load it instead of this class.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+class VectorApiKernels
+{
+    /**
+     * Returns null, since the Vector API is not available.
+     */
+    static VectorKernels create()
+    {
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.asher_stern.word2vec.utilities;
+
+/**
+ * The arithmetic kernels of training and of querying word vectors, over rows of flat, row-major <tt>float</tt> matrices:
+ * the similarity kernels, and the update kernel of stochastic gradient descent (<i>y</i> += <i>alpha</i>*<i>x</i>).
+ * <br>
+ * The implementation is chosen once, at startup, by {@link #get()}: the JDK Vector API ({@link Implementation#VECTOR_API})
+ * when it is available, and scalar loops ({@link Implementation#SCALAR}, see {@link FloatKernels}) otherwise. The Vector
+ * API implementation is compiled for Java 17 (by the "vector-api" profile of the pom) into META-INF/versions/17 of the
+ * jar, so it is available when the jar is run by Java 17 or later, with <tt>--add-modules jdk.incubator.vector</tt>.
+ * The system property <tt>word2vec.kernels=SCALAR</tt> forces the scalar implementation.
+ * <br>
+ * The implementations may differ in the order of the additions, so their results may differ in the last bits.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public abstract class VectorKernels
+{
+    public static enum Implementation
+    {
+        SCALAR, VECTOR_API
+    }
+
+    public static final String IMPLEMENTATION_PROPERTY = "word2vec.kernels";
+
+    /**
+     * Returns the kernels chosen at startup.
+     */
+    public static VectorKernels get()
+    {
+        return SELECTED;
+    }
+
+    /**
+     * Returns the kernels of the given implementation.
+     * @throws RuntimeException if the given implementation is not available.
+     */
+    public static VectorKernels get(Implementation implementation)
+    {
+        switch (implementation)
+        {
+            case SCALAR: return SCALAR;
+            case VECTOR_API:
+                VectorKernels ret = createVectorApiKernels();
+                if (null==ret) {throw new RuntimeException("The JDK Vector API is not available. It requires Java 17 or later, a multi-release jar built with the vector-api profile, and --add-modules jdk.incubator.vector.");}
+                return ret;
+            default: throw new RuntimeException("Unsupported implementation: "+implementation);
+        }
+    }
+
+    public abstract Implementation getImplementation();
+
+    /**
+     * Returns the dot product of the two vectors.
+     */
+    public abstract float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Returns the squared Euclidean (L2) distance between the two vectors.
+     */
+    public abstract float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Adds <tt>alpha</tt> times the vector <tt>x</tt> to the vector <tt>y</tt>, in place.
+     */
+    public abstract void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length);
+
+    /**
+     * Returns the cosine similarity of the two vectors, or 0 if either of them is a zero vector.
+     */
+    public float cosine(float[] a, int aOffset, float[] b, int bOffset, int length)
+    {
+        float norms = (float)Math.sqrt(dot(a, aOffset, a, aOffset, length)*dot(b, bOffset, b, bOffset, length));
+        return (norms>0) ? (dot(a, aOffset, b, bOffset, length)/norms) : 0f;
+    }
+
+
+    /**
+     * The scalar loops of {@link FloatKernels}.
+     */
+    private static class ScalarKernels extends VectorKernels
+    {
+        @Override
+        public Implementation getImplementation()
+        {
+            return Implementation.SCALAR;
+        }
+
+        @Override
+        public float dot(float[] a, int aOffset, float[] b, int bOffset, int length)
+        {
+            return FloatKernels.dot(a, aOffset, b, bOffset, length);
+        }
+
+        @Override
+        public float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length)
+        {
+            return FloatKernels.squaredDistance(a, aOffset, b, bOffset, length);
+        }
+
+        @Override
+        public void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length)
+        {
+            for (int index=0; index<length; ++index)
+            {
+                y[yOffset+index] += alpha*x[xOffset+index];
+            }
+        }
+    }
+
+    /**
+     * Returns the Vector API kernels, or null if the Vector API is not available (then {@link VectorApiKernels} is
+     * the stub of Java 8, or the module jdk.incubator.vector is not loaded).
+     */
+    private static VectorKernels createVectorApiKernels()
+    {
+        try
+        {
+            return VectorApiKernels.create();
+        }
+        catch (LinkageError e)
+        {
+            return null;
+        }
+    }
+
+    private static VectorKernels select()
+    {
+        String implementation = System.getProperty(IMPLEMENTATION_PROPERTY);
+        if (implementation!=null) {return get(Implementation.valueOf(implementation));}
+        VectorKernels vectorApi = createVectorApiKernels();
+        return (vectorApi!=null) ? vectorApi : SCALAR;
+    }
+
+
+    private static final VectorKernels SCALAR = new ScalarKernels();
+    private static final VectorKernels SELECTED = select();
+}
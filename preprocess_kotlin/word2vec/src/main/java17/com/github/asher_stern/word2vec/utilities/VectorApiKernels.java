@@ -0,0 +1,97 @@
+package com.github.asher_stern.word2vec.utilities;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernels of the JDK Vector API (see {@link VectorKernels}), in the preferred vector size of the processor, with a
+ * scalar loop for the remaining elements (e.g., 6 of the 30 elements of a vector in 8-float vectors).
+ * <br>
+ * This class is compiled for Java 17, with <tt>--add-modules jdk.incubator.vector</tt>, into META-INF/versions/17 of the
+ * jar, by the "vector-api" profile of the pom. It replaces the stub of Java 8 (in src/main/java).
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+class VectorApiKernels extends VectorKernels
+{
+    /**
+     * Returns the kernels, or null if the processor has no vectors of at least 4 floats, for which scalar loops are as fast.
+     * @throws LinkageError if the module jdk.incubator.vector is not loaded.
+     */
+    static VectorKernels create()
+    {
+        if (FloatVector.SPECIES_PREFERRED.length()<MINIMUM_LENGTH) {return null;}
+        return new VectorApiKernels();
+    }
+
+    @Override
+    public Implementation getImplementation()
+    {
+        return Implementation.VECTOR_API;
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length)
+    {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int index = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; index<bound; index+=SPECIES.length())
+        {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset+index);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset+index);
+            sum = va.fma(vb, sum);
+        }
+        float ret = sum.reduceLanes(VectorOperators.ADD);
+        for (; index<length; ++index)
+        {
+            ret += a[aOffset+index]*b[bOffset+index];
+        }
+        return ret;
+    }
+
+    @Override
+    public float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length)
+    {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int index = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; index<bound; index+=SPECIES.length())
+        {
+            FloatVector difference = FloatVector.fromArray(SPECIES, a, aOffset+index).sub(FloatVector.fromArray(SPECIES, b, bOffset+index));
+            sum = difference.fma(difference, sum);
+        }
+        float ret = sum.reduceLanes(VectorOperators.ADD);
+        for (; index<length; ++index)
+        {
+            float difference = a[aOffset+index]-b[bOffset+index];
+            ret += difference*difference;
+        }
+        return ret;
+    }
+
+    @Override
+    public void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length)
+    {
+        FloatVector valpha = FloatVector.broadcast(SPECIES, alpha);
+        int index = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; index<bound; index+=SPECIES.length())
+        {
+            FloatVector vx = FloatVector.fromArray(SPECIES, x, xOffset+index);
+            FloatVector vy = FloatVector.fromArray(SPECIES, y, yOffset+index);
+            vx.fma(valpha, vy).intoArray(y, yOffset+index);
+        }
+        for (; index<length; ++index)
+        {
+            y[yOffset+index] += alpha*x[xOffset+index];
+        }
+    }
+
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int MINIMUM_LENGTH = 4;
+}
@@ -1,5 +1,6 @@
 package com.github.asher_stern.word2vec.corpora
 
+import com.github.asher_stern.word2vec.utilities.FileShard
 import com.github.asher_stern.word2vec.utilities.RecursiveFileIterator
 import org.apache.uima.UimaContext
 import org.apache.uima.fit.component.JCasCollectionReader_ImplBase
@@ -21,15 +22,34 @@ class BncCollectionReader : JCasCollectionReader_ImplBase()
     companion object
     {
         const val DIRECTORY_PARAM = "BncCollectionReader.directory"
+        const val POS_AND_LEMMA_PARAM = "BncCollectionReader.posAndLemma"
+        const val SHARD_PARAM = "BncCollectionReader.shard"
+        const val NUMBER_OF_SHARDS_PARAM = "BncCollectionReader.numberOfShards"
     }
     @field:ConfigurationParameter(name = DIRECTORY_PARAM, mandatory = true)
     private var directory: String? = null
 
+    /**
+     * Whether to add POS and Lemma annotations to the tokens. Set to false if only Token and Sentence annotations are used.
+     */
+    @field:ConfigurationParameter(name = POS_AND_LEMMA_PARAM, mandatory = false, defaultValue = arrayOf("true"))
+    private var posAndLemma: Boolean = true
+
+    /**
+     * The shard of the corpus files to read (see [FileShard]). By default, all the files are read.
+     */
+    @field:ConfigurationParameter(name = SHARD_PARAM, mandatory = false, defaultValue = arrayOf("0"))
+    private var shard: Int = 0
+
+    @field:ConfigurationParameter(name = NUMBER_OF_SHARDS_PARAM, mandatory = false, defaultValue = arrayOf("1"))
+    private var numberOfShards: Int = 1
+
 
     override fun initialize(context: UimaContext?)
     {
         super.initialize(context)
-        iterator = RecursiveFileIterator(File(directory!!), null, { it.name.endsWith(".xml") }, null )
+        val fileShard = FileShard(File(directory!!), shard, numberOfShards)
+        iterator = RecursiveFileIterator(File(directory!!), null, { it.name.endsWith(".xml") && fileShard.accept(it) }, null )
     }
 
     override fun getProgress(): Array<Progress>? = null
@@ -39,7 +59,7 @@ class BncCollectionReader : JCasCollectionReader_ImplBase()
     override fun getNext(jCas: JCas)
     {
         val file = iterator!!.next()
-        BncDocumentLoader(jCas, file, true).load()
+        BncDocumentLoader(jCas, file, true, posAndLemma = posAndLemma).load()
     }
 
 
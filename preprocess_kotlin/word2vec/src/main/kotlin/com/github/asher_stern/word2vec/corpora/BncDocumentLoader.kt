@@ -2,24 +2,95 @@ package com.github.asher_stern.word2vec.corpora
 
 import com.github.asher_stern.word2vec.utilities.BeginEnd
 import com.github.asher_stern.word2vec.utilities.XmlDomElement
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.ADJ
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.ADV
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.ART
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.CONJ
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.N
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.O
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.PP
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.PR
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.PUNC
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.V
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
 import org.apache.uima.jcas.JCas
+import java.io.BufferedInputStream
 import java.io.File
+import java.io.FileInputStream
 import java.util.*
+import javax.xml.stream.XMLInputFactory
+import javax.xml.stream.XMLStreamConstants
+import javax.xml.stream.XMLStreamReader
 
 /**
  * Created by Asher Stern on October-19 2017.
  */
 
-class BncDocumentLoader(private val cas: JCas, private val file: File, private val includeHeads: Boolean = false)
+
+/**
+ * How [BncDocumentReader] parses the XML file. Both give identical results.
+ */
+enum class BncXmlParser
 {
-    fun load()
+    /**
+     * Builds a DOM tree of the whole file, and then walks it.
+     */
+    DOM,
+
+    /**
+     * Reads the file in a single pass of StAX events, without building an element tree.
+     */
+    STREAMING
+}
+
+
+/**
+ * A BNC document: its text, its sentences and its tokens, as offsets in the text.
+ * Both the sentences and the tokens are in the order of the XML file.
+ */
+class BncDocument(val text: String, val sentences: List<BeginEnd>, val tokens: List<BncToken>)
+{
+    /**
+     * Returns the surfaces of the tokens of each sentence. The sentences are in the order in which a CAS annotation index
+     * returns the corresponding [Sentence] annotations (by begin, then longer first), and each sentence has the tokens
+     * covered by it, like [org.apache.uima.fit.util.JCasUtil.indexCovered].
+     */
+    fun sentenceSurfaces(): List<Array<String>>
+    {
+        val tokenBegins = IntArray(tokens.size) { tokens[it].beginEnd.begin }
+        return sentences.sortedWith(compareBy<BeginEnd> { it.begin }.thenByDescending { it.end }).map { sentence ->
+            var first = Arrays.binarySearch(tokenBegins, sentence.begin)
+            if (first < 0) { first = -first - 1 }
+            var end = first
+            while ( (end < tokens.size) && (tokens[end].beginEnd.end <= sentence.end) ) { ++end }
+            Array(end - first) { text.substring(tokens[first + it].beginEnd.begin, tokens[first + it].beginEnd.end) }
+        }
+    }
+}
+
+/**
+ * A token of a [BncDocument].
+ * @param pos the POS tag, as one of the DKPro coarse-grained POS type names.
+ */
+data class BncToken(val beginEnd: BeginEnd, val pos: String, val lemma: String)
+
+
+/**
+ * Reads a BNC XML file into a [BncDocument].
+ */
+class BncDocumentReader(private val file: File, private val includeHeads: Boolean = false, private val parser: BncXmlParser = BncXmlParser.STREAMING)
+{
+    fun read(): BncDocument
     {
-        readXml()
-        setCasContents()
+        when (parser)
+        {
+            BncXmlParser.DOM -> readXml()
+            BncXmlParser.STREAMING -> readXmlStreaming()
+        }
+        return BncDocument(text.toString(), sentences, tokens)
     }
 
 
@@ -66,53 +137,229 @@ class BncDocumentLoader(private val cas: JCas, private val file: File, private v
     {
         for (sentence in paragraph.getChildElements("s"))
         {
-            if (text.length > 0) { text.append(" ") }
-            val beginSentence = text.length
-
-            var firstIteration = true
+            beginSentence()
             for (word in xmlListWords(sentence))
             {
-                val tag = word.element.tagName
+                addWord(word.element.tagName, word.getText(true, false, false, ""), word.element.getAttribute("hw"), word.element.getAttribute("pos"))
+            }
+            endSentence()
+        }
+    }
+
 
-                if (firstIteration) { firstIteration = false }
-                else
+    /**
+     * Reads the file with the same semantics as [readXml]: paragraphs ("p", "item", and "head" if [includeHeads]) are
+     * searched anywhere under the single "wtext" or "stext" child of the root, sentences are the "s" children of a
+     * paragraph, and words are the "w" and "c" elements anywhere under a sentence. The surface of a word is its first
+     * direct text node.
+     */
+    private fun readXmlStreaming()
+    {
+        var numberOfWtext = 0
+        var numberOfStext = 0
+        BufferedInputStream(FileInputStream(file), STREAMING_BUFFER_SIZE).use { stream ->
+            val reader = xmlInputFactory.createXMLStreamReader(stream)
+            try
+            {
+                nextStructure(reader) // the root
+                while (nextStructure(reader) == XMLStreamConstants.START_ELEMENT)
                 {
-                    if (tag != "c")
+                    when (reader.localName)
                     {
-                        text.append(" ")
+                        "wtext" -> { ++numberOfWtext; readTextElementStreaming(reader) }
+                        "stext" -> { ++numberOfStext; readTextElementStreaming(reader) }
+                        else -> skipElement(reader)
                     }
                 }
+            }
+            finally
+            {
+                reader.close()
+            }
+        }
+        if (!( ((numberOfWtext==1) && (numberOfStext==0)) || ((numberOfWtext==0) && (numberOfStext==1)) ))
+        {
+            throw RuntimeException("Cannot detect text element. wtext.size = $numberOfWtext. stext.size = $numberOfStext")
+        }
+    }
 
-                val surface: String? = word.getText(true, false, false, "")
-                if (surface != null)
-                {
-                    val lemma = if (tag == "c") surface else word.element.getAttribute("hw")._ifEmpty(surface)
+    /**
+     * Reads the text element (or any element under it, which is not a paragraph), from its start-tag to its end-tag.
+     */
+    private fun readTextElementStreaming(reader: XMLStreamReader)
+    {
+        while (nextStructure(reader) == XMLStreamConstants.START_ELEMENT)
+        {
+            when (reader.localName)
+            {
+                "head" -> if (includeHeads) { readParagraphStreaming(reader) } else { skipElement(reader) }
+                "p", "item" -> readParagraphStreaming(reader)
+                else -> readTextElementStreaming(reader)
+            }
+        }
+    }
 
-                    var pos = if (tag == "c") "PUNC" else word.element.getAttribute("pos")._ifEmpty("O")
-                    pos = mapPos(pos)
-                    tokens.add(TokenToAnnotate(BeginEnd(text.length, text.length + surface.length), pos, lemma))
-                    text.append(surface)
+    private fun readParagraphStreaming(reader: XMLStreamReader)
+    {
+        while (nextStructure(reader) == XMLStreamConstants.START_ELEMENT)
+        {
+            if (reader.localName == "s")
+            {
+                beginSentence()
+                readSentenceStreaming(reader)
+                endSentence()
+            }
+            else
+            {
+                skipElement(reader)
+            }
+        }
+    }
+
+    private fun readSentenceStreaming(reader: XMLStreamReader)
+    {
+        while (nextStructure(reader) == XMLStreamConstants.START_ELEMENT)
+        {
+            val tag = reader.localName
+            if ( (tag == "w") || (tag == "c") )
+            {
+                val lemma = reader.getAttributeValue(null, "hw") ?: ""
+                val pos = reader.getAttributeValue(null, "pos") ?: ""
+                addWord(tag, readFirstTextStreaming(reader), lemma, pos)
+            }
+            else
+            {
+                readSentenceStreaming(reader)
+            }
+        }
+    }
+
+    /**
+     * Returns the first direct text node of the current element (or null if it has none), and moves the reader to the
+     * end-tag of the current element.
+     */
+    private fun readFirstTextStreaming(reader: XMLStreamReader): String?
+    {
+        var surface: StringBuilder? = null
+        var firstTextEnded = false
+        while (true)
+        {
+            val event = reader.next()
+            if ( (event == XMLStreamConstants.CHARACTERS) || (event == XMLStreamConstants.SPACE) )
+            {
+                if (!firstTextEnded)
+                {
+                    if (surface == null) { surface = StringBuilder() }
+                    surface.append(reader.textCharacters, reader.textStart, reader.textLength)
+                }
+            }
+            else
+            {
+                if (surface != null) { firstTextEnded = true }
+                when (event)
+                {
+                    XMLStreamConstants.START_ELEMENT -> skipElement(reader)
+                    XMLStreamConstants.END_ELEMENT -> return surface?.toString()
+                    XMLStreamConstants.END_DOCUMENT -> throw RuntimeException("Unexpected end of file: ${file.path}")
                 }
             }
-            sentences.add(BeginEnd(beginSentence, text.length))
         }
     }
 
-    private fun setCasContents()
+
+    private fun beginSentence()
+    {
+        if (text.length > 0) { text.append(" ") }
+        sentenceBegin = text.length
+        firstWordInSentence = true
+    }
+
+    private fun addWord(tag: String, surface: String?, hw: String, pos: String)
+    {
+        if (firstWordInSentence) { firstWordInSentence = false }
+        else
+        {
+            if (tag != "c")
+            {
+                text.append(" ")
+            }
+        }
+
+        if (surface != null)
+        {
+            val lemma = if (tag == "c") surface else hw._ifEmpty(surface)
+            val mappedPos = mapPos(if (tag == "c") "PUNC" else pos._ifEmpty("O"))
+            tokens.add(BncToken(BeginEnd(text.length, text.length + surface.length), mappedPos, lemma))
+            text.append(surface)
+        }
+    }
+
+    private fun endSentence()
+    {
+        sentences.add(BeginEnd(sentenceBegin, text.length))
+    }
+
+    companion object
+    {
+        private const val STREAMING_BUFFER_SIZE = 1 shl 16
+
+        private const val REPORT_CDATA_PROPERTY = "http://java.sun.com/xml/stream/properties/report-cdata-event"
+
+        // Like the DOM parser: not namespace-aware, and CDATA sections are not part of the surrounding text.
+        private val xmlInputFactory: XMLInputFactory = XMLInputFactory.newInstance().apply {
+            setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false)
+            setProperty(XMLInputFactory.IS_COALESCING, false)
+            if (isPropertySupported(REPORT_CDATA_PROPERTY)) { setProperty(REPORT_CDATA_PROPERTY, true) }
+        }
+    }
+
+
+    private val text = StringBuilder()
+    private val tokens = mutableListOf<BncToken>()
+    private val sentences = mutableListOf<BeginEnd>()
+    private var sentenceBegin = 0
+    private var firstWordInSentence = true
+}
+
+
+/**
+ * Loads a BNC XML file into a CAS: its text, [Sentence] and [Token] annotations, and, if [posAndLemma] is true,
+ * also [POS] and [Lemma] annotations of the tokens.
+ */
+class BncDocumentLoader @JvmOverloads constructor(
+        private val cas: JCas,
+        private val file: File,
+        private val includeHeads: Boolean = false,
+        private val parser: BncXmlParser = BncXmlParser.STREAMING,
+        private val posAndLemma: Boolean = true
+)
+{
+    fun load()
+    {
+        setCasContents(BncDocumentReader(file, includeHeads, parser).read())
+    }
+
+
+    private fun setCasContents(document: BncDocument)
     {
         cas.reset()
         cas.documentLanguage = "en"
-        cas.documentText = text.toString()
+        cas.documentText = document.text
 
-        for (sentence in sentences)
+        for (sentence in document.sentences)
         {
             Sentence(cas, sentence.begin, sentence.end).addToIndexes()
         }
 
-        for (token in tokens)
+        for (token in document.tokens)
         {
             val tokenAnnotation = Token(cas, token.beginEnd.begin, token.beginEnd.end)
-            val posAnnotation = Class.forName(POS_PACKAGE+token.pos).getConstructor(JCas::class.java, java.lang.Integer.TYPE, java.lang.Integer.TYPE).newInstance(cas, token.beginEnd.begin, token.beginEnd.end) as POS
+            if (!posAndLemma)
+            {
+                tokenAnnotation.addToIndexes()
+                continue
+            }
+            val posAnnotation = POS_FACTORIES.getValue(token.pos)(cas, token.beginEnd.begin, token.beginEnd.end)
             val lemmaAnnotation = Lemma(cas, token.beginEnd.begin, token.beginEnd.end)
             lemmaAnnotation.value = token.lemma
 
@@ -125,21 +372,24 @@ class BncDocumentLoader(private val cas: JCas, private val file: File, private v
     }
 
 
-    private data class TokenToAnnotate(
-            val beginEnd: BeginEnd,
-            val pos: String,
-            val lemma: String
-    )
-
     companion object
     {
-        val POS_PACKAGE = POS::class.java.`package`.name+"."
+        /**
+         * Creates a [POS] annotation for each tag returned by [mapPos].
+         */
+        private val POS_FACTORIES: Map<String, (JCas, Int, Int) -> POS> = hashMapOf<String, (JCas, Int, Int) -> POS>(
+                "CONJ" to { cas, begin, end -> CONJ(cas, begin, end) },
+                "N" to { cas, begin, end -> N(cas, begin, end) },
+                "V" to { cas, begin, end -> V(cas, begin, end) },
+                "ART" to { cas, begin, end -> ART(cas, begin, end) },
+                "ADJ" to { cas, begin, end -> ADJ(cas, begin, end) },
+                "PP" to { cas, begin, end -> PP(cas, begin, end) },
+                "ADV" to { cas, begin, end -> ADV(cas, begin, end) },
+                "PR" to { cas, begin, end -> PR(cas, begin, end) },
+                "PUNC" to { cas, begin, end -> PUNC(cas, begin, end) },
+                "O" to { cas, begin, end -> O(cas, begin, end) }
+        )
     }
-
-
-    private val text = StringBuilder()
-    private val tokens = mutableListOf<TokenToAnnotate>()
-    private val sentences = mutableListOf<BeginEnd>()
 }
 
 
@@ -169,6 +419,35 @@ private fun xmlListWords(sentence: XmlDomElement): List<XmlDomElement>
     return ret
 }
 
+/**
+ * Moves the reader to the next start-tag or end-tag, skipping text, comments and processing instructions.
+ */
+private fun nextStructure(reader: XMLStreamReader): Int
+{
+    while (true)
+    {
+        val event = reader.next()
+        if ( (event == XMLStreamConstants.START_ELEMENT) || (event == XMLStreamConstants.END_ELEMENT) ) { return event }
+        if (event == XMLStreamConstants.END_DOCUMENT) { throw RuntimeException("Unexpected end of XML document") }
+    }
+}
+
+/**
+ * Moves the reader from the start-tag of the current element to its end-tag.
+ */
+private fun skipElement(reader: XMLStreamReader)
+{
+    var depth = 1
+    while (depth > 0)
+    {
+        when (nextStructure(reader))
+        {
+            XMLStreamConstants.START_ELEMENT -> ++depth
+            XMLStreamConstants.END_ELEMENT -> --depth
+        }
+    }
+}
+
 private fun String._ifEmpty(other: String): String
 {
     if (this.isEmpty()) return other
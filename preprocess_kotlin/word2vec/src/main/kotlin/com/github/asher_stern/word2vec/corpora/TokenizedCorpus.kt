@@ -0,0 +1,60 @@
+package com.github.asher_stern.word2vec.corpora
+
+import com.github.asher_stern.word2vec.utilities.FileShard
+import com.github.asher_stern.word2vec.utilities.RecursiveFileIterator
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * A document of a corpus which is read directly, without UIMA.
+ * Taking a document from the corpus is cheap: the document is read by [sentences]. So one thread can take documents from
+ * the corpus, while other threads read them.
+ */
+interface TokenizedDocument
+{
+    /**
+     * Reads the document, and returns its sentences, each as the surfaces of its tokens.
+     */
+    fun sentences(): List<Array<String>>
+
+    /**
+     * The size of the document's file, in bytes.
+     */
+    val size: Long
+}
+
+
+/**
+ * The documents of a BNC corpus, in the same order, and with the same sentences and tokens, as those given by
+ * [BncCollectionReader], but without creating any CAS.
+ *
+ * @param directory the root directory of the corpus
+ * @param shard if not null, only the files of this shard are read.
+ */
+class BncTokenizedCorpus(
+        directory: File,
+        private val includeHeads: Boolean = true,
+        private val parser: BncXmlParser = BncXmlParser.STREAMING,
+        shard: FileShard? = null
+) : Iterator<TokenizedDocument>
+{
+    override fun hasNext(): Boolean = files.hasNext()
+
+    override fun next(): TokenizedDocument
+    {
+        val file = files.next()
+        return object : TokenizedDocument
+        {
+            override fun sentences(): List<Array<String>> = BncDocumentReader(file, includeHeads, parser).read().sentenceSurfaces()
+
+            override val size: Long
+                get() = file.length()
+        }
+    }
+
+    private val files = RecursiveFileIterator(directory, null, { it.name.endsWith(".xml") && ( (shard == null) || shard.accept(it) ) }, null)
+}
@@ -1,10 +1,17 @@
 package com.github.asher_stern.word2vec.corpora.preprocess
 
 
+import com.github.asher_stern.word2vec.model.nextRandom
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics.Counter
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics.Stage
+import com.github.asher_stern.word2vec.utilities.StringIntHashMap
 import com.github.asher_stern.word2vec.utilities._provide
 import org.apache.commons.collections4.BidiMap
 import org.apache.commons.collections4.bidimap.DualLinkedHashBidiMap
 import java.io.File
+import java.io.FileInputStream
 
 /**
  * Created by Asher Stern on October-16 2017.
@@ -15,16 +22,75 @@ const val OUTPUT_WORDS = false
 
 /**
  * Entry point for [BuildNeighbors].
- * @param args arguments of [BuildNeighbors] primary constructor.
+ * @param args arguments of [BuildNeighbors] primary constructor. Optional: --format=TEXT or --format=BINARY,
+ * --mode=PAIRS or --mode=COUNTS, --memory-mb=maximum memory for counting, in megabytes (default 1024),
+ * --subsampling=subsampling threshold of frequent words, like 1e-5 (default 0, meaning no subsampling),
+ * --dynamic-window=true to shrink the window randomly per word (default false), --seed=random seed (default 1),
+ * --edges=SKIP or CLIP (default SKIP).
+ * See [NeighborsOptions]. And the options of the metrics (--metrics-interval, --metrics-file, --jmx, see [PipelineMetricsOptions]).
  */
 fun main(args: Array<String>)
 {
     args._provide {
-        BuildNeighbors(File(arg), File(arg), arg.toInt(), File(arg), arg.toInt(), arg.toInt()).use { it.build() }
+        BuildNeighbors(File(arg), File(arg), arg.toInt(), File(arg), arg.toInt(), arg.toInt(),
+                NeighborsFormat.valueOf(option("format", NeighborsFormat.TEXT.name)),
+                NeighborsMode.valueOf(option("mode", NeighborsMode.PAIRS.name)),
+                option("memory-mb", "1024").toLong() * 1024 * 1024,
+                NeighborsOptions(
+                        subsamplingThreshold = option("subsampling", "0").toDouble(),
+                        dynamicWindow = option("dynamic-window", "false").toBoolean(),
+                        seed = option("seed", "1").toLong(),
+                        sentenceEdges = SentenceEdges.valueOf(option("edges", SentenceEdges.SKIP.name))
+                )
+        ).use { buildNeighbors ->
+            pipelineMetricsOptions().start(BuildNeighbors.METRICS_PIPELINE).use { buildNeighbors.build(it) }
+            if (buildNeighbors.numberOfSpills > 0) { println("The counts exceeded --memory-mb, and were spilled ${buildNeighbors.numberOfSpills} times into temporary files.") }
+        }
     }
 }
 
 
+/**
+ * Options of [BuildNeighbors] which control how the pairs are sampled from the sentences, like in the original word2vec.
+ * By default, all the pairs in the window of each word are generated.
+ *
+ * @param subsamplingThreshold when larger than 0, each occurrence of a word whose frequency *f* (its count divided by
+ * the total count of the words of words.txt) is larger than this threshold *t* is discarded with probability
+ * 1-(sqrt(f/t)+1)*t/f, before the windows are taken. Discarded words do not take a place in the window, so the
+ * window of a word reaches further, past frequent words. Typical values are around 1e-5. The counts are taken from counts.txt
+ * (see [loadWordCounts]).
+ * @param dynamicWindow when true, the window of each word is shrunk to a random size in 1..windowSize, so nearer
+ * context-words are generated more often.
+ * @param seed seed of the random numbers used by [subsamplingThreshold] and [dynamicWindow].
+ * @param sentenceEdges whether words near the edges of a sentence, and short sentences, are skipped or get clipped windows.
+ */
+data class NeighborsOptions(
+        val subsamplingThreshold: Double = 0.0,
+        val dynamicWindow: Boolean = false,
+        val seed: Long = 1,
+        val sentenceEdges: SentenceEdges = SentenceEdges.SKIP
+)
+
+
+/**
+ * Determines how [BuildNeighbors] handles the words whose window exceeds the edges of their sentence.
+ */
+enum class SentenceEdges
+{
+    /**
+     * Only words that have a full window on both sides get pairs, and sentences shorter than 2*windowSize+1 words are
+     * skipped entirely. Words near the edges still appear as context-words of other words.
+     */
+    SKIP,
+
+    /**
+     * Every word gets pairs, and its window is clipped to the sentence. So short sentences, and the words near the
+     * edges of a sentence, generate fewer pairs, but are not skipped. This is the behavior of the original word2vec.
+     */
+    CLIP
+}
+
+
 /**
  * Generates a neighbors.txt file which contains word-context pairs.
  * This class should be used **after** [CorpusToTokensAndSentences] was executed and generated sentences.txt and words.txt.
@@ -35,16 +101,41 @@ fun main(args: Array<String>)
  * The word-ID is taken from words.txt file: the word appearing in line *N* (in words.txt) has word-ID *N*.
  * In each line, the second word (after the whitespace) is a context-word of the first word
  *
+ * Each sentence is first converted into an array of word-IDs by [SentenceTokenizer], and the pairs are then generated
+ * over plain integers, with no regular-expression split, boxing or string formatting per token.
+ *
+ * Alternatively, with [NeighborsFormat.BINARY], the pairs are written as fixed-width binary integers, preceded by a header
+ * that records the vocabulary size, window size and number of stop-words. See [NeighborsBinaryWriter]. Such a file is read
+ * by [NeighborsBinaryReader].
+ *
+ * In [NeighborsMode.COUNTS] mode, the pairs are counted in memory by [CooccurrenceCounter], and each distinct pair is
+ * written once, followed by its count (in text format: "word context count"). This is the input of count-based methods,
+ * like GloVe and PMI.
+ *
+ * The pairs can also be given to any other [NeighborsWriter], rather than written into a file, by the primary
+ * constructor. For example, [com.github.asher_stern.word2vec.model.SkipGramTrainer] trains on the pairs as they are
+ * generated.
+ *
+ * Frequent words can be subsampled, and the window can be shrunk randomly, by [NeighborsOptions]. Both reduce the number of
+ * generated pairs. By default, words near the edges of a sentence, and sentences shorter than 2*windowSize+1 words, get no
+ * pairs of their own. With [SentenceEdges.CLIP], their windows are clipped to the sentence instead.
+ *
+ * The progress is reported by [PipelineMetrics]: the numbers of sentences, tokens and pairs, the bytes read (of
+ * sentences.txt, as stored) and written (of the output file, if any), and the time spent in reading the lines, converting
+ * them into word-IDs, and generating and writing the pairs. The lines are processed in blocks, and the metrics are
+ * updated once per block.
+ *
  * @param wordFile words.txt file generated by [CorpusToTokensAndSentences]
- * @param sentenceFile sentences.txt file generated by [CorpusToTokensAndSentences]
+ * @param sentenceFile sentences.txt file generated by [CorpusToTokensAndSentences], possibly compressed (see [CompressedFiles])
  * @param numberOfWords the number of most-common words to be used, for which neighbors will be generated. This number can
  * be large up to the number of words in words.txt file. But it can be smaller, to generate less data.
- * @param outputFile path of output file ("neighbors.txt")
  * @param windowSize controls which words are considered *context words* of a given word. Window-size of 1 means that
  * one word before and one word after each word are considered its context. Windows-size of 2 means that two words before
  * and two words after are considered its context (leading to 4 context words).
  * @param numberOfStopWords number of first most common words that are considered stop-words, so no data will be generated
  * for them (and they will not be written as context-words either).
+ * @param output the writer of the pairs. It is closed by [close].
+ * @param options see [NeighborsOptions].
  *
  *
  *
@@ -53,80 +144,248 @@ class BuildNeighbors(
         private val wordFile: File,
         private val sentenceFile: File,
         private val numberOfWords: Int,
-        private val outputFile: File,
         private val windowSize: Int,
-        private val numberOfStopWords: Int
+        private val numberOfStopWords: Int,
+        private val output: NeighborsWriter,
+        private val options: NeighborsOptions = NeighborsOptions()
 ) : AutoCloseable
 {
+    /**
+     * Constructor which writes the pairs into a neighbors file.
+     * @param outputFile path of output file ("neighbors.txt"). A text file is compressed by the extension of its name
+     * (e.g., "neighbors.txt.gz", see [CompressedFiles]).
+     * @param format format of the output file, text (the default) or binary.
+     * @param mode whether to write each occurrence (the default), or distinct pairs with counts.
+     * @param maximumMemory in [NeighborsMode.COUNTS] mode, the approximate number of bytes used for counting, before
+     * counts are spilled into temporary files (in the directory of [outputFile]).
+     * @param options see [NeighborsOptions].
+     */
+    constructor(
+            wordFile: File,
+            sentenceFile: File,
+            numberOfWords: Int,
+            outputFile: File,
+            windowSize: Int,
+            numberOfStopWords: Int,
+            format: NeighborsFormat = NeighborsFormat.TEXT,
+            mode: NeighborsMode = NeighborsMode.PAIRS,
+            maximumMemory: Long = DEFAULT_MAXIMUM_MEMORY,
+            options: NeighborsOptions = NeighborsOptions()
+    ) : this(wordFile, sentenceFile, numberOfWords, windowSize, numberOfStopWords,
+            createOutput(wordFile, numberOfWords, outputFile, windowSize, numberOfStopWords, format, mode, maximumMemory), options)
+    {
+        this.outputFile = outputFile
+    }
+
+    /**
+     * In [NeighborsMode.COUNTS] mode, the number of times the counts were spilled into temporary files so far (see
+     * [CooccurrenceCounter]). Otherwise 0.
+     */
+    val numberOfSpills: Int get() = (output as? CooccurrenceCounter)?.numberOfRuns ?: 0
 
     /**
      * Generates the neighbors file.
+     * @param metrics the metrics to which the progress is added. If null, the progress is not reported.
      */
-    fun build()
+    @JvmOverloads
+    fun build(metrics: PipelineMetrics? = null)
     {
-        sentenceFile.useLines { lines ->
-            var index = 0
-            for ( line in lines)
+        if (metrics == null)
+        {
+            PipelineMetrics(METRICS_PIPELINE).use { build(it) }
+            return
+        }
+        outputFile?.let { file -> metrics.setSource(Counter.BYTES_WRITTEN) { file.length() } }
+        val stream = CompressedFiles.decompress(metrics.countBytesRead(FileInputStream(sentenceFile)), CompressedFiles.compressionOf(sentenceFile))
+        stream.bufferedReader().use { reader ->
+            while (true)
             {
-                write(line.split("\\s+".toRegex()).toTypedArray())
+                // The lines are processed in blocks, so the metrics are updated once per block, rather than per sentence.
+                val start = System.nanoTime()
+                var lines = 0
+                while (lines < METRICS_BLOCK_SIZE)
+                {
+                    block[lines] = reader.readLine() ?: break
+                    ++lines
+                }
+                if (lines == 0) { break }
+                val tokenized = System.nanoTime()
+                var tokens = 0
+                for (index in 0 until lines)
+                {
+                    val length = tokenizer.tokenize(block[index]!!)
+                    if (tokens + length > blockIds.size) { blockIds = blockIds.copyOf(Math.max(2*blockIds.size, tokens + length)) }
+                    System.arraycopy(tokenizer.ids, 0, blockIds, tokens, length)
+                    blockLengths[index] = length
+                    tokens += length
+                }
+                val written = System.nanoTime()
+                var pairs = 0L
+                var begin = 0
+                for (index in 0 until lines)
+                {
+                    pairs += write(blockIds, begin, blockLengths[index])
+                    begin += blockLengths[index]
+                }
+                val end = System.nanoTime()
 
-                ++index
-                if (0==(index % 100)) { println(index) }
+                metrics.addTime(Stage.PARSING, tokenized - start)
+                metrics.addTime(Stage.SEGMENTATION, written - tokenized)
+                metrics.addTime(Stage.OUTPUT, end - written)
+                metrics.add(Counter.SENTENCES, lines.toLong())
+                metrics.add(Counter.TOKENS, tokens.toLong())
+                metrics.add(Counter.PAIRS, pairs)
             }
-            println(index)
         }
     }
 
+    /**
+     * Generates the pairs of a single sentence, given as a line of sentences.txt.
+     * @return the number of pairs.
+     */
+    fun build(line: String): Int
+    {
+        val length = tokenizer.tokenize(line)
+        return write(tokenizer.ids, 0, length)
+    }
+
     override fun close()
     {
         output.close()
     }
 
 
-    private fun write(sentence: Array<String>)
+    /**
+     * Writes the pairs of a sentence given as word-IDs. Unknown words have the ID 0, which is never larger than
+     * [numberOfStopWords], so they are skipped like stop-words.
+     * @param sentence word-IDs. Only the [length] elements from [begin] are used.
+     * @param begin the index of the first word of the sentence.
+     * @param length the number of words in the sentence.
+     * @return the number of pairs.
+     */
+    private fun write(sentence: IntArray, begin: Int, length: Int): Int
     {
-        if (sentence.size>=(2*windowSize+1))
+        val size = if (keepProbabilities != null) subsample(sentence, begin, length, keepProbabilities) else length
+        val clip = (options.sentenceEdges == SentenceEdges.CLIP)
+        if ( (!clip) && (size<(2*windowSize+1)) ) { return 0 }
+        var pairs = 0
+        val margin = if (clip) 0 else windowSize
+        for (index in margin until (size-margin))
         {
-            for (index in windowSize until (sentence.size-windowSize))
+            val wordId = sentence[begin+index]
+            if (wordId > numberOfStopWords)
             {
-                if (wordMap.containsKey(sentence[index]))
+                val window = if (options.dynamicWindow) randomWindow() else windowSize
+                for (contextIndex in Math.max(index - window, 0)..Math.min(index + window, size - 1))
                 {
-                    val wordId = wordMap.getOrDefault(sentence[index], 0)
-                    if (wordId > numberOfStopWords)
+                    if (contextIndex != index)
                     {
-                        for (contextIndex in (index - windowSize)..(index + windowSize))
+                        val contextWordId = sentence[begin+contextIndex]
+                        if (contextWordId > numberOfStopWords)
                         {
-                            if (contextIndex != index)
-                            {
-                                if (wordMap.containsKey(sentence[contextIndex]))
-                                {
-                                    val contextWordId = wordMap.getOrDefault(sentence[contextIndex], 0)
-                                    if (contextWordId > numberOfStopWords)
-                                    {
-                                        if (OUTPUT_WORDS)
-                                        {
-                                            output.println("${sentence[index].asRegistered} ${sentence[contextIndex].asRegistered}")
-                                        }
-                                        else
-                                        {
-                                            output.println("$wordId $contextWordId")
-                                        }
-                                    }
-                                }
-                            }
+                            output.write(wordId, contextWordId)
+                            ++pairs
                         }
                     }
                 }
             }
         }
+        return pairs
     }
 
 
-    private val String.asRegistered: String
-        get() = if (wordMap.containsKey(this)) this else UNKNOWN
+    /**
+     * Discards words from the sentence randomly, by [keepProbabilities], and moves the remaining words to its beginning.
+     * @return the number of remaining words.
+     */
+    private fun subsample(sentence: IntArray, begin: Int, length: Int, keepProbabilities: FloatArray): Int
+    {
+        var size = 0
+        for (index in begin until (begin+length))
+        {
+            val wordId = sentence[index]
+            random = nextRandom(random)
+            if (keepProbabilities[wordId] >= (random and 0xFFFF).toFloat() / 65536f)
+            {
+                sentence[begin + size++] = wordId
+            }
+        }
+        return size
+    }
+
+    /**
+     * Returns a random window size in 1..[windowSize].
+     */
+    private fun randomWindow(): Int
+    {
+        random = nextRandom(random)
+        return windowSize - ((random ushr 16) % windowSize).toInt()
+    }
+
+
+    companion object
+    {
+        const val DEFAULT_MAXIMUM_MEMORY = 1024L * 1024 * 1024
+        const val METRICS_PIPELINE = "neighbors"
+
+        /**
+         * The number of lines of sentences.txt processed between updates of the metrics.
+         */
+        private const val METRICS_BLOCK_SIZE = 256
+
+        private fun createOutput(wordFile: File, numberOfWords: Int, outputFile: File, windowSize: Int, numberOfStopWords: Int,
+                                 format: NeighborsFormat, mode: NeighborsMode, maximumMemory: Long): NeighborsWriter
+        {
+            val fileWriter = createFileWriter(wordFile, numberOfWords, outputFile, windowSize, numberOfStopWords, format, mode)
+            return when (mode)
+            {
+                NeighborsMode.PAIRS -> fileWriter
+                NeighborsMode.COUNTS -> CooccurrenceCounter(fileWriter, numberOfWords, maximumMemory, outputFile.absoluteFile.parentFile)
+            }
+        }
+
+        private fun createFileWriter(wordFile: File, numberOfWords: Int, outputFile: File, windowSize: Int, numberOfStopWords: Int,
+                                     format: NeighborsFormat, mode: NeighborsMode): NeighborsWriter
+        {
+            if (OUTPUT_WORDS)
+            {
+                if (format != NeighborsFormat.TEXT) { throw RuntimeException("Words can be written only in text format.") }
+                val idToWord = loadWords(wordFile, numberOfWords).inverseBidiMap()
+                return NeighborsWordsWriter(outputFile, { idToWord.getValue(it) })
+            }
+            if ( (format == NeighborsFormat.BINARY) && (CompressedFiles.compressionOf(outputFile) != CompressedFiles.Compression.NONE) )
+            {
+                throw RuntimeException("Binary neighbors files are memory-mapped, so they cannot be compressed: $outputFile")
+            }
+            return when (format)
+            {
+                NeighborsFormat.TEXT -> NeighborsTextWriter(outputFile)
+                NeighborsFormat.BINARY -> NeighborsBinaryWriter(outputFile, numberOfWords, windowSize, numberOfStopWords, mode == NeighborsMode.COUNTS)
+            }
+        }
+    }
+
 
-    private val wordMap: BidiMap<String, Int> = loadWords(wordFile, numberOfWords)
-    private val output = outputFile.printWriter()
+    private val tokenizer = SentenceTokenizer(toStringIntHashMap(loadWords(wordFile, numberOfWords)))
+
+    /**
+     * The lines of the current block, and their word-IDs (one sentence after the other) and lengths, in [build].
+     */
+    private val block = arrayOfNulls<String>(METRICS_BLOCK_SIZE)
+    private var blockIds = IntArray(METRICS_BLOCK_SIZE * 32)
+    private val blockLengths = IntArray(METRICS_BLOCK_SIZE)
+
+    /**
+     * The probability to keep an occurrence of each word-ID, or null if words are not subsampled.
+     */
+    private val keepProbabilities = if (options.subsamplingThreshold > 0) subsamplingKeepProbabilities(loadWordCounts(countFileOf(wordFile), numberOfWords), options.subsamplingThreshold) else null
+
+    private var random = options.seed
+
+    /**
+     * The output file, if the pairs are written into a file by this class.
+     */
+    private var outputFile: File? = null
 }
 
 
@@ -143,4 +402,27 @@ private fun loadWords(wordFile: File, numberOfWords: Int): BidiMap<String, Int>
     }
 
     return ret
-}
\ No newline at end of file
+}
+
+/**
+ * Returns the probability to keep an occurrence of each word-ID when subsampling frequent words by the given threshold
+ * (see [NeighborsOptions.subsamplingThreshold]). The unknown word (word-ID 0) is always kept.
+ */
+private fun subsamplingKeepProbabilities(counts: LongArray, threshold: Double): FloatArray
+{
+    val total = counts.sum().toDouble()
+    return FloatArray(counts.size) { wordId ->
+        val frequency = counts[wordId] / total
+        if ( (wordId == 0) || (frequency <= 0.0) ) 1f else ((Math.sqrt(frequency / threshold) + 1) * threshold / frequency).toFloat()
+    }
+}
+
+private fun toStringIntHashMap(wordMap: BidiMap<String, Int>): StringIntHashMap
+{
+    val ret = StringIntHashMap(wordMap.size)
+    for ( (word, id) in wordMap)
+    {
+        ret.put(word, id)
+    }
+    return ret
+}
@@ -1,65 +1,101 @@
 package com.github.asher_stern.word2vec.corpora.preprocess
 
 
+import com.github.asher_stern.word2vec.utilities._provide
 import java.io.File
 
 /**
  * Created by Asher Stern on October-16 2017.
  */
 
+/**
+ * Entry point for [CompareWords].
+ * @param args neighbors file (text or binary). Optional: --index=index-file (default: the neighbors file name +
+ * ".index"; built if it does not exist or is older than the neighbors file), --batch=file with two word-IDs per line
+ * (if given, all its lines are compared, instead of reading words interactively).
+ */
 fun main(args: Array<String>)
 {
-    val app = CompareWords(File(args[0]))
-    while (true)
-    {
-        println("Enter word1, then word2")
-        val word1 = readLine()!!
-        val word2 = readLine()!!
-        app.compare(word1, word2)
+    args._provide {
+        val neighborsFile = File(arg)
+        val indexFile = File(option("index", neighborsFile.path + ".index"))
+        val batchFile = option("batch", "")
+        if ( (!indexFile.exists()) || (indexFile.lastModified() < neighborsFile.lastModified()) )
+        {
+            println("Building index ${indexFile.path}")
+            CooccurrenceIndex.build(neighborsFile, indexFile)
+        }
+
+        CompareWords(indexFile).use { app ->
+            if (batchFile.isNotEmpty())
+            {
+                app.compareBatch(File(batchFile))
+            }
+            else
+            {
+                while (true)
+                {
+                    println("Enter word1, then word2")
+                    val word1 = readLine() ?: break
+                    val word2 = readLine() ?: break
+                    app.compare(word1, word2)
+                }
+            }
+        }
     }
 }
 
-class CompareWords(private val neighborsFile: File)
+/**
+ * Compares the contexts of two words, as found in a neighbors file.
+ * The words are given as word-IDs (as they appear in the neighbors file).
+ *
+ * The neighbors file is not scanned per comparison. Instead, it is indexed once into a [CooccurrenceIndex], and each
+ * comparison merges the sorted context lists of the two words.
+ *
+ * @param indexFile an index built by [CooccurrenceIndex.build]
+ */
+class CompareWords(indexFile: File) : AutoCloseable
 {
     fun compare(word1: String, word2: String)
     {
-        val forWord1 = findForWord(word1)
-        val forWord2 = findForWord(word2)
-
-        var total = 0
-        var intersection = 0
-        for (neighbor in forWord1.keys.union(forWord2.keys))
+        val wordId1 = word1.trim().toIntOrNull()
+        val wordId2 = word2.trim().toIntOrNull()
+        if ( (wordId1 == null) || (wordId2 == null) )
         {
-            total += forWord1.getOrDefault(neighbor, 0)
-            total += forWord2.getOrDefault(neighbor, 0)
-            intersection += Math.min(forWord1.getOrDefault(neighbor, 0), forWord2.getOrDefault(neighbor, 0))
+            println("Words must be given as word-IDs.")
+            return
         }
 
-        println("Total = $total")
-        println("Intersection = $intersection")
-        println("Fraction = " + intersection.toDouble()/total.toDouble())
+        val comparison = index.compare(wordId1, wordId2)
+        println("Total = ${comparison.total}")
+        println("Intersection = ${comparison.intersection}")
+        println("Fraction = " + comparison.fraction)
     }
 
-
-    private fun findForWord(word: String): Map<String, Int>
+    /**
+     * Compares all the word pairs in the given file, where each line contains two word-IDs, and prints one result line
+     * per pair: word-ID, word-ID, total, intersection, fraction.
+     */
+    fun compareBatch(pairsFile: File)
     {
-        val ret = mutableMapOf<String, Int>()
-        neighborsFile.useLines { lines ->
+        pairsFile.useLines { lines ->
             for (line in lines)
             {
-                val (source, target) = line.split("\\s+".toRegex())
-                if (source == word)
-                {
-                    ret._inc(target)
-                }
+                val words = line.trim().split(WHITESPACE)
+                if (words.size < 2) { continue }
+                val comparison = index.compare(words[0].toInt(), words[1].toInt())
+                println("${words[0]}\t${words[1]}\t${comparison.total}\t${comparison.intersection}\t${comparison.fraction}")
             }
         }
-        return ret
     }
-}
 
-private fun <K> MutableMap<K, Int>._inc(key: K)
-{
-    val value = this.getOrDefault(key, 0) + 1
-    this.put(key, value)
+    override fun close()
+    {
+        index.close()
+    }
+
+
+    private val index = CooccurrenceIndex(indexFile)
 }
+
+private val WHITESPACE = "\\s+".toRegex()
@@ -0,0 +1,184 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.LongIntHashMap
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.util.*
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Counts word-context pairs in memory, and, when closed, writes each distinct pair once, with its count, into [output].
+ * Pairs are written sorted by word-ID, then by context-word-ID.
+ *
+ * Each pair is a key of a primitive long-keyed hash map. The maps are sharded by word-ID: each shard holds a contiguous
+ * range of word-IDs, so sorting the shards one after the other gives all the pairs sorted.
+ * When the number of distinct pairs exceeds what fits into [maximumMemory], all the shards are spilled, sorted, into a
+ * temporary "run" file, and counting continues with empty shards. At the end, the runs are merged (adding the counts of
+ * equal pairs) into [output].
+ *
+ * @param output the writer of the pairs with their counts
+ * @param vocabularySize the largest word-ID
+ * @param maximumMemory approximate number of bytes that the in-memory counts may use
+ * @param temporaryDirectory directory for the run files
+ */
+class CooccurrenceCounter(
+        private val output: NeighborsWriter,
+        private val vocabularySize: Int,
+        maximumMemory: Long,
+        private val temporaryDirectory: File
+) : NeighborsWriter
+{
+    /**
+     * The number of times the counts were spilled into run files so far.
+     */
+    val numberOfRuns: Int get() = runs.size
+
+    override fun write(wordId: Int, contextWordId: Int)
+    {
+        write(wordId, contextWordId, 1)
+    }
+
+    override fun write(wordId: Int, contextWordId: Int, count: Int)
+    {
+        val shard = shards[shardOf(wordId)]
+        val sizeBefore = shard.size()
+        shard.addTo(key(wordId, contextWordId), count)
+        if (shard.size() > sizeBefore)
+        {
+            ++numberOfEntries
+            if (numberOfEntries >= maximumEntries) { spill() }
+        }
+    }
+
+    override fun close()
+    {
+        output.use {
+            if (runs.isEmpty())
+            {
+                forEachSorted { key, count -> output.write(wordIdOf(key), contextWordIdOf(key), count) }
+            }
+            else
+            {
+                spill()
+                merge()
+            }
+        }
+    }
+
+
+    private fun shardOf(wordId: Int): Int = ((wordId.toLong() * NUMBER_OF_SHARDS) / (vocabularySize.toLong() + 1)).toInt()
+
+    private inline fun forEachSorted(block: (key: Long, count: Int) -> Unit)
+    {
+        for (shard in shards)
+        {
+            for (key in shard.sortedKeys())
+            {
+                block(key, shard.get(key, 0))
+            }
+        }
+    }
+
+    private fun spill()
+    {
+        val run = File.createTempFile("cooccurrence_run_", ".bin", temporaryDirectory)
+        run.deleteOnExit()
+        DataOutputStream(BufferedOutputStream(FileOutputStream(run), IO_BUFFER_SIZE)).use { stream ->
+            forEachSorted { key, count ->
+                stream.writeLong(key)
+                stream.writeInt(count)
+            }
+        }
+        runs.add(run)
+        for (shard in shards) { shard.clear() }
+        numberOfEntries = 0
+    }
+
+    private fun merge()
+    {
+        val readers = runs.map { RunReader(it) }
+        try
+        {
+            val queue = PriorityQueue<RunReader>(readers.size, compareBy { it.key })
+            for (reader in readers)
+            {
+                if (reader.next()) { queue.add(reader) }
+            }
+
+            while (!queue.isEmpty())
+            {
+                val key = queue.peek().key
+                var count = 0
+                while ( (!queue.isEmpty()) && (queue.peek().key == key) )
+                {
+                    val reader = queue.poll()
+                    count += reader.count
+                    if (reader.next()) { queue.add(reader) }
+                }
+                output.write(wordIdOf(key), contextWordIdOf(key), count)
+            }
+        }
+        finally
+        {
+            for (reader in readers) { reader.close() }
+            for (run in runs) { run.delete() }
+        }
+    }
+
+
+    private class RunReader(file: File) : AutoCloseable
+    {
+        var key = 0L
+            private set
+        var count = 0
+            private set
+
+        fun next(): Boolean
+        {
+            try
+            {
+                key = stream.readLong()
+            }
+            catch (e: EOFException)
+            {
+                return false
+            }
+            count = stream.readInt()
+            return true
+        }
+
+        override fun close()
+        {
+            stream.close()
+        }
+
+        private val stream = DataInputStream(BufferedInputStream(FileInputStream(file), IO_BUFFER_SIZE))
+    }
+
+
+    companion object
+    {
+        private const val NUMBER_OF_SHARDS = 64
+        private const val INITIAL_SHARD_SIZE = 1024
+        private const val IO_BUFFER_SIZE = 1 shl 16
+
+        private fun key(wordId: Int, contextWordId: Int): Long = (wordId.toLong() shl 32) or (contextWordId.toLong() and 0xFFFFFFFFL)
+        private fun wordIdOf(key: Long): Int = (key ushr 32).toInt()
+        private fun contextWordIdOf(key: Long): Int = key.toInt()
+    }
+
+    private val maximumEntries = Math.max(1L, maximumMemory / LongIntHashMap.BYTES_PER_KEY)
+    private val shards = Array(NUMBER_OF_SHARDS) { LongIntHashMap(INITIAL_SHARD_SIZE) }
+    private var numberOfEntries = 0L
+    private val runs = mutableListOf<File>()
+}
@@ -0,0 +1,261 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.IntIntHashMap
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * A sparse word-context co-occurrence matrix, stored on disk in CSR (compressed sparse row) layout, and memory-mapped.
+ *
+ * Row *w* holds the contexts of word-ID *w*, sorted by context-word-ID, each with the number of times it appeared
+ * with *w* in the neighbors file. So the contexts of a word are found without scanning the neighbors file, and two
+ * words are compared by merging their two sorted rows.
+ *
+ * The index file is little-endian: a header of [HEADER_SIZE] bytes (magic "W2VI", version, number of rows, number of
+ * entries), then the row offsets (number-of-rows + 1 longs), then the context-word-IDs of all the rows (ints), then their
+ * counts (ints).
+ *
+ * Build the index once by [CooccurrenceIndex.build], then open it with the constructor. This class is thread-safe.
+ */
+class CooccurrenceIndex(indexFile: File) : AutoCloseable
+{
+    companion object
+    {
+        const val MAGIC = 0x49563257 // "W2VI" in little-endian
+        const val VERSION = 1
+        const val HEADER_SIZE = 24
+
+        /**
+         * Builds an index from a neighbors file (text or binary, with or without counts) generated by [BuildNeighbors].
+         * @param neighborsFile the neighbors file
+         * @param indexFile the index file to be created
+         */
+        fun build(neighborsFile: File, indexFile: File)
+        {
+            var rows = arrayOfNulls<IntIntHashMap>(INITIAL_NUMBER_OF_ROWS)
+            var numberOfRows = 0
+            openNeighbors(neighborsFile).use { cursor ->
+                while (cursor.next())
+                {
+                    val wordId = cursor.wordId
+                    if (wordId >= rows.size) { rows = rows.copyOf(Math.max(2*rows.size, wordId+1)) }
+                    if (wordId >= numberOfRows) { numberOfRows = wordId+1 }
+                    var row = rows[wordId]
+                    if (row == null)
+                    {
+                        row = IntIntHashMap(INITIAL_ROW_SIZE)
+                        rows[wordId] = row
+                    }
+                    row.addTo(cursor.contextWordId, cursor.count)
+                }
+            }
+            write(indexFile, numberOfRows, { rows[it] })
+        }
+
+        /**
+         * Writes an index file.
+         * @param numberOfRows number of rows (the largest word-ID + 1)
+         * @param row returns the contexts and their counts for the given word-ID, or null if that word has no contexts.
+         */
+        fun write(indexFile: File, numberOfRows: Int, row: (Int) -> IntIntHashMap?)
+        {
+            val offsets = LongArray(numberOfRows+1)
+            for (wordId in 0 until numberOfRows)
+            {
+                offsets[wordId+1] = offsets[wordId] + (row(wordId)?.size() ?: 0)
+            }
+            val numberOfEntries = offsets[numberOfRows]
+            val contextsPosition = HEADER_SIZE + 8L*(numberOfRows+1)
+            val countsPosition = contextsPosition + 4L*numberOfEntries
+
+            RandomAccessFile(indexFile, "rw").use { file ->
+                file.setLength(0)
+                val channel = file.channel
+                val buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(numberOfRows).putInt(0).putLong(numberOfEntries)
+                for (offset in offsets)
+                {
+                    if (buffer.remaining() < 8) { flush(buffer, channel) }
+                    buffer.putLong(offset)
+                }
+                flush(buffer, channel)
+
+                var countsWritten = 0L
+                val counts = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                channel.position(contextsPosition)
+                for (wordId in 0 until numberOfRows)
+                {
+                    val contexts = row(wordId) ?: continue
+                    for (contextWordId in contexts.sortedKeys())
+                    {
+                        if (buffer.remaining() < 4) { flush(buffer, channel) }
+                        buffer.putInt(contextWordId)
+                        if (counts.remaining() < 4)
+                        {
+                            countsWritten += flush(counts, channel, countsPosition + countsWritten)
+                        }
+                        counts.putInt(contexts.get(contextWordId, 0))
+                    }
+                }
+                flush(buffer, channel)
+                flush(counts, channel, countsPosition + countsWritten)
+            }
+        }
+
+        private fun flush(buffer: ByteBuffer, channel: FileChannel)
+        {
+            buffer.flip()
+            while (buffer.hasRemaining()) { channel.write(buffer) }
+            buffer.clear()
+        }
+
+        private fun flush(buffer: ByteBuffer, channel: FileChannel, position: Long): Int
+        {
+            buffer.flip()
+            val length = buffer.remaining()
+            var written = 0
+            while (buffer.hasRemaining()) { written += channel.write(buffer, position + written) }
+            buffer.clear()
+            return length
+        }
+
+        private const val INITIAL_NUMBER_OF_ROWS = 1024
+        private const val INITIAL_ROW_SIZE = 16
+        private const val WRITE_BUFFER_SIZE = 1 shl 20
+        private const val REGION_SHIFT = 28 // 256M ints (1GB) per mapped region
+        private const val REGION_MASK = (1L shl REGION_SHIFT) - 1
+    }
+
+    val numberOfRows: Int
+    val numberOfEntries: Long
+
+    /**
+     * Returns the number of distinct contexts of the given word.
+     */
+    fun numberOfContexts(wordId: Int): Int = if ( (wordId < 0) || (wordId >= numberOfRows) ) 0 else (offset(wordId+1) - offset(wordId)).toInt()
+
+    /**
+     * Calls [block] with each context of the given word and its count, in ascending order of context-word-ID.
+     */
+    inline fun forEachContext(wordId: Int, block: (contextWordId: Int, count: Int) -> Unit)
+    {
+        if ( (wordId < 0) || (wordId >= numberOfRows) ) { return }
+        val end = offset(wordId+1)
+        var entry = offset(wordId)
+        while (entry < end)
+        {
+            block(contextWordId(entry), count(entry))
+            ++entry
+        }
+    }
+
+    /**
+     * Compares the contexts of two words by merging their sorted rows.
+     */
+    fun compare(wordId1: Int, wordId2: Int): ContextComparison
+    {
+        var total = 0L
+        var intersection = 0L
+        if ( (wordId1 !in 0 until numberOfRows) || (wordId2 !in 0 until numberOfRows) )
+        {
+            forEachContext(wordId1) { _, count -> total += count }
+            forEachContext(wordId2) { _, count -> total += count }
+            return ContextComparison(total, intersection)
+        }
+
+        var entry1 = offset(wordId1)
+        val end1 = offset(wordId1+1)
+        var entry2 = offset(wordId2)
+        val end2 = offset(wordId2+1)
+        while ( (entry1 < end1) && (entry2 < end2) )
+        {
+            val context1 = contextWordId(entry1)
+            val context2 = contextWordId(entry2)
+            if (context1 < context2)
+            {
+                total += count(entry1++)
+            }
+            else if (context2 < context1)
+            {
+                total += count(entry2++)
+            }
+            else
+            {
+                val count1 = count(entry1++)
+                val count2 = count(entry2++)
+                total += count1 + count2
+                intersection += Math.min(count1, count2)
+            }
+        }
+        while (entry1 < end1) { total += count(entry1++) }
+        while (entry2 < end2) { total += count(entry2++) }
+        return ContextComparison(total, intersection)
+    }
+
+    override fun close()
+    {
+        channel.close()
+    }
+
+
+    @PublishedApi internal fun offset(wordId: Int): Long = offsets.getLong(8*wordId)
+    @PublishedApi internal fun contextWordId(entry: Long): Int = contexts[(entry ushr REGION_SHIFT).toInt()].getInt(4*(entry and REGION_MASK).toInt())
+    @PublishedApi internal fun count(entry: Long): Int = counts[(entry ushr REGION_SHIFT).toInt()].getInt(4*(entry and REGION_MASK).toInt())
+
+
+    private fun mapInts(position: Long, numberOfInts: Long): Array<MappedByteBuffer>
+    {
+        val regionSize = 1L shl REGION_SHIFT
+        val numberOfRegions = ((numberOfInts + regionSize - 1) / regionSize).toInt()
+        return Array(numberOfRegions) { region ->
+            val first = region * regionSize
+            val buffer = channel.map(FileChannel.MapMode.READ_ONLY, position + 4*first, 4*Math.min(regionSize, numberOfInts - first))
+            buffer.order(ByteOrder.LITTLE_ENDIAN)
+            buffer
+        }
+    }
+
+
+    private val channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)
+    private val offsets: MappedByteBuffer
+    private val contexts: Array<MappedByteBuffer>
+    private val counts: Array<MappedByteBuffer>
+
+    init
+    {
+        val header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE.toLong()).order(ByteOrder.LITTLE_ENDIAN)
+        if (header.int != MAGIC) { throw RuntimeException("Not a co-occurrence index file: ${indexFile.path}") }
+        val version = header.int
+        if (version != VERSION) { throw RuntimeException("Unsupported co-occurrence index version: $version") }
+        numberOfRows = header.int
+        header.int
+        numberOfEntries = header.long
+
+        offsets = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE.toLong(), 8L*(numberOfRows+1))
+        offsets.order(ByteOrder.LITTLE_ENDIAN)
+        val contextsPosition = HEADER_SIZE + 8L*(numberOfRows+1)
+        contexts = mapInts(contextsPosition, numberOfEntries)
+        counts = mapInts(contextsPosition + 4L*numberOfEntries, numberOfEntries)
+    }
+}
+
+
+/**
+ * The result of comparing the contexts of two words.
+ * @param total the sum of the counts of all the contexts of both words
+ * @param intersection the sum, over the contexts shared by both words, of the smaller of the two counts
+ */
+data class ContextComparison(val total: Long, val intersection: Long)
+{
+    val fraction: Double get() = intersection.toDouble()/total.toDouble()
+}
@@ -1,12 +1,21 @@
 package com.github.asher_stern.word2vec.corpora.preprocess
 
 import com.github.asher_stern.word2vec.corpora.BncCollectionReader
+import com.github.asher_stern.word2vec.corpora.BncTokenizedCorpus
+import com.github.asher_stern.word2vec.corpora.TokenizedDocument
 import com.github.asher_stern.word2vec.corpora.ReutersCollectionReader
+import com.github.asher_stern.word2vec.utilities.ArgumentProvider
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import com.github.asher_stern.word2vec.utilities.CompressedFiles.Compression
+import com.github.asher_stern.word2vec.utilities.FileShard
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics.Counter
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics.Stage
 import com.github.asher_stern.word2vec.utilities._provide
-import com.github.asher_stern.word2vec.utilities._use
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
 import de.tudarmstadt.ukp.dkpro.core.languagetool.LanguageToolSegmenter
+import org.apache.uima.analysis_engine.AnalysisEngine
 import org.apache.uima.collection.CollectionReader
 import org.apache.uima.fit.factory.AnalysisEngineFactory
 import org.apache.uima.fit.factory.CollectionReaderFactory
@@ -16,6 +25,10 @@ import org.apache.uima.jcas.JCas
 import java.io.File
 import java.io.PrintWriter
 import java.util.*
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
 import java.util.regex.Pattern
 
 /**
@@ -23,8 +36,14 @@ import java.util.regex.Pattern
  */
 
 /**
- * Entry point for generating sentences.txt and words.txt files.
- * @param args corpus-path, output-directory, corpus-type ("REUTERS" or "BNC")
+ * Entry point for generating sentences.txt, words.txt and counts.txt files.
+ * @param args corpus-path, output-directory, corpus-type ("REUTERS" or "BNC").
+ * Optional: --threads=number-of-threads (default 1), --order=DETERMINISTIC or UNORDERED (default DETERMINISTIC),
+ * --vocabulary-size=number of words in words.txt (default 10000),
+ * --maximum-distinct-words=bound on the number of distinct words counted in memory (default 0, meaning exact counting),
+ * --uima=true to read BNC through UIMA rather than directly (default false),
+ * --compression=NONE, GZIP, XZ or BZIP2, to compress sentences.txt (default NONE),
+ * and the options of the metrics (--metrics-interval, --metrics-file, --jmx, see [PipelineMetricsOptions]).
  */
 fun main(args: Array<String>)
 {
@@ -32,47 +51,181 @@ fun main(args: Array<String>)
         val corpusPath = arg
         val outputDirectory = arg
         val corpusType = CorpusType.valueOf(arg)
-        CorpusToTokensAndSentences(corpusPath, outputDirectory, corpusType).go()
+        CorpusToTokensAndSentences(corpusPath, outputDirectory, corpusType, preprocessingOptions()).go()
     }
 }
 
 /**
- * This class generates two files: sentences.txt and words.txt.
+ * Returns the [PreprocessingOptions] given as optional command-line arguments (see [main]).
+ */
+internal fun ArgumentProvider.preprocessingOptions() = PreprocessingOptions(
+        numberOfThreads = option("threads", "1").toInt(),
+        sentencesOrder = SentencesOrder.valueOf(option("order", SentencesOrder.DETERMINISTIC.name)),
+        vocabularySize = option("vocabulary-size", CorpusToTokensAndSentences.NUMBER_OF_DISTINCT_WORDS.toString()).toInt(),
+        maximumDistinctWords = option("maximum-distinct-words", "0").toInt(),
+        uima = option("uima", "false").toBoolean(),
+        compression = Compression.valueOf(option("compression", Compression.NONE.name)),
+        metrics = pipelineMetricsOptions()
+)
+
+
+/**
+ * Options of [CorpusToTokensAndSentences].
+ *
+ * @param numberOfThreads number of worker threads. 1 means that all the documents are processed by the calling thread.
+ * @param sentencesOrder the order of the sentences in sentences.txt, when [numberOfThreads] is larger than 1.
+ * @param vocabularySize the number of most common words written into words.txt.
+ * @param maximumDistinctWords if positive, words are counted by [PruningVocabularyCounter], which keeps at most this
+ * number of distinct words in memory (per thread). Otherwise, all the distinct words are counted exactly.
+ * @param uima whether BNC is read by UIMA (into a CAS for each document), rather than directly into tokens. Both give the
+ * same results.
+ * @param compression the compression of sentences.txt, whose name gets the extension of the compression format (e.g.,
+ * sentences.txt.gz). See [CompressedFiles].
+ * @param metrics how the throughput of the preprocessing is reported. See [PipelineMetrics].
+ */
+data class PreprocessingOptions(
+        val numberOfThreads: Int = 1,
+        val sentencesOrder: SentencesOrder = SentencesOrder.DETERMINISTIC,
+        val vocabularySize: Int = CorpusToTokensAndSentences.NUMBER_OF_DISTINCT_WORDS,
+        val maximumDistinctWords: Int = 0,
+        val uima: Boolean = false,
+        val compression: Compression = Compression.NONE,
+        val metrics: PipelineMetricsOptions = PipelineMetricsOptions()
+)
+
+/**
+ * This class generates three files: sentences.txt, words.txt and counts.txt.
  *
  * The sentences.txt file contains all the sentences in the given documents from the given collection (provided by [reader]).
+ * It can be compressed, by [PreprocessingOptions.compression].
  *
- * The words.txt contains the most common 10000 words in the given corpus (provided by [reader]), sorted from most common to
- * least common.
+ * The words.txt contains the most common words (10000 by default, see [PreprocessingOptions.vocabularySize]) in the given
+ * corpus (provided by [reader]), sorted from most common to least common. For very large corpora, the number of distinct
+ * words counted in memory can be bounded by [PreprocessingOptions.maximumDistinctWords].
+ *
+ * The counts.txt contains the number of occurrences of each word of words.txt, in the same line as the word in words.txt
+ * (see [loadWordCounts]).
  *
  * Usage: construct this class, and call the method [go].
  *
- * @param reader the corpus
+ * The progress is reported by [PipelineMetrics], as set by [PreprocessingOptions.metrics]: the numbers of documents,
+ * sentences and tokens, the bytes read (the sizes of the files of the documents, or, when reading by UIMA, the sizes of
+ * their texts) and written (the size of sentences.txt), and the time spent in reading and parsing the documents,
+ * segmenting and counting their words, and writing their sentences.
+ *
+ * The corpus is given either as a UIMA [CollectionReader], in which case each document is read into a [JCas] and is
+ * segmented (unless it is a BNC document, which is already segmented), or as an iterator of [TokenizedDocument]s, which
+ * are already segmented, and are read without UIMA at all. The latter is much faster, and is used for BNC by default.
+ *
+ * When [PreprocessingOptions.numberOfThreads] is larger than 1, documents are processed by a pool of workers. Each worker has its own [JCas]
+ * and segmenter (when reading by UIMA), and takes the next document from the shared corpus. Each worker counts words separately, and the
+ * counts are merged at the end. Note that words having exactly the same count might be ordered differently in words.txt
+ * than in the single-threaded mode.
+ *
+ * @param reader the corpus, read by UIMA. Exactly one of [reader] and [tokenizedCorpus] is not null.
+ * @param tokenizedCorpus the corpus, read without UIMA.
  * @param outputDirectory the directory in which the files will be created.
  * @param corpusType corpus type: can be either Reuters (RCV1. See http://trec.nist.gov/data/reuters/reuters.html) or BNC (see http://ota.ox.ac.uk/desc/2554).
+ * @param options see [PreprocessingOptions].
  */
-class CorpusToTokensAndSentences(private val reader: CollectionReader, private val outputDirectory: String, private val corpusType: CorpusType)
+class CorpusToTokensAndSentences private constructor(
+        private val reader: CollectionReader?,
+        private val tokenizedCorpus: Iterator<TokenizedDocument>?,
+        private val outputDirectory: String,
+        private val corpusType: CorpusType,
+        private val options: PreprocessingOptions
+)
 {
+    /**
+     * Constructor with a corpus read by UIMA.
+     * @param reader the corpus
+     * @param outputDirectory the directory in which the files will be created.
+     * @param corpusType corpus type: can be either Reuters (RCV1. See http://trec.nist.gov/data/reuters/reuters.html) or BNC (see http://ota.ox.ac.uk/desc/2554).
+     * @param options see [PreprocessingOptions].
+     */
+    constructor(reader: CollectionReader, outputDirectory: String, corpusType: CorpusType, options: PreprocessingOptions = PreprocessingOptions()) :
+            this(reader, null, outputDirectory, corpusType, options)
+
+    /**
+     * Constructor with a corpus whose documents are already segmented, and are read without UIMA.
+     * @param tokenizedCorpus the corpus
+     * @param outputDirectory the directory in which the files will be created.
+     * @param corpusType the corpus type.
+     * @param options see [PreprocessingOptions].
+     */
+    constructor(tokenizedCorpus: Iterator<TokenizedDocument>, outputDirectory: String, corpusType: CorpusType, options: PreprocessingOptions = PreprocessingOptions()) :
+            this(null, tokenizedCorpus, outputDirectory, corpusType, options)
+
     /**
      * Constructor, like the primary constructor, but with corpus directory-path, rather than [CollectionReader].
+     * BNC is read without UIMA, unless [PreprocessingOptions.uima] is set.
      * @param corpusPath root directory of the corpus
      * @param outputDirectory the directory in which the files will be created.
      * @param corpusType corpus type: can be either Reuters (RCV1. See http://trec.nist.gov/data/reuters/reuters.html) or BNC (see http://ota.ox.ac.uk/desc/2554).
+     * @param options see [PreprocessingOptions].
+     * @param shard if not null, only the files of this shard of the corpus are read (see [ShardedPreprocessing]).
      */
-    constructor(corpusPath: String, outputDirectory: String, corpusType: CorpusType) : this(
-            when (corpusType)
+    constructor(corpusPath: String, outputDirectory: String, corpusType: CorpusType, options: PreprocessingOptions = PreprocessingOptions(), shard: FileShard? = null) : this(
+            when
             {
-                CorpusType.REUTERS -> createReutersCollectionReader(corpusPath)
-                CorpusType.BNC -> createBncCollectionReader(corpusPath)
+                corpusType == CorpusType.REUTERS -> createReutersCollectionReader(corpusPath, shard)
+                options.uima -> createBncCollectionReader(corpusPath, shard)
+                else -> null
             },
+            if ( (corpusType == CorpusType.BNC) && (!options.uima) ) BncTokenizedCorpus(File(corpusPath), shard = shard) else null,
             outputDirectory,
-            corpusType
+            corpusType,
+            options
     )
 
     companion object
     {
         const val SENTENCES_FILE = "sentences.txt"
         const val WORDS_FILE = "words.txt"
+        const val COUNTS_FILE = "counts.txt"
         const val NUMBER_OF_DISTINCT_WORDS = 10000
+        const val MAXIMUM_PENDING_DOCUMENTS_PER_THREAD = 16
+        const val METRICS_PIPELINE = "preprocessing"
+
+        /**
+         * Writes words.txt and counts.txt into the given directory.
+         * @param mostCommon the words, from most common to least common, with their counts.
+         */
+        fun writeVocabulary(mostCommon: List<Pair<String, Int>>, directory: File)
+        {
+            File(directory, WORDS_FILE).printWriter().use { writer ->
+                for ( (word, _) in mostCommon)
+                {
+                    writer.println(word)
+                }
+            }
+            File(directory, COUNTS_FILE).printWriter().use { writer ->
+                for ( (_, count) in mostCommon)
+                {
+                    writer.println(count)
+                }
+            }
+        }
+
+        /**
+         * Returns the sentences.txt file in the given directory, which may be compressed (e.g., sentences.txt.gz).
+         * If no such file exists, returns the uncompressed file.
+         */
+        fun sentenceFileIn(directory: File): File =
+                Compression.values().map { File(directory, SENTENCES_FILE + it.extension) }.firstOrNull { it.exists() } ?: File(directory, SENTENCES_FILE)
+
+        /**
+         * Converts a token, as given by the corpus, into a word of sentences.txt: removes leading and trailing characters
+         * that are neither letters nor digits, and converts to lower case. Returns an empty string if nothing is left.
+         */
+        @JvmStatic
+        fun normalizeToken(surface: String): String = surface.trim { !it.isLetterOrDigit() }.toLowerCase(Locale.ENGLISH)
+
+        /**
+         * Creates an empty [VocabularyCounter], as set by the given options.
+         */
+        fun createVocabularyCounter(options: PreprocessingOptions): VocabularyCounter =
+                if (options.maximumDistinctWords > 0) PruningVocabularyCounter(options.maximumDistinctWords) else ExactVocabularyCounter()
     }
 
     /**
@@ -80,86 +233,301 @@ class CorpusToTokensAndSentences(private val reader: CollectionReader, private v
      */
     fun go()
     {
-        val wordCount = mutableMapOf<String, Int>()
         val directory = File(outputDirectory)
-        File(directory, SENTENCES_FILE).printWriter().use { writer ->
-            JCasFactory.createJCas()._use { jcas ->
-                go(writer, jcas, wordCount)
+        val wordCount = writeSentences(File(directory, SENTENCES_FILE + options.compression.extension))
+        writeVocabulary(wordCount.mostCommon(options.vocabularySize), directory)
+    }
+
+    /**
+     * Writes the sentences of the corpus into the given file (compressed by its extension, see [CompressedFiles]), and
+     * returns the counts of all the words.
+     * Unlike [go], words.txt and counts.txt are not written.
+     */
+    fun writeSentences(sentenceFile: File): VocabularyCounter
+    {
+        val wordCount = createVocabularyCounter()
+        options.metrics.start(METRICS_PIPELINE).use { metrics ->
+            metrics.setSource(Counter.BYTES_WRITTEN) { sentenceFile.length() }
+            CompressedFiles.newPrintWriter(sentenceFile).use { writer ->
+                if (options.numberOfThreads > 1)
+                {
+                    goParallel(writer, wordCount, metrics)
+                }
+                else
+                {
+                    createDocumentSource().use { source ->
+                        go(writer, source, wordCount, metrics)
+                    }
+                }
             }
         }
+        return wordCount
+    }
+
 
-        val sortedWords = wordCount.toList().sortedByDescending { (_, v) -> v }.map { (k, _) -> k }
+    private fun go(writer: PrintWriter, source: DocumentSource, wordCount: VocabularyCounter, metrics: PipelineMetrics)
+    {
+        while (true)
+        {
+            val readStart = System.nanoTime()
+            if (!source.read()) { break }
+            metrics.addTime(Stage.PARSING, System.nanoTime() - readStart)
 
-        File(directory, WORDS_FILE).printWriter().use { writer ->
-            for (word in sortedWords.asSequence().take(NUMBER_OF_DISTINCT_WORDS))
+            val sentences = source.process(wordCount, metrics)
+
+            val outputStart = System.nanoTime()
+            for (sentence in sentences)
             {
-                writer.println(word)
+                writer.println(sentence)
             }
+            metrics.addTime(Stage.OUTPUT, System.nanoTime() - outputStart)
+            metrics.increment(Counter.DOCUMENTS)
         }
     }
 
-
-    private fun go(writer: PrintWriter, jcas: JCas, wordCount: MutableMap<String, Int>)
+    private fun goParallel(writer: PrintWriter, wordCount: VocabularyCounter, metrics: PipelineMetrics)
     {
-        val lap = AnalysisEngineFactory.createEngine(AnalysisEngineFactory.createEngineDescription(LanguageToolSegmenter::class.java))
-        var index = 0
-        while (reader.hasNext())
+        val numberOfThreads = options.numberOfThreads
+        val sentencesWriter = DocumentSentencesWriter(writer, options.sentencesOrder, MAXIMUM_PENDING_DOCUMENTS_PER_THREAD*numberOfThreads)
+        val readIndex = AtomicLong(0)
+
+        val executor = Executors.newFixedThreadPool(numberOfThreads)
+        try
         {
-            jcas.reset()
-            reader.getNext(jcas.cas)
-            if (corpusType != CorpusType.BNC)
+            val futures = (1..numberOfThreads).map { executor.submit(Worker(sentencesWriter, readIndex, metrics)) }
+            for (future in futures)
             {
-                lap.process(jcas)
+                try
+                {
+                    wordCount.addAll(future.get())
+                }
+                catch (e: ExecutionException)
+                {
+                    throw RuntimeException("Document processing failed.", e.cause)
+                }
             }
+        }
+        finally
+        {
+            executor.shutdownNow()
+        }
+    }
 
-            val indexedTokens = JCasUtil.indexCovered(jcas, Sentence::class.java, Token::class.java)
-
-            for (sentence in jcas.getAnnotationIndex(Sentence::class.java))
+    /**
+     * Takes documents from the shared corpus, one at a time, until the corpus is exhausted.
+     * Returns the word counts of the documents this worker processed.
+     */
+    private inner class Worker(
+            private val sentencesWriter: DocumentSentencesWriter,
+            private val readIndex: AtomicLong,
+            private val metrics: PipelineMetrics
+    ) : Callable<VocabularyCounter>
+    {
+        override fun call(): VocabularyCounter
+        {
+            try
             {
-                val tokens = indexedTokens.getValue(sentence)
-                val tokenList = normalizeTokens(tokens)
-                for (token in tokenList)
+                return processDocuments()
+            }
+            catch (t: Throwable)
+            {
+                // Other workers might wait for the document that this worker failed to write.
+                sentencesWriter.abort()
+                throw t
+            }
+        }
+
+        private fun processDocuments(): VocabularyCounter
+        {
+            val wordCount = createVocabularyCounter()
+            createDocumentSource().use { source ->
+                while (true)
                 {
-                    wordCount._inc(token)
+                    // The time is measured while holding the lock, so waiting for other workers is not counted as parsing.
+                    var readTime = 0L
+                    val documentIndex = synchronized(corpusLock)
+                    {
+                        val readStart = System.nanoTime()
+                        val index = if (source.read()) readIndex.getAndIncrement() else -1L
+                        readTime = System.nanoTime() - readStart
+                        index
+                    }
+                    if (documentIndex < 0) { break }
+                    metrics.addTime(Stage.PARSING, readTime)
+
+                    val sentences = source.process(wordCount, metrics)
+
+                    // Includes waiting for the previous documents, in the deterministic order.
+                    val outputStart = System.nanoTime()
+                    sentencesWriter.write(documentIndex, sentences)
+                    metrics.addTime(Stage.OUTPUT, System.nanoTime() - outputStart)
+                    metrics.increment(Counter.DOCUMENTS)
                 }
-                writer.println(tokenList.joinToString(" "))
             }
+            return wordCount
+        }
+    }
+
+
+    /**
+     * Takes documents from the corpus. Each thread has its own source, but all the sources take documents from the same
+     * corpus.
+     */
+    private interface DocumentSource : AutoCloseable
+    {
+        /**
+         * Takes the next document from the corpus, or returns false if the corpus is exhausted.
+         * In the multi-threaded mode, this method is called while holding [corpusLock].
+         */
+        fun read(): Boolean
+
+        /**
+         * Processes the document taken by the last call to [read]: counts its words, and returns its sentences as lines
+         * of sentences.txt. Adds the bytes, sentences and tokens of the document, and the time of its parsing (if it was
+         * not parsed by [read]) and segmentation, to [metrics].
+         */
+        fun process(wordCount: VocabularyCounter, metrics: PipelineMetrics): List<String>
+    }
+
+    private inner class UimaDocumentSource(private val reader: CollectionReader) : DocumentSource
+    {
+        override fun read(): Boolean
+        {
+            if (!reader.hasNext()) { return false }
+            jcas.reset()
+            reader.getNext(jcas.cas)
+            return true
+        }
+
+        override fun process(wordCount: VocabularyCounter, metrics: PipelineMetrics): List<String>
+        {
+            val start = System.nanoTime()
+            metrics.add(Counter.BYTES_READ, jcas.documentText.length.toLong())
+            val ret = processDocument(jcas, lap, wordCount, metrics)
+            metrics.addTime(Stage.SEGMENTATION, System.nanoTime() - start)
+            return ret
+        }
+
+        override fun close()
+        {
+            jcas.release()
+        }
+
+        private val lap = createSegmenter()
+        private val jcas = JCasFactory.createJCas()
+    }
+
+    private inner class TokenizedDocumentSource(private val corpus: Iterator<TokenizedDocument>) : DocumentSource
+    {
+        override fun read(): Boolean
+        {
+            document = if (corpus.hasNext()) corpus.next() else null
+            return document != null
+        }
+
+        override fun process(wordCount: VocabularyCounter, metrics: PipelineMetrics): List<String>
+        {
+            val document = document!!
+            val parseStart = System.nanoTime()
+            val sentences = document.sentences()
+            val segmentationStart = System.nanoTime()
+            metrics.addTime(Stage.PARSING, segmentationStart - parseStart)
+            metrics.add(Counter.BYTES_READ, document.size)
+            val ret = processSentences(sentences, wordCount, metrics)
+            metrics.addTime(Stage.SEGMENTATION, System.nanoTime() - segmentationStart)
+            return ret
+        }
+
+        override fun close() {}
+
+        private var document: TokenizedDocument? = null
+    }
+
+    private fun createDocumentSource(): DocumentSource = if (reader != null) UimaDocumentSource(reader) else TokenizedDocumentSource(tokenizedCorpus!!)
+
+    private fun createVocabularyCounter(): VocabularyCounter = createVocabularyCounter(options)
+
+    private fun createSegmenter(): AnalysisEngine =
+            AnalysisEngineFactory.createEngine(AnalysisEngineFactory.createEngineDescription(LanguageToolSegmenter::class.java))
+
+    /**
+     * Segments the document (unless it is already segmented), counts its words, and returns its sentences as lines
+     * of sentences.txt.
+     */
+    private fun processDocument(jcas: JCas, lap: AnalysisEngine, wordCount: VocabularyCounter, metrics: PipelineMetrics): List<String>
+    {
+        if (corpusType != CorpusType.BNC)
+        {
+            lap.process(jcas)
+        }
 
-            ++index
-            if (0 == (index % 100))
+        val indexedTokens = JCasUtil.indexCovered(jcas, Sentence::class.java, Token::class.java)
+
+        val ret = mutableListOf<String>()
+        for (sentence in jcas.getAnnotationIndex(Sentence::class.java))
+        {
+            val tokens = indexedTokens.getValue(sentence)
+            val tokenList = tokens.map { normalizeToken(it.coveredText) }.filter { it.isNotEmpty() }
+            for (token in tokenList)
             {
-                println(index)
+                wordCount.add(token)
             }
+            metrics.add(Counter.TOKENS, tokenList.size.toLong())
+            ret.add(tokenList.joinToString(" "))
         }
-        println(index)
+        metrics.add(Counter.SENTENCES, ret.size.toLong())
+        return ret
     }
 
-    private fun normalizeTokens(tokens: Collection<Token>): List<String>
+    /**
+     * Like [processDocument], for sentences given as token surfaces.
+     */
+    private fun processSentences(sentences: List<Array<String>>, wordCount: VocabularyCounter, metrics: PipelineMetrics): List<String>
     {
-        return tokens.map { it.coveredText.trim { !it.isLetterOrDigit() }.toLowerCase(Locale.ENGLISH) }.filter { it.isNotEmpty() }
+        val ret = ArrayList<String>(sentences.size)
+        val line = StringBuilder()
+        var tokens = 0L
+        for (sentence in sentences)
+        {
+            line.setLength(0)
+            for (surface in sentence)
+            {
+                val token = normalizeToken(surface)
+                if (token.isEmpty()) { continue }
+                wordCount.add(token)
+                ++tokens
+                if (line.isNotEmpty()) { line.append(' ') }
+                line.append(token)
+            }
+            ret.add(line.toString())
+        }
+        metrics.add(Counter.SENTENCES, ret.size.toLong())
+        metrics.add(Counter.TOKENS, tokens)
+        return ret
     }
+
+
+
+    private val corpusLock = Any()
 }
 
 
 enum class CorpusType {REUTERS, BNC}
 
 
-private fun createReutersCollectionReader(directory: String): CollectionReader
+private fun createReutersCollectionReader(directory: String, shard: FileShard?): CollectionReader
 {
-    return CollectionReaderFactory.createReader(ReutersCollectionReader::class.java, ReutersCollectionReader.DIRECTORY_PARAM, directory)
+    return CollectionReaderFactory.createReader(ReutersCollectionReader::class.java, ReutersCollectionReader.DIRECTORY_PARAM, directory,
+            ReutersCollectionReader.SHARD_PARAM, shard?.shard ?: 0, ReutersCollectionReader.NUMBER_OF_SHARDS_PARAM, shard?.numberOfShards ?: 1)
 }
 
-private fun createBncCollectionReader(directory: String): CollectionReader
+private fun createBncCollectionReader(directory: String, shard: FileShard?): CollectionReader
 {
-    return CollectionReaderFactory.createReader(BncCollectionReader::class.java, BncCollectionReader.DIRECTORY_PARAM, directory)
+    // Only Token and Sentence annotations are used here.
+    return CollectionReaderFactory.createReader(BncCollectionReader::class.java, BncCollectionReader.DIRECTORY_PARAM, directory, BncCollectionReader.POS_AND_LEMMA_PARAM, false,
+            BncCollectionReader.SHARD_PARAM, shard?.shard ?: 0, BncCollectionReader.NUMBER_OF_SHARDS_PARAM, shard?.numberOfShards ?: 1)
 }
 
 
-private fun <K> MutableMap<K, Int>._inc(key: K)
-{
-    val value = this.getOrDefault(key, 0) + 1
-    this.put(key, value)
-}
-
 
 
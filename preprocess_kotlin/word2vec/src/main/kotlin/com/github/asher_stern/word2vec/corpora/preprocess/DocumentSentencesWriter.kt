@@ -0,0 +1,99 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import java.io.PrintWriter
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Determines the order of the sentences in sentences.txt, when documents are processed by several threads.
+ */
+enum class SentencesOrder
+{
+    /**
+     * Documents are written in the order in which they were read from the collection reader. The output is identical
+     * to the output of the single-threaded mode.
+     */
+    DETERMINISTIC,
+
+    /**
+     * Each document is written as soon as it has been processed. The sentences of a single document are kept together,
+     * but the order of the documents is arbitrary.
+     */
+    UNORDERED
+}
+
+
+/**
+ * Writes the sentences of documents that are processed concurrently by several threads.
+ *
+ * Each document is identified by a running index, given when the document was read. In [SentencesOrder.DETERMINISTIC]
+ * mode, a document is written only after all the documents with smaller indexes were written. A worker that runs too far
+ * ahead (more than [maximumPending] documents) waits, so the memory used by documents waiting to be written is bounded.
+ *
+ * @param writer the sentences.txt writer
+ * @param order see [SentencesOrder]
+ * @param maximumPending the maximum number of processed documents that wait to be written.
+ */
+class DocumentSentencesWriter(private val writer: PrintWriter, private val order: SentencesOrder, private val maximumPending: Int)
+{
+    /**
+     * Writes (or schedules writing of) the sentences of the document whose index is [documentIndex].
+     * Every index, from 0 up to the number of documents, must be given exactly once.
+     */
+    fun write(documentIndex: Long, sentences: List<String>)
+    {
+        synchronized(lock)
+        {
+            if (order == SentencesOrder.UNORDERED)
+            {
+                writeSentences(sentences)
+                return
+            }
+
+            while ( (documentIndex - nextIndex) >= maximumPending )
+            {
+                if (aborted) { throw RuntimeException("Writing sentences was aborted.") }
+                lock.wait()
+            }
+            if (aborted) { throw RuntimeException("Writing sentences was aborted.") }
+
+            pending.put(documentIndex, sentences)
+            while (pending.containsKey(nextIndex))
+            {
+                writeSentences(pending.remove(nextIndex)!!)
+                ++nextIndex
+            }
+            lock.notifyAll()
+        }
+    }
+
+    /**
+     * Wakes up all the waiting workers, which then throw an exception. Should be called when one of the workers failed,
+     * so its document will never be written.
+     */
+    fun abort()
+    {
+        synchronized(lock)
+        {
+            aborted = true
+            lock.notifyAll()
+        }
+    }
+
+    private fun writeSentences(sentences: List<String>)
+    {
+        for (sentence in sentences)
+        {
+            writer.println(sentence)
+        }
+    }
+
+
+    private val lock = Object()
+    private val pending = mutableMapOf<Long, List<String>>()
+    private var nextIndex = 0L
+    private var aborted = false
+}
@@ -0,0 +1,258 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * The header of a binary neighbors file.
+ *
+ * The file is little-endian. It starts with a header of [HEADER_SIZE] bytes:
+ * magic ("W2VN" for pairs, "W2VC" for pairs with counts), format version, vocabulary size, window size, number of
+ * stop-words, ID size (2 or 4 bytes), number of pairs (8 bytes).
+ * The header is followed by the pairs, each pair is a word-ID followed by a context-word-ID, each of [idSize] bytes.
+ * IDs are stored as unsigned 16-bit integers when all the IDs fit, otherwise as 32-bit integers.
+ * If [withCounts], each pair is followed by a 32-bit count (the number of times the pair occurred).
+ *
+ * @param vocabularySize the largest word-ID that might appear in the file
+ */
+data class NeighborsBinaryHeader(
+        val vocabularySize: Int,
+        val windowSize: Int,
+        val numberOfStopWords: Int,
+        val idSize: Int,
+        val numberOfPairs: Long,
+        val withCounts: Boolean = false
+)
+{
+    val pairSize: Int get() = 2*idSize + (if (withCounts) 4 else 0)
+
+    companion object
+    {
+        const val MAGIC = 0x4E563257 // "W2VN" in little-endian
+        const val COUNTS_MAGIC = 0x43563257 // "W2VC" in little-endian
+        const val VERSION = 1
+        const val HEADER_SIZE = 32
+        const val NUMBER_OF_PAIRS_OFFSET = 24L
+
+        /**
+         * Returns whether the given file starts with the magic of a binary neighbors file (with or without counts).
+         */
+        fun isBinary(file: File): Boolean
+        {
+            if (file.length() < HEADER_SIZE) { return false }
+            RandomAccessFile(file, "r").use {
+                val magic = Integer.reverseBytes(it.readInt())
+                return (magic == MAGIC) || (magic == COUNTS_MAGIC)
+            }
+        }
+
+        fun read(buffer: ByteBuffer): NeighborsBinaryHeader
+        {
+            buffer.order(ByteOrder.LITTLE_ENDIAN)
+            val magic = buffer.int
+            if ( (magic != MAGIC) && (magic != COUNTS_MAGIC) ) { throw RuntimeException("Not a binary neighbors file.") }
+            val version = buffer.int
+            if (version != VERSION) { throw RuntimeException("Unsupported binary neighbors file version: $version") }
+            return NeighborsBinaryHeader(buffer.int, buffer.int, buffer.int, buffer.int, buffer.long, magic == COUNTS_MAGIC)
+        }
+    }
+
+    fun write(buffer: ByteBuffer)
+    {
+        buffer.order(ByteOrder.LITTLE_ENDIAN)
+        buffer.putInt(if (withCounts) COUNTS_MAGIC else MAGIC).putInt(VERSION).putInt(vocabularySize).putInt(windowSize).putInt(numberOfStopWords).putInt(idSize).putLong(numberOfPairs)
+    }
+}
+
+
+/**
+ * Writes a binary neighbors file (see [NeighborsBinaryHeader]).
+ * The number of pairs is written into the header when the writer is closed.
+ *
+ * @param withCounts whether the file contains pairs with counts (written by [write] with a count), rather than
+ * single occurrences.
+ */
+class NeighborsBinaryWriter(
+        outputFile: File,
+        vocabularySize: Int,
+        windowSize: Int,
+        numberOfStopWords: Int,
+        withCounts: Boolean = false
+) : NeighborsWriter
+{
+    override fun write(wordId: Int, contextWordId: Int)
+    {
+        if (header.withCounts) { write(wordId, contextWordId, 1); return }
+        if (buffer.remaining() < header.pairSize) { flush() }
+        writeIds(wordId, contextWordId)
+        ++numberOfPairs
+    }
+
+    override fun write(wordId: Int, contextWordId: Int, count: Int)
+    {
+        if (!header.withCounts) { throw RuntimeException("Counts can be written only to a file created with counts.") }
+        if (buffer.remaining() < header.pairSize) { flush() }
+        writeIds(wordId, contextWordId)
+        buffer.putInt(count)
+        ++numberOfPairs
+    }
+
+    override fun close()
+    {
+        channel.use {
+            flush()
+            val count = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+            count.putLong(0, numberOfPairs)
+            channel.write(count, NeighborsBinaryHeader.NUMBER_OF_PAIRS_OFFSET)
+        }
+    }
+
+
+    private fun writeIds(wordId: Int, contextWordId: Int)
+    {
+        if (shortIds)
+        {
+            buffer.putShort(wordId.toShort())
+            buffer.putShort(contextWordId.toShort())
+        }
+        else
+        {
+            buffer.putInt(wordId)
+            buffer.putInt(contextWordId)
+        }
+    }
+
+    private fun flush()
+    {
+        buffer.flip()
+        while (buffer.hasRemaining()) { channel.write(buffer) }
+        buffer.clear()
+    }
+
+
+    private val header = NeighborsBinaryHeader(vocabularySize, windowSize, numberOfStopWords, if (vocabularySize <= 0xFFFF) 2 else 4, 0L, withCounts)
+    private val shortIds = (header.idSize == 2)
+    private val channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+    private val buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+    private var numberOfPairs = 0L
+
+    init
+    {
+        header.write(buffer)
+    }
+
+    companion object
+    {
+        private const val BUFFER_SIZE = 1 shl 20
+    }
+}
+
+
+/**
+ * Reads a binary neighbors file (see [NeighborsBinaryHeader]) by memory-mapping it.
+ *
+ * Files larger than 2GB are mapped as several regions, each holding a whole number of pairs. Reading the pairs is done
+ * by [cursor], which does not allocate per pair, and can be restricted to a range of pairs (so several threads can
+ * each read a different range).
+ */
+class NeighborsBinaryReader(file: File) : AutoCloseable
+{
+    val header: NeighborsBinaryHeader
+
+    val numberOfPairs: Long get() = header.numberOfPairs
+
+    /**
+     * Returns a cursor over the pairs from [beginPair] (inclusive) to [endPair] (exclusive).
+     */
+    fun cursor(beginPair: Long = 0, endPair: Long = numberOfPairs): BinaryCursor
+    {
+        if ( (beginPair < 0) || (endPair > numberOfPairs) || (beginPair > endPair) ) { throw IllegalArgumentException("Illegal range: $beginPair - $endPair") }
+        return BinaryCursor(beginPair, endPair)
+    }
+
+    override fun close()
+    {
+        channel.close()
+    }
+
+
+    /**
+     * Iterates over a range of pairs. Call [next], and, if it returns true, read [wordId] and [contextWordId].
+     */
+    inner class BinaryCursor internal constructor(private var pairIndex: Long, private val endPair: Long) : NeighborsCursor
+    {
+        override var wordId = 0
+            private set
+        override var contextWordId = 0
+            private set
+        override var count = 1
+            private set
+
+        override fun next(): Boolean
+        {
+            if (pairIndex >= endPair) { return false }
+            val region = (pairIndex / pairsPerRegion).toInt()
+            val offset = ((pairIndex % pairsPerRegion) * pairSize).toInt()
+            val buffer = regions[region]
+            if (shortIds)
+            {
+                wordId = buffer.getShort(offset).toInt() and 0xFFFF
+                contextWordId = buffer.getShort(offset+2).toInt() and 0xFFFF
+            }
+            else
+            {
+                wordId = buffer.getInt(offset)
+                contextWordId = buffer.getInt(offset+4)
+            }
+            if (withCounts)
+            {
+                count = buffer.getInt(offset + pairSize - 4)
+            }
+            ++pairIndex
+            return true
+        }
+    }
+
+
+    private val channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)
+    private val pairSize: Int
+    private val shortIds: Boolean
+    private val withCounts: Boolean
+    private val pairsPerRegion: Long
+    private val regions: Array<MappedByteBuffer>
+
+    init
+    {
+        header = NeighborsBinaryHeader.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, NeighborsBinaryHeader.HEADER_SIZE.toLong()))
+        pairSize = header.pairSize
+        shortIds = (header.idSize == 2)
+        withCounts = header.withCounts
+        val expectedLength = NeighborsBinaryHeader.HEADER_SIZE + header.numberOfPairs*pairSize
+        if (channel.size() < expectedLength) { throw RuntimeException("Truncated binary neighbors file: ${file.path}") }
+
+        pairsPerRegion = MAXIMUM_REGION_SIZE / pairSize
+        val numberOfRegions = ((header.numberOfPairs + pairsPerRegion - 1) / pairsPerRegion).toInt()
+        regions = Array(numberOfRegions) { region ->
+            val firstPair = region * pairsPerRegion
+            val pairsInRegion = Math.min(pairsPerRegion, header.numberOfPairs - firstPair)
+            val buffer = channel.map(FileChannel.MapMode.READ_ONLY, NeighborsBinaryHeader.HEADER_SIZE + firstPair*pairSize, pairsInRegion*pairSize)
+            buffer.order(ByteOrder.LITTLE_ENDIAN)
+            buffer
+        }
+    }
+
+    companion object
+    {
+        private const val MAXIMUM_REGION_SIZE = 1L shl 30
+    }
+}
@@ -0,0 +1,205 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import java.io.File
+import java.io.FileInputStream
+import java.io.InputStream
+import java.io.RandomAccessFile
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Iterates over word-context pairs of a neighbors file. Call [next], and, if it returns true, read [wordId],
+ * [contextWordId] and [count]. No object is allocated per pair.
+ */
+interface NeighborsCursor : AutoCloseable
+{
+    val wordId: Int
+    val contextWordId: Int
+
+    /**
+     * The number of occurrences of the pair. Always 1, unless the file was generated in [NeighborsMode.COUNTS] mode.
+     */
+    val count: Int
+
+    fun next(): Boolean
+
+    override fun close() {}
+}
+
+
+/**
+ * Opens a neighbors file generated by [BuildNeighbors], either in text or in binary format, with or without counts
+ * (detected automatically). A text file may be compressed (see [CompressedFiles]).
+ */
+fun openNeighbors(file: File): NeighborsCursor
+{
+    if (NeighborsBinaryHeader.isBinary(file))
+    {
+        val reader = NeighborsBinaryReader(file)
+        return closingReader(reader, reader.cursor())
+    }
+    return NeighborsTextCursor(CompressedFiles.newInputStream(file))
+}
+
+/**
+ * Opens a part of a neighbors file (see [openNeighbors]): the file is split by byte offsets into [numberOfShards] parts
+ * of about the same size, and the cursor iterates over the pairs of the part [shard]. Parts of a binary file are aligned to
+ * whole pairs, and parts of a text file are aligned to whole lines, so each pair is in exactly one part. A compressed file
+ * cannot be split.
+ * @param shard a number in 0 until [numberOfShards]
+ */
+fun openNeighbors(file: File, shard: Int, numberOfShards: Int): NeighborsCursor
+{
+    if ( (shard < 0) || (shard >= numberOfShards) ) { throw IllegalArgumentException("Illegal shard: $shard of $numberOfShards") }
+    if (NeighborsBinaryHeader.isBinary(file))
+    {
+        val reader = NeighborsBinaryReader(file)
+        val numberOfPairs = reader.numberOfPairs
+        return closingReader(reader, reader.cursor(numberOfPairs*shard/numberOfShards, numberOfPairs*(shard+1)/numberOfShards))
+    }
+
+    if (CompressedFiles.compressionOf(file) != CompressedFiles.Compression.NONE)
+    {
+        throw RuntimeException("A compressed neighbors file cannot be split into parts: $file")
+    }
+    RandomAccessFile(file, "r").use { randomAccessFile ->
+        val length = randomAccessFile.length()
+        val begin = lineBeginning(randomAccessFile, length*shard/numberOfShards)
+        val end = lineBeginning(randomAccessFile, length*(shard+1)/numberOfShards)
+        val stream = FileInputStream(file)
+        try
+        {
+            stream.channel.position(begin)
+        }
+        catch (e: Exception)
+        {
+            stream.close()
+            throw e
+        }
+        return NeighborsTextCursor(stream, end - begin)
+    }
+}
+
+/**
+ * Returns a cursor which iterates by [cursor], and closes [reader] when closed.
+ */
+private fun closingReader(reader: NeighborsBinaryReader, cursor: NeighborsCursor): NeighborsCursor
+{
+    return object : NeighborsCursor
+    {
+        override val wordId: Int get() = cursor.wordId
+        override val contextWordId: Int get() = cursor.contextWordId
+        override val count: Int get() = cursor.count
+        override fun next(): Boolean = cursor.next()
+        override fun close() { reader.close() }
+    }
+}
+
+/**
+ * Returns the offset of the first line that begins at [offset] or after it.
+ */
+private fun lineBeginning(file: RandomAccessFile, offset: Long): Long
+{
+    if (offset == 0L) { return 0L }
+    var position = offset - 1
+    file.seek(position)
+    var byte = file.read()
+    while ( (byte >= 0) && (byte != '\n'.toInt()) )
+    {
+        ++position
+        byte = file.read()
+    }
+    return if (byte < 0) file.length() else position + 1
+}
+
+
+/**
+ * Reads neighbors.txt, where each line is "word-ID whitespace context-word-ID", optionally followed by "whitespace count".
+ * The integers are parsed directly from the bytes of the file, which are read through an internal buffer.
+ * @param limit the maximum number of bytes to read from [stream]
+ */
+class NeighborsTextCursor(private val stream: InputStream, private var limit: Long = Long.MAX_VALUE) : NeighborsCursor
+{
+    override var wordId = 0
+        private set
+    override var contextWordId = 0
+        private set
+    override var count = 1
+        private set
+
+    override fun next(): Boolean
+    {
+        var byte = read()
+        while ( isSpace(byte) || isNewLine(byte) ) { byte = read() }
+        if (byte < 0) { return false }
+
+        var numberOfValues = 0
+        while ( (byte >= 0) && (!isNewLine(byte)) )
+        {
+            if (isSpace(byte))
+            {
+                byte = read()
+                continue
+            }
+
+            var value = 0
+            while ( (byte >= '0'.toInt()) && (byte <= '9'.toInt()) )
+            {
+                value = value*10 + (byte - '0'.toInt())
+                byte = read()
+            }
+            if ( (byte >= 0) && (!isSpace(byte)) && (!isNewLine(byte)) ) { throw RuntimeException("Malformed neighbors file: word-IDs are expected, but found '${byte.toChar()}'.") }
+
+            when (numberOfValues)
+            {
+                0 -> wordId = value
+                1 -> contextWordId = value
+                2 -> count = value
+                else -> throw RuntimeException("Malformed neighbors file: too many numbers in a line.")
+            }
+            ++numberOfValues
+        }
+
+        if (numberOfValues < 2) { throw RuntimeException("Malformed neighbors file: a line has a single word.") }
+        if (numberOfValues == 2) { count = 1 }
+        return true
+    }
+
+    override fun close()
+    {
+        stream.close()
+    }
+
+
+    private fun read(): Int
+    {
+        if (position == bufferLength)
+        {
+            bufferLength = if (limit > 0) stream.read(buffer, 0, Math.min(limit, buffer.size.toLong()).toInt()) else -1
+            position = 0
+            if (bufferLength <= 0)
+            {
+                bufferLength = 0
+                return -1
+            }
+            limit -= bufferLength
+        }
+        return buffer[position++].toInt() and 0xFF
+    }
+
+    private fun isSpace(byte: Int): Boolean = (byte == ' '.toInt()) || (byte == '\t'.toInt())
+
+    private fun isNewLine(byte: Int): Boolean = (byte == '\n'.toInt()) || (byte == '\r'.toInt())
+
+
+    private val buffer = ByteArray(BUFFER_SIZE)
+    private var position = 0
+    private var bufferLength = 0
+}
+
+
+private const val BUFFER_SIZE = 1 shl 16
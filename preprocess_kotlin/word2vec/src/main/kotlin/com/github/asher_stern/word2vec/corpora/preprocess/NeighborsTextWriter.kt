@@ -0,0 +1,129 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Writes word-context pairs into neighbors.txt, one pair per line, as "word whitespace context".
+ *
+ * The output is identical to printing "$word $context" with a [java.io.PrintWriter], but word-IDs are formatted directly
+ * into a byte buffer, so no string is created per pair.
+ *
+ * The file is compressed by the extension of its name (see [CompressedFiles]).
+ */
+class NeighborsTextWriter(outputFile: File) : NeighborsWriter
+{
+    /**
+     * Writes a pair of word-IDs.
+     */
+    override fun write(wordId: Int, contextWordId: Int)
+    {
+        if ( (position + MAXIMUM_PAIR_LENGTH) > buffer.size ) { flush() }
+        writeInt(wordId)
+        buffer[position++] = SPACE
+        writeInt(contextWordId)
+        for (byte in lineSeparator) { buffer[position++] = byte }
+    }
+
+    /**
+     * Writes a pair of word-IDs and its count, as "word whitespace context whitespace count".
+     */
+    override fun write(wordId: Int, contextWordId: Int, count: Int)
+    {
+        if ( (position + MAXIMUM_PAIR_LENGTH) > buffer.size ) { flush() }
+        writeInt(wordId)
+        buffer[position++] = SPACE
+        writeInt(contextWordId)
+        buffer[position++] = SPACE
+        writeInt(count)
+        for (byte in lineSeparator) { buffer[position++] = byte }
+    }
+
+    override fun close()
+    {
+        stream.use { flush() }
+    }
+
+
+    private fun writeInt(value: Int)
+    {
+        if (value < 0)
+        {
+            if (value == Int.MIN_VALUE)
+            {
+                for (char in value.toString()) { buffer[position++] = char.toByte() }
+                return
+            }
+            buffer[position++] = MINUS
+            writeInt(-value)
+            return
+        }
+
+        var end = position
+        var remainder = value
+        do
+        {
+            ++end
+            remainder /= 10
+        } while (remainder > 0)
+
+        position = end
+        remainder = value
+        do
+        {
+            buffer[--end] = (ZERO + (remainder % 10)).toByte()
+            remainder /= 10
+        } while (remainder > 0)
+    }
+
+    private fun flush()
+    {
+        stream.write(buffer, 0, position)
+        position = 0
+    }
+
+
+    companion object
+    {
+        private const val BUFFER_SIZE = 1 shl 16
+        private const val MAXIMUM_PAIR_LENGTH = 64
+        private const val SPACE = ' '.toByte()
+        private const val MINUS = '-'.toByte()
+        private const val ZERO = '0'.toInt()
+    }
+
+    private val stream = CompressedFiles.newOutputStream(outputFile)
+    private val buffer = ByteArray(BUFFER_SIZE)
+    private var position = 0
+    private val lineSeparator = System.lineSeparator().toByteArray(Charsets.US_ASCII)
+}
+
+
+/**
+ * Writes word-context pairs into a text file as words (rather than word-IDs), one pair per line.
+ * @param idToWord maps each word-ID to its word
+ */
+class NeighborsWordsWriter(outputFile: File, private val idToWord: (Int) -> String) : NeighborsWriter
+{
+    override fun write(wordId: Int, contextWordId: Int)
+    {
+        output.println("${idToWord(wordId)} ${idToWord(contextWordId)}")
+    }
+
+    override fun write(wordId: Int, contextWordId: Int, count: Int)
+    {
+        output.println("${idToWord(wordId)} ${idToWord(contextWordId)} $count")
+    }
+
+    override fun close()
+    {
+        output.close()
+    }
+
+    private val output = CompressedFiles.newPrintWriter(outputFile)
+}
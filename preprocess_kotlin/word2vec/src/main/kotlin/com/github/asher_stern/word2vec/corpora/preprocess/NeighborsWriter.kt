@@ -0,0 +1,57 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Format of the neighbors file generated by [BuildNeighbors].
+ */
+enum class NeighborsFormat
+{
+    /**
+     * A text file, one "word context" pair per line. See [NeighborsTextWriter].
+     */
+    TEXT,
+
+    /**
+     * A binary file of fixed-width pairs, preceded by a header. See [NeighborsBinaryWriter] and [NeighborsBinaryReader].
+     */
+    BINARY
+}
+
+
+/**
+ * Determines what [BuildNeighbors] writes.
+ */
+enum class NeighborsMode
+{
+    /**
+     * Each occurrence of a word with a context-word is written as a pair.
+     */
+    PAIRS,
+
+    /**
+     * Occurrences are counted (see [CooccurrenceCounter]), and each distinct word-context pair is written once, with its
+     * count. The output size grows with the number of distinct pairs, rather than with the corpus size.
+     */
+    COUNTS
+}
+
+
+/**
+ * Writes word-context pairs (given as word-IDs) into a neighbors file.
+ */
+interface NeighborsWriter : AutoCloseable
+{
+    /**
+     * Writes a single occurrence of a word with a context-word.
+     */
+    fun write(wordId: Int, contextWordId: Int)
+
+    /**
+     * Writes a word-context pair with the number of times it occurred.
+     */
+    fun write(wordId: Int, contextWordId: Int, count: Int)
+}
@@ -0,0 +1,39 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.ArgumentProvider
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * How the [PipelineMetrics] of a pipeline are reported.
+ *
+ * @param intervalSeconds the interval between reports. 0 means that only the final report is written.
+ * @param file the file to which the JSON lines are appended, or null for the standard output.
+ * @param jmx whether the metrics are also exposed as an MBean.
+ */
+data class PipelineMetricsOptions(
+        val intervalSeconds: Long = 10,
+        val file: File? = null,
+        val jmx: Boolean = false
+)
+{
+    /**
+     * Creates [PipelineMetrics] for the given pipeline, and starts reporting.
+     */
+    fun start(pipeline: String): PipelineMetrics = PipelineMetrics(pipeline).start(intervalSeconds * 1000, file, jmx)
+}
+
+/**
+ * Returns the [PipelineMetricsOptions] given as optional command-line arguments: --metrics-interval=seconds (default 10),
+ * --metrics-file=file of JSON lines (default: the standard output), --jmx=true to expose the metrics by JMX (default false).
+ */
+internal fun ArgumentProvider.pipelineMetricsOptions() = PipelineMetricsOptions(
+        intervalSeconds = option("metrics-interval", "10").toLong(),
+        file = option("metrics-file", "").let { if (it.isEmpty()) null else File(it) },
+        jmx = option("jmx", "false").toBoolean()
+)
@@ -0,0 +1,45 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.model.PairCounter
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Reports, for each given corpus, the number of pairs generated by [BuildNeighbors] with [SentenceEdges.SKIP] and with
+ * [SentenceEdges.CLIP], without writing any neighbors file.
+ * @param args number-of-words, window-size, number-of-stop-words (as for [BuildNeighbors]), followed by one or more
+ * directories, each containing the words.txt and sentences.txt (possibly compressed) files of a corpus (generated by [CorpusToTokensAndSentences]).
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val numberOfWords = arg.toInt()
+        val windowSize = arg.toInt()
+        val numberOfStopWords = arg.toInt()
+        val directories = remaining
+        if (directories.isEmpty()) { throw RuntimeException("No corpus directory was given.") }
+
+        val report = StringBuilder()
+        report.append("corpus\tsentences\tpairs (${SentenceEdges.SKIP})\tpairs (${SentenceEdges.CLIP})\tratio\n")
+        for (directory in directories)
+        {
+            val wordFile = File(directory, CorpusToTokensAndSentences.WORDS_FILE)
+            val sentenceFile = CorpusToTokensAndSentences.sentenceFileIn(File(directory))
+            val pairs = SentenceEdges.values().map { edges ->
+                val counter = PairCounter()
+                BuildNeighbors(wordFile, sentenceFile, numberOfWords, windowSize, numberOfStopWords, counter, NeighborsOptions(sentenceEdges = edges)).use { it.build() }
+                counter.count
+            }
+            val sentences = CompressedFiles.newReader(sentenceFile).useLines { it.count() }
+            val ratio = if (pairs[0] > 0) String.format("%.3f", pairs[1].toDouble() / pairs[0]) else "-"
+            report.append("$directory\t$sentences\t${pairs[0]}\t${pairs[1]}\t$ratio\n")
+        }
+        print(report)
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.StringIntHashMap
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Converts lines of sentences.txt into arrays of word-IDs.
+ *
+ * A line is split exactly like `line.split("\\s+".toRegex())`, but no string is created per token: each token is
+ * looked-up directly in the line by [StringIntHashMap.get]. Tokens that are not in the vocabulary get the ID 0 (the ID
+ * of [UNKNOWN]).
+ *
+ * The array [ids] is reused for all the lines, so it is valid only until the next call to [tokenize].
+ *
+ * @param vocabulary map from word to word-ID
+ */
+class SentenceTokenizer(private val vocabulary: StringIntHashMap)
+{
+    /**
+     * The word-IDs of the last tokenized line. Only the first [length] elements are valid.
+     */
+    var ids = IntArray(INITIAL_CAPACITY)
+        private set
+
+    /**
+     * The number of tokens in the last tokenized line.
+     */
+    var length = 0
+        private set
+
+    /**
+     * Tokenizes the given line into [ids], and returns the number of tokens.
+     */
+    fun tokenize(line: String): Int
+    {
+        length = 0
+        var begin = 0
+        var index = 0
+        val size = line.length
+        while (index < size)
+        {
+            if (isWhitespace(line[index]))
+            {
+                add(vocabulary.get(line, begin, index, 0))
+                while ( (index < size) && isWhitespace(line[index]) ) { ++index }
+                begin = index
+            }
+            else
+            {
+                ++index
+            }
+        }
+        add(vocabulary.get(line, begin, size, 0))
+        return length
+    }
+
+    private fun add(id: Int)
+    {
+        if (length == ids.size) { ids = ids.copyOf(2*ids.size) }
+        ids[length++] = id
+    }
+
+    /**
+     * The characters matched by "\s" in a regular expression.
+     */
+    private fun isWhitespace(c: Char): Boolean = (c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') || (c == '\u000C') || (c == '\r')
+
+    companion object
+    {
+        private const val INITIAL_CAPACITY = 256
+    }
+}
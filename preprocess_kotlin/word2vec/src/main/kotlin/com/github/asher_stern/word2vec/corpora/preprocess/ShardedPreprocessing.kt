@@ -0,0 +1,196 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.CompressedFiles.Compression
+import com.github.asher_stern.word2vec.utilities.FileShard
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Entry point for [ShardedPreprocessing].
+ * @param args corpus-path, output-directory, corpus-type ("REUTERS" or "BNC"), number-of-shards.
+ * Optional: --shards=comma-separated list of the shards to process (default all the shards),
+ * --merge=false to process shards without merging them (default true: merge if all the shards are complete),
+ * --concatenate=false to merge the counts only, leaving the sentences in the shard files (default true),
+ * and the options of [CorpusToTokensAndSentences]'s entry point (--threads, --order, --vocabulary-size,
+ * --maximum-distinct-words, --uima, --compression, and the metrics options --metrics-interval, --metrics-file, --jmx).
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val corpusPath = arg
+        val outputDirectory = File(arg)
+        val corpusType = CorpusType.valueOf(arg)
+        val numberOfShards = arg.toInt()
+        val shards = option("shards", "").split(',').filter { it.isNotBlank() }.map { it.trim().toInt() }
+        val merge = option("merge", "true").toBoolean()
+        val concatenate = option("concatenate", "true").toBoolean()
+
+        val preprocessing = ShardedPreprocessing(corpusPath, outputDirectory, corpusType, numberOfShards, preprocessingOptions())
+        preprocessing.process(if (shards.isEmpty()) (0 until numberOfShards).toList() else shards)
+        if (merge)
+        {
+            if (preprocessing.isComplete()) { preprocessing.merge(concatenate) }
+            else { println("Not all the shards are complete. Merge was skipped.") }
+        }
+    }
+}
+
+
+/**
+ * Runs [CorpusToTokensAndSentences] on a large corpus in shards, which can be processed separately (by several processes,
+ * possibly on several machines, sharing the output directory) and resumed after a failure.
+ *
+ * The files of the corpus are split into [numberOfShards] shards by their path relative to [corpusPath] (see [FileShard]).
+ * Processing shard *k* writes sentences-*k*.txt (compressed by [PreprocessingOptions.compression]) and
+ * word-counts-*k*.txt (the counts of all the words of the shard, one "word tab count" per line) into [outputDirectory],
+ * and then a checkpoint manifest shard-*k*.done. The files are written under temporary names and renamed when complete,
+ * so a shard that has a manifest is complete, and is skipped when processing is restarted. A shard which was interrupted
+ * is processed again from its beginning.
+ *
+ * When all the shards are complete, [merge] sums the word counts of all the shards into words.txt and counts.txt, and
+ * concatenates the sentences of all the shards, in the order of the shards, into sentences.txt. The result is the same as
+ * that of [CorpusToTokensAndSentences], except for the order of the sentences, and the order of words having exactly the
+ * same count.
+ *
+ * @param corpusPath root directory of the corpus
+ * @param outputDirectory the directory in which the files will be created.
+ * @param corpusType the corpus type.
+ * @param numberOfShards the number of shards. Must be the same in all the runs on the same output directory.
+ * @param options see [PreprocessingOptions].
+ */
+class ShardedPreprocessing(
+        private val corpusPath: String,
+        private val outputDirectory: File,
+        private val corpusType: CorpusType,
+        private val numberOfShards: Int,
+        private val options: PreprocessingOptions = PreprocessingOptions()
+)
+{
+    companion object
+    {
+        private const val TEMPORARY_PREFIX = "tmp-"
+        private const val NUMBER_OF_SHARDS_KEY = "numberOfShards"
+        private const val NUMBER_OF_WORDS_KEY = "numberOfWords"
+
+        fun sentenceFileName(shard: Int, compression: Compression = Compression.NONE) = "sentences-$shard.txt${compression.extension}"
+        fun wordCountFileName(shard: Int) = "word-counts-$shard.txt"
+        fun manifestFileName(shard: Int) = "shard-$shard.done"
+    }
+
+    /**
+     * Processes the given shards, skipping those that are already complete.
+     */
+    fun process(shards: List<Int>)
+    {
+        for (shard in shards)
+        {
+            if (isComplete(shard))
+            {
+                println("Shard $shard is already complete.")
+                continue
+            }
+            println("Processing shard $shard of $numberOfShards.")
+            process(shard)
+        }
+    }
+
+    /**
+     * Returns true if the given shard was completely processed.
+     */
+    fun isComplete(shard: Int): Boolean
+    {
+        val manifestFile = File(outputDirectory, manifestFileName(shard))
+        if (!manifestFile.exists()) { return false }
+        val manifest = readManifest(manifestFile)
+        if (manifest[NUMBER_OF_SHARDS_KEY] != numberOfShards.toString())
+        {
+            throw RuntimeException("Shard $shard in ${outputDirectory.absolutePath} was processed with ${manifest[NUMBER_OF_SHARDS_KEY]} shards, rather than $numberOfShards.")
+        }
+        return true
+    }
+
+    /**
+     * Returns true if all the shards were completely processed.
+     */
+    fun isComplete(): Boolean = (0 until numberOfShards).all { isComplete(it) }
+
+    /**
+     * Merges all the shards into words.txt, counts.txt and (if [concatenate] is true) sentences.txt.
+     */
+    fun merge(concatenate: Boolean = true)
+    {
+        val incomplete = (0 until numberOfShards).filter { !isComplete(it) }
+        if (incomplete.isNotEmpty()) { throw RuntimeException("Shards $incomplete are not complete.") }
+
+        val wordCount = CorpusToTokensAndSentences.createVocabularyCounter(options)
+        for (shard in 0 until numberOfShards)
+        {
+            File(outputDirectory, wordCountFileName(shard)).forEachLine { line ->
+                val separator = line.lastIndexOf('\t')
+                wordCount.add(line.substring(0, separator), line.substring(separator+1).toInt())
+            }
+        }
+        CorpusToTokensAndSentences.writeVocabulary(wordCount.mostCommon(options.vocabularySize), outputDirectory)
+
+        if (concatenate)
+        {
+            val sentenceFile = File(outputDirectory, CorpusToTokensAndSentences.SENTENCES_FILE + options.compression.extension)
+            val temporaryFile = File(outputDirectory, TEMPORARY_PREFIX + sentenceFile.name)
+            temporaryFile.outputStream().buffered().use { output ->
+                for (shard in 0 until numberOfShards)
+                {
+                    // Compressed streams can be concatenated as they are (see CompressedFiles).
+                    Files.copy(File(outputDirectory, sentenceFileName(shard, options.compression)).toPath(), output)
+                }
+            }
+            rename(temporaryFile, sentenceFile)
+        }
+    }
+
+
+    private fun process(shard: Int)
+    {
+        val sentenceFile = File(outputDirectory, sentenceFileName(shard, options.compression))
+        val wordCountFile = File(outputDirectory, wordCountFileName(shard))
+        val temporarySentenceFile = File(outputDirectory, TEMPORARY_PREFIX + sentenceFile.name)
+        val temporaryWordCountFile = File(outputDirectory, TEMPORARY_PREFIX + wordCountFile.name)
+
+        val fileShard = FileShard(File(corpusPath), shard, numberOfShards)
+        val wordCount = CorpusToTokensAndSentences(corpusPath, outputDirectory.path, corpusType, options, fileShard).writeSentences(temporarySentenceFile)
+        var numberOfWords = 0
+        temporaryWordCountFile.printWriter().use { writer ->
+            wordCount.forEach { word, count ->
+                writer.print(word)
+                writer.print('\t')
+                writer.println(count)
+                ++numberOfWords
+            }
+        }
+        rename(temporarySentenceFile, sentenceFile)
+        rename(temporaryWordCountFile, wordCountFile)
+
+        // The manifest is written last, so it exists only if the files of the shard are complete.
+        val manifestFile = File(outputDirectory, manifestFileName(shard))
+        val temporaryManifestFile = File(outputDirectory, TEMPORARY_PREFIX + manifestFile.name)
+        temporaryManifestFile.printWriter().use { writer ->
+            writer.println("$NUMBER_OF_SHARDS_KEY=$numberOfShards")
+            writer.println("$NUMBER_OF_WORDS_KEY=$numberOfWords")
+        }
+        rename(temporaryManifestFile, manifestFile)
+    }
+
+    private fun readManifest(manifestFile: File): Map<String, String> =
+            manifestFile.readLines().filter { it.contains('=') }.associate { it.substringBefore('=') to it.substringAfter('=') }
+
+    private fun rename(source: File, target: File)
+    {
+        Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+    }
+}
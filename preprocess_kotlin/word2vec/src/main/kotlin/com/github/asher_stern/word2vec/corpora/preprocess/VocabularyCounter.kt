@@ -0,0 +1,124 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import java.util.*
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Counts the occurrences of words, for selecting the most common words of a corpus.
+ */
+interface VocabularyCounter
+{
+    fun add(word: String, count: Int = 1)
+
+    /**
+     * Calls [block] with each counted word and its count.
+     */
+    fun forEach(block: (word: String, count: Int) -> Unit)
+
+    /**
+     * Adds all the counts of [other] into this counter.
+     */
+    fun addAll(other: VocabularyCounter)
+    {
+        other.forEach { word, count -> add(word, count) }
+    }
+
+    /**
+     * Returns the [number] most common words with their counts, sorted from most common to least common.
+     * Words with equal counts are ordered by the order in which they were first counted.
+     */
+    fun mostCommon(number: Int): List<Pair<String, Int>>
+}
+
+
+/**
+ * Counts all the distinct words exactly.
+ */
+open class ExactVocabularyCounter : VocabularyCounter
+{
+    override fun add(word: String, count: Int)
+    {
+        counts.put(word, counts.getOrDefault(word, 0) + count)
+    }
+
+    override fun forEach(block: (word: String, count: Int) -> Unit)
+    {
+        for ( (word, count) in counts)
+        {
+            block(word, count)
+        }
+    }
+
+    /**
+     * Selects the most common words by a bounded heap, rather than by sorting all the distinct words.
+     */
+    override fun mostCommon(number: Int): List<Pair<String, Int>>
+    {
+        if (number <= 0) { return emptyList() }
+        // The head of the heap is the "least common" selected word: the smallest count, and, among equal counts, the latest.
+        val heap = PriorityQueue<RankedWord>(number, compareBy<RankedWord> { it.count }.thenByDescending { it.index })
+        var index = 0
+        for ( (word, count) in counts)
+        {
+            if (heap.size < number)
+            {
+                heap.add(RankedWord(word, count, index))
+            }
+            else if (count > heap.peek().count)
+            {
+                heap.poll()
+                heap.add(RankedWord(word, count, index))
+            }
+            ++index
+        }
+        return heap.sortedWith(compareByDescending<RankedWord> { it.count }.thenBy { it.index }).map { it.word to it.count }
+    }
+
+    /**
+     * The number of distinct words currently counted.
+     */
+    val size: Int get() = counts.size
+
+
+    private class RankedWord(val word: String, val count: Int, val index: Int)
+
+    protected val counts = LinkedHashMap<String, Int>()
+}
+
+
+/**
+ * Counts words in bounded memory, like the original word2vec: whenever more than [maximumSize] distinct words are
+ * counted, all the words whose count is not larger than a threshold are removed, and the threshold is incremented.
+ *
+ * Rare words are under-counted (or dropped), so the result is approximate. However, words that are common enough to be
+ * among the most common words of a large corpus are practically never affected.
+ *
+ * @param maximumSize the maximum number of distinct words kept in memory.
+ */
+class PruningVocabularyCounter(private val maximumSize: Int) : ExactVocabularyCounter()
+{
+    override fun add(word: String, count: Int)
+    {
+        super.add(word, count)
+        if (counts.size > maximumSize)
+        {
+            prune()
+        }
+    }
+
+    private fun prune()
+    {
+        while (counts.size > maximumSize)
+        {
+            val threshold = minimumCount
+            counts.values.removeIf { it <= threshold }
+            ++minimumCount
+        }
+    }
+
+    private var minimumCount = 1
+}
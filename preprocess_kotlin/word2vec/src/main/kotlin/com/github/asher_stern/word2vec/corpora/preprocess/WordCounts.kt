@@ -0,0 +1,28 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Returns the counts.txt file generated by [CorpusToTokensAndSentences] together with the given words.txt file.
+ */
+fun countFileOf(wordFile: File): File = File(wordFile.absoluteFile.parentFile, CorpusToTokensAndSentences.COUNTS_FILE)
+
+/**
+ * Loads counts.txt, and returns the number of occurrences of each word by its word-ID: the count in line *N* is the count
+ * of word-ID *N* (the word in line *N* of words.txt), and the count of [UNKNOWN] (word-ID 0) is 0.
+ * At most [numberOfWords] counts are read.
+ */
+fun loadWordCounts(countFile: File, numberOfWords: Int): LongArray
+{
+    if (!countFile.exists()) { throw RuntimeException("Word counts file does not exist: ${countFile.absolutePath}") }
+    val counts = mutableListOf(0L)
+    countFile.useLines { lines ->
+        lines.take(numberOfWords).mapTo(counts) { it.trim().toLong() }
+    }
+    return counts.toLongArray()
+}
@@ -0,0 +1,97 @@
+package com.github.asher_stern.word2vec.model
+
+import com.github.asher_stern.word2vec.corpora.preprocess.openNeighbors
+import java.io.File
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Trains a [SkipGramModel] on a neighbors file by several threads, in the "Hogwild" style: the file is split by byte
+ * offsets into [numberOfThreads] parts (see [openNeighbors]), and each thread trains on its own part by its own
+ * [SkipGramTrainer], updating the shared matrices of [model] without any lock.
+ *
+ * Concurrent updates of the same row may overwrite each other. Since each pair touches only a few rows of a large matrix,
+ * such collisions are rare, and, as in the original word2vec, they do not hurt the quality of the vectors in practice.
+ *
+ * All the trainers share a single progress counter, so the learning rate decays linearly along the total progress of
+ * all the threads, like in a single-threaded training.
+ */
+class HogwildTrainer(
+        private val model: SkipGramModel,
+        private val sampler: NegativeSampler,
+        private val numberOfThreads: Int,
+        private val negativeExamples: Int = SkipGramTrainer.DEFAULT_NEGATIVE_EXAMPLES,
+        private val initialLearningRate: Float = SkipGramTrainer.DEFAULT_LEARNING_RATE,
+        private val seed: Long = 1
+)
+{
+    /**
+     * If not null, given to the trainers of all the threads (see [SkipGramTrainer.progressListener]), so it is called by
+     * any of them.
+     */
+    var progressListener: ((Long, Float) -> Unit)? = null
+
+    /**
+     * Trains on all the pairs of the given neighbors file, [epochs] times.
+     */
+    fun train(neighborsFile: File, epochs: Int)
+    {
+        var numberOfPairs = 0L
+        openNeighbors(neighborsFile).use { cursor ->
+            while (cursor.next()) { numberOfPairs += cursor.count }
+        }
+        println("Training on $numberOfPairs pairs, $epochs epochs, $numberOfThreads threads.")
+
+        val progress = AtomicLong()
+        val trainers = (0 until numberOfThreads).map { thread ->
+            SkipGramTrainer(model, sampler, negativeExamples, initialLearningRate, seed + thread, progress).apply {
+                totalSteps = numberOfPairs * epochs
+                progressListener = this@HogwildTrainer.progressListener
+            }
+        }
+
+        val executor = Executors.newFixedThreadPool(numberOfThreads)
+        try
+        {
+            for (epoch in 1..epochs)
+            {
+                val epochStart = System.nanoTime()
+                val tasks = trainers.mapIndexed { thread, trainer ->
+                    executor.submit(Callable<String> {
+                        val stepsBefore = trainer.steps
+                        val start = System.nanoTime()
+                        openNeighbors(neighborsFile, thread, numberOfThreads).use { cursor -> trainer.train(cursor) }
+                        val pairs = trainer.steps - stepsBefore
+                        "Thread $thread: $pairs pairs, ${pairsPerSecond(pairs, System.nanoTime() - start)} pairs/sec."
+                    })
+                }
+                for (task in tasks)
+                {
+                    try
+                    {
+                        println(task.get())
+                    }
+                    catch (e: ExecutionException)
+                    {
+                        throw RuntimeException("Training thread failed.", e.cause)
+                    }
+                }
+                println("Epoch $epoch done: ${pairsPerSecond(numberOfPairs, System.nanoTime() - epochStart)} pairs/sec. Learning rate = ${trainers[0].learningRate}")
+            }
+        }
+        finally
+        {
+            executor.shutdownNow()
+        }
+    }
+
+
+    private fun pairsPerSecond(pairs: Long, nanoseconds: Long): Long = if (nanoseconds > 0) (pairs * 1000000000.0 / nanoseconds).toLong() else 0L
+}
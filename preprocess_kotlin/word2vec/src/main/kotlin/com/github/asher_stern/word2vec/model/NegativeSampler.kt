@@ -0,0 +1,110 @@
+package com.github.asher_stern.word2vec.model
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Draws the word-IDs of negative examples for [SkipGramTrainer].
+ * Implementations must be thread-safe, and should not allocate objects.
+ */
+interface NegativeSampler
+{
+    /**
+     * Returns a word-ID, given random bits (a value of [nextRandom]).
+     */
+    fun sample(random: Long): Int
+}
+
+
+/**
+ * Draws word-IDs uniformly from [firstWordId]..[lastWordId], like model_python/word2vec.py.
+ */
+class UniformNegativeSampler(private val firstWordId: Int, private val lastWordId: Int) : NegativeSampler
+{
+    override fun sample(random: Long): Int = firstWordId + ((random ushr 16) % (lastWordId - firstWordId + 1)).toInt()
+}
+
+
+/**
+ * Draws word-IDs from [firstWordId]..[lastWordId] by the unigram distribution raised to [power], like the original word2vec:
+ * the probability of a word-ID is proportional to its count to the power of 0.75 (by default).
+ *
+ * Sampling takes a constant time, by an alias table (Vose's method): the range is divided into columns of equal probability,
+ * one per word-ID, and each column is shared by its own word-ID and at most one other word-ID (its alias). A sample picks a
+ * column, and then either the column's word-ID or its alias.
+ *
+ * The random bits given to [sample] (a value of [nextRandom]) are mixed first, by the finalizer of SplitMix64, since the
+ * low bits of a linear congruential generator are weak. The column is taken from the high half of the mixed bits, and the
+ * choice between the word-ID and its alias from the low half.
+ *
+ * @param counts the number of occurrences of each word-ID (see [com.github.asher_stern.word2vec.corpora.preprocess.loadWordCounts])
+ */
+class AliasNegativeSampler(
+        counts: LongArray,
+        private val firstWordId: Int,
+        lastWordId: Int,
+        power: Double = DEFAULT_POWER
+) : NegativeSampler
+{
+    companion object
+    {
+        const val DEFAULT_POWER = 0.75
+
+        private const val THRESHOLD_SCALE = (1L shl 32).toDouble()
+    }
+
+    override fun sample(random: Long): Int
+    {
+        var bits = random
+        bits = (bits xor (bits ushr 30)) * -4658895280553007687L
+        bits = (bits xor (bits ushr 27)) * -7723592293110705685L
+        bits = bits xor (bits ushr 31)
+
+        val column = ((bits ushr 32) * numberOfColumns ushr 32).toInt()
+        return if ((bits and 0xFFFFFFFFL) < thresholds[column]) firstWordId + column else aliases[column]
+    }
+
+
+    private val numberOfColumns = (lastWordId - firstWordId + 1).toLong()
+
+    /**
+     * For each column, the probability (scaled to 2^32) of its own word-ID rather than its alias.
+     */
+    private val thresholds = LongArray(numberOfColumns.toInt())
+
+    private val aliases = IntArray(numberOfColumns.toInt())
+
+    init
+    {
+        if (numberOfColumns <= 0) { throw RuntimeException("Empty range of word-IDs: $firstWordId..$lastWordId") }
+        val size = numberOfColumns.toInt()
+        val weights = DoubleArray(size) { Math.pow(counts[firstWordId + it].toDouble(), power) }
+        val sum = weights.sum()
+        if (sum <= 0.0) { throw RuntimeException("All the counts of word-IDs $firstWordId..$lastWordId are 0.") }
+
+        // Each column holds a probability of 1, in units of 1/size.
+        val probabilities = DoubleArray(size) { weights[it] * size / sum }
+        val small = IntArray(size)
+        val large = IntArray(size)
+        var smallSize = 0
+        var largeSize = 0
+        for (index in 0 until size)
+        {
+            if (probabilities[index] < 1.0) { small[smallSize++] = index } else { large[largeSize++] = index }
+        }
+        while ( (smallSize > 0) && (largeSize > 0) )
+        {
+            val less = small[--smallSize]
+            val more = large[--largeSize]
+            thresholds[less] = (probabilities[less] * THRESHOLD_SCALE).toLong()
+            aliases[less] = firstWordId + more
+            probabilities[more] -= 1.0 - probabilities[less]
+            if (probabilities[more] < 1.0) { small[smallSize++] = more } else { large[largeSize++] = more }
+        }
+        // The remaining columns are full (up to rounding errors).
+        while (largeSize > 0) { thresholds[large[--largeSize]] = THRESHOLD_SCALE.toLong() }
+        while (smallSize > 0) { thresholds[small[--smallSize]] = THRESHOLD_SCALE.toLong() }
+    }
+}
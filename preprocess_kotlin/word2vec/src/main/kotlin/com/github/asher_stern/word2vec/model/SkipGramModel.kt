@@ -0,0 +1,70 @@
+package com.github.asher_stern.word2vec.model
+
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * The parameters of a skip-gram model: a vector and a context-vector for each word-ID in 0..[vocabularySize].
+ *
+ * Both matrices are flat, row-major arrays: the vector of word-ID *w* is `vectors[w*dimension until (w+1)*dimension]`.
+ * The vectors are initialized randomly (uniformly in [-0.5/dimension, 0.5/dimension]), and the context-vectors are
+ * initialized to zeros, like the original word2vec.
+ *
+ * Word-IDs are those of words.txt (see [com.github.asher_stern.word2vec.corpora.preprocess.BuildNeighbors]). Rows of
+ * stop-words and of the unknown word (ID 0) are allocated, but never trained.
+ *
+ * @param vocabularySize the largest word-ID
+ * @param dimension the size of each vector
+ */
+class SkipGramModel(val vocabularySize: Int, val dimension: Int, seed: Long = 1)
+{
+    val vectors = FloatArray((vocabularySize+1)*dimension)
+    val contexts = FloatArray((vocabularySize+1)*dimension)
+
+    /**
+     * Writes the vectors of the given word-IDs in the text format of the original word2vec: a line with the number of
+     * words and the dimension, then a line per word: the word, followed by its vector.
+     * @param words the word of each word-ID
+     * @param firstWordId the first word-ID to be written. Word-IDs [firstWordId]..[vocabularySize] are written.
+     */
+    fun saveText(file: File, words: List<String>, firstWordId: Int)
+    {
+        file.bufferedWriter().use { writer ->
+            writer.write("${vocabularySize-firstWordId+1} $dimension\n")
+            val line = StringBuilder()
+            for (wordId in firstWordId..vocabularySize)
+            {
+                line.setLength(0)
+                line.append(words[wordId])
+                val offset = wordId*dimension
+                for (index in offset until offset+dimension)
+                {
+                    line.append(' ').append(vectors[index])
+                }
+                line.append('\n')
+                writer.write(line.toString())
+            }
+        }
+    }
+
+
+    init
+    {
+        var random = seed
+        for (index in vectors.indices)
+        {
+            random = nextRandom(random)
+            vectors[index] = (((random and 0xFFFF).toFloat() / 65536f) - 0.5f) / dimension
+        }
+    }
+}
+
+
+/**
+ * The linear congruential generator of the original word2vec. Used in inner loops, where no object should be allocated.
+ */
+internal fun nextRandom(random: Long): Long = random * 25214903917L + 11
@@ -0,0 +1,352 @@
+package com.github.asher_stern.word2vec.model
+
+import com.github.asher_stern.word2vec.corpora.preprocess.BuildNeighbors
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsCursor
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsOptions
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsWriter
+import com.github.asher_stern.word2vec.corpora.preprocess.SentenceEdges
+import com.github.asher_stern.word2vec.corpora.preprocess.UNKNOWN
+import com.github.asher_stern.word2vec.corpora.preprocess.countFileOf
+import com.github.asher_stern.word2vec.corpora.preprocess.loadWordCounts
+import com.github.asher_stern.word2vec.corpora.preprocess.openNeighbors
+import com.github.asher_stern.word2vec.utilities.VectorKernels
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.util.*
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Entry point for training word vectors by [SkipGramTrainer].
+ * @param args word-file (words.txt), input-file, number-of-words, number-of-stop-words, output-file (the word vectors, in
+ * the text format of the original word2vec).
+ * The input-file is either a neighbors file generated by [BuildNeighbors] (text or binary, with or without counts), or,
+ * with --input=SENTENCES, sentences.txt, from which the pairs are generated while training (so no neighbors file is needed).
+ * Optional: --input=NEIGHBORS or SENTENCES (default NEIGHBORS), --window=window size for SENTENCES input (default 2),
+ * --dimension=vector size (default 100), --negative=number of negative examples (default 5),
+ * --learning-rate=initial learning rate (default 0.025), --epochs=number of passes over the input (default 1),
+ * --seed=random seed (default 1), --threads=number of training threads for NEIGHBORS input (default 1, see [HogwildTrainer]),
+ * --sampler=UNIGRAM or UNIFORM: the distribution of negative examples (default UNIGRAM if counts.txt exists next to the
+ * word-file, otherwise UNIFORM. See [NegativeSampling]), and, for SENTENCES input, --subsampling, --dynamic-window and
+ * --edges (see [NeighborsOptions]). With SENTENCES input, each epoch draws its own subsample and windows (see
+ * [epochNeighborsOptions]), so the number of pairs counted before training is only an estimate of the pairs of each epoch.
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val wordFile = File(arg)
+        val inputFile = File(arg)
+        val numberOfWords = arg.toInt()
+        val numberOfStopWords = arg.toInt()
+        val outputFile = File(arg)
+        val input = TrainingInput.valueOf(option("input", TrainingInput.NEIGHBORS.name))
+        val windowSize = option("window", "2").toInt()
+        val dimension = option("dimension", SkipGramTrainer.DEFAULT_DIMENSION.toString()).toInt()
+        val negativeExamples = option("negative", SkipGramTrainer.DEFAULT_NEGATIVE_EXAMPLES.toString()).toInt()
+        val learningRate = option("learning-rate", SkipGramTrainer.DEFAULT_LEARNING_RATE.toString()).toFloat()
+        val epochs = option("epochs", "1").toInt()
+        val seed = option("seed", "1").toLong()
+        val neighborsOptions = NeighborsOptions(
+                subsamplingThreshold = option("subsampling", "0").toDouble(),
+                dynamicWindow = option("dynamic-window", "false").toBoolean(),
+                seed = seed,
+                sentenceEdges = SentenceEdges.valueOf(option("edges", SentenceEdges.SKIP.name))
+        )
+        val numberOfThreads = option("threads", "1").toInt()
+        val countFile = countFileOf(wordFile)
+        val negativeSampling = NegativeSampling.valueOf(option("sampler", (if (countFile.exists()) NegativeSampling.UNIGRAM else NegativeSampling.UNIFORM).name))
+
+        val words = loadWordList(wordFile, numberOfWords)
+        val vocabularySize = words.size - 1
+        val model = SkipGramModel(vocabularySize, dimension, seed)
+        val sampler = when (negativeSampling)
+        {
+            NegativeSampling.UNIFORM -> UniformNegativeSampler(numberOfStopWords+1, vocabularySize)
+            NegativeSampling.UNIGRAM -> AliasNegativeSampler(loadWordCounts(countFile, vocabularySize), numberOfStopWords+1, vocabularySize)
+        }
+        if ( (input == TrainingInput.NEIGHBORS) && (numberOfThreads > 1) )
+        {
+            HogwildTrainer(model, sampler, numberOfThreads, negativeExamples, learningRate, seed).apply { progressListener = ::printProgress }.train(inputFile, epochs)
+            model.saveText(outputFile, words, numberOfStopWords+1)
+            return@_provide
+        }
+
+        val trainer = SkipGramTrainer(model, sampler, negativeExamples, learningRate, seed)
+        trainer.progressListener = ::printProgress
+
+        // Passes over the input in the given epoch, with the given writer as the consumer of the pairs.
+        val pass = { writer: NeighborsWriter, epoch: Int ->
+            when (input)
+            {
+                TrainingInput.NEIGHBORS -> openNeighbors(inputFile).use { cursor -> trainer.train(cursor, writer) }
+                TrainingInput.SENTENCES -> BuildNeighbors(wordFile, inputFile, vocabularySize, windowSize, numberOfStopWords, writer,
+                        epochNeighborsOptions(neighborsOptions, epoch)).build()
+            }
+        }
+        val counter = PairCounter()
+        pass(counter, 1)
+        trainer.totalSteps = counter.count * epochs
+        println("Training on ${counter.count} pairs, $epochs epochs.")
+
+        for (epoch in 1..epochs)
+        {
+            pass(trainer, epoch)
+            println("Epoch $epoch done. Learning rate = ${trainer.learningRate}")
+        }
+        model.saveText(outputFile, words, numberOfStopWords+1)
+    }
+}
+
+
+private fun printProgress(steps: Long, learningRate: Float)
+{
+    println("$steps steps. Learning rate = $learningRate")
+}
+
+
+/**
+ * Returns the options of [BuildNeighbors] for the given epoch (starting at 1) of training on sentences: the seed is
+ * shifted by the epoch, so, like in the original word2vec, every epoch discards other occurrences of frequent words and
+ * shrinks the windows differently, rather than training again on the same sample.
+ */
+fun epochNeighborsOptions(options: NeighborsOptions, epoch: Int): NeighborsOptions = options.copy(seed = options.seed + epoch - 1)
+
+
+/**
+ * The input of [SkipGramTrainer]'s entry point.
+ */
+enum class TrainingInput
+{
+    /**
+     * A neighbors file generated by [BuildNeighbors].
+     */
+    NEIGHBORS,
+
+    /**
+     * sentences.txt, from which [BuildNeighbors] generates the pairs in memory.
+     */
+    SENTENCES
+}
+
+
+/**
+ * The distribution of negative examples, in [SkipGramTrainer]'s entry point.
+ */
+enum class NegativeSampling
+{
+    /**
+     * All the words are equally likely (see [UniformNegativeSampler]).
+     */
+    UNIFORM,
+
+    /**
+     * By the unigram distribution raised to 0.75, based on counts.txt (see [AliasNegativeSampler]).
+     */
+    UNIGRAM
+}
+
+
+/**
+ * Trains a [SkipGramModel] by skip-gram with negative sampling (SGNS), one word-context pair at a time, like the original
+ * word2vec: for each pair, the vector of the word is moved towards the context-vector of the context-word, and away from
+ * the context-vectors of [negativeExamples] words drawn by [sampler].
+ *
+ * The pairs are given by [train], either one by one, as arrays of word-IDs, or from a [NeighborsCursor]. This class is
+ * also a [NeighborsWriter], so it can be the output of [BuildNeighbors], and train on the pairs as they are generated.
+ *
+ * The learning rate decreases linearly from [initialLearningRate] towards 0, along [totalSteps] steps. If [totalSteps]
+ * is 0, the learning rate does not change. The steps are counted in [progress], which may be shared by several trainers
+ * that train the same model in parallel (see [HogwildTrainer]), so the learning rate follows the progress of all of them.
+ *
+ * The inner loop allocates no objects: the matrices are flat float arrays, the sigmoid is looked up in a precomputed
+ * table, and random numbers are generated by a linear congruential generator held in a primitive field.
+ *
+ * This class is not thread-safe.
+ *
+ * @param progress the number of steps done by all the trainers of [model]. Updated every [LEARNING_RATE_UPDATE_INTERVAL] steps.
+ */
+class SkipGramTrainer(
+        private val model: SkipGramModel,
+        private val sampler: NegativeSampler,
+        private val negativeExamples: Int = DEFAULT_NEGATIVE_EXAMPLES,
+        private val initialLearningRate: Float = DEFAULT_LEARNING_RATE,
+        seed: Long = 1,
+        private val progress: AtomicLong = AtomicLong()
+) : NeighborsWriter
+{
+    companion object
+    {
+        const val DEFAULT_DIMENSION = 100
+        const val DEFAULT_NEGATIVE_EXAMPLES = 5
+        const val DEFAULT_LEARNING_RATE = 0.025f
+
+        const val LEARNING_RATE_UPDATE_INTERVAL = 10000L
+
+        private const val MINIMUM_LEARNING_RATE_FRACTION = 0.0001f
+        private const val PROGRESS_INTERVAL = 1000000L
+
+        private const val MAX_EXP = 6f
+        private const val SIGMOID_TABLE_SIZE = 1000
+        private val SIGMOID_TABLE = FloatArray(SIGMOID_TABLE_SIZE) {
+            val exp = Math.exp(((it.toDouble() / SIGMOID_TABLE_SIZE) * 2 - 1) * MAX_EXP)
+            (exp / (exp + 1)).toFloat()
+        }
+    }
+
+    /**
+     * The expected total number of training steps (pairs), for the learning rate decay. 0 means a constant learning rate.
+     */
+    var totalSteps = 0L
+
+    /**
+     * The number of training steps done so far by this trainer.
+     */
+    var steps = 0L
+        private set
+
+    /**
+     * The current learning rate.
+     */
+    var learningRate = initialLearningRate
+        private set
+
+    /**
+     * If not null, called every [PROGRESS_INTERVAL] steps of all the trainers that share [progress], with the number of
+     * these steps and the current learning rate. By default, the progress is not reported.
+     */
+    var progressListener: ((Long, Float) -> Unit)? = null
+
+    /**
+     * Trains on a single word-context pair.
+     */
+    fun train(wordId: Int, contextWordId: Int)
+    {
+        val dimension = model.dimension
+        val vectors = model.vectors
+        val contexts = model.contexts
+        val wordOffset = wordId*dimension
+        val alpha = learningRate
+        Arrays.fill(gradient, 0f)
+
+        for (example in 0..negativeExamples)
+        {
+            val target: Int
+            val label: Float
+            if (example == 0)
+            {
+                target = contextWordId
+                label = 1f
+            }
+            else
+            {
+                random = nextRandom(random)
+                target = sampler.sample(random)
+                if (target == contextWordId) { continue }
+                label = 0f
+            }
+
+            val contextOffset = target*dimension
+            val dot = kernels.dot(vectors, wordOffset, contexts, contextOffset, dimension)
+            val g = (label - sigmoid(dot)) * alpha
+            kernels.axpy(g, contexts, contextOffset, gradient, 0, dimension)
+            kernels.axpy(g, vectors, wordOffset, contexts, contextOffset, dimension)
+        }
+
+        kernels.axpy(1f, gradient, 0, vectors, wordOffset, dimension)
+
+        ++steps
+        if (0L == (steps % LEARNING_RATE_UPDATE_INTERVAL)) { updateLearningRate() }
+    }
+
+    /**
+     * Trains on the pairs (wordIds[i], contextWordIds[i]) for i in 0 until [length].
+     */
+    fun train(wordIds: IntArray, contextWordIds: IntArray, length: Int = wordIds.size)
+    {
+        for (index in 0 until length)
+        {
+            train(wordIds[index], contextWordIds[index])
+        }
+    }
+
+    /**
+     * Gives all the pairs of the cursor to [writer] (by default, trains on them). A pair with a count is given [NeighborsCursor.count] times.
+     */
+    fun train(cursor: NeighborsCursor, writer: NeighborsWriter = this)
+    {
+        while (cursor.next())
+        {
+            writer.write(cursor.wordId, cursor.contextWordId, cursor.count)
+        }
+    }
+
+    override fun write(wordId: Int, contextWordId: Int)
+    {
+        train(wordId, contextWordId)
+    }
+
+    override fun write(wordId: Int, contextWordId: Int, count: Int)
+    {
+        for (occurrence in 0 until count)
+        {
+            train(wordId, contextWordId)
+        }
+    }
+
+    override fun close() {}
+
+
+    private fun sigmoid(x: Float): Float = when
+    {
+        x >= MAX_EXP -> 1f
+        x <= -MAX_EXP -> 0f
+        else -> SIGMOID_TABLE[((x + MAX_EXP) * (SIGMOID_TABLE_SIZE / MAX_EXP / 2)).toInt()]
+    }
+
+    private fun updateLearningRate()
+    {
+        val allSteps = progress.addAndGet(LEARNING_RATE_UPDATE_INTERVAL)
+        if (totalSteps > 0)
+        {
+            learningRate = Math.max(initialLearningRate * (1f - allSteps.toFloat() / (totalSteps + 1)), initialLearningRate * MINIMUM_LEARNING_RATE_FRACTION)
+        }
+        if (0L == (allSteps % PROGRESS_INTERVAL)) { progressListener?.invoke(allSteps, learningRate) }
+    }
+
+
+    private val gradient = FloatArray(model.dimension)
+    private val kernels = VectorKernels.get()
+    private var random = seed
+}
+
+
+/**
+ * A [NeighborsWriter] which only counts the pairs.
+ */
+class PairCounter : NeighborsWriter
+{
+    var count = 0L
+        private set
+
+    override fun write(wordId: Int, contextWordId: Int) { ++count }
+    override fun write(wordId: Int, contextWordId: Int, count: Int) { this.count += count }
+    override fun close() {}
+}
+
+
+/**
+ * Returns the words of words.txt by their word-IDs: [UNKNOWN] is word-ID 0, and the word in line *N* has word-ID *N*.
+ * At most [numberOfWords] words are read.
+ */
+fun loadWordList(wordFile: File, numberOfWords: Int): List<String>
+{
+    val ret = mutableListOf(UNKNOWN)
+    wordFile.useLines { lines ->
+        ret.addAll(lines.take(numberOfWords))
+    }
+    return ret
+}
@@ -10,6 +10,9 @@ package com.github.asher_stern.word2vec.utilities
  * Assuming "args" is the parameter for "main" function, call args._provide { } on it, and each call to "arg" would return
  * the next argument.
  *
+ * Optional arguments are given as "--name=value", anywhere in the command line. They are not returned by "arg", but
+ * by "option(name, default)".
+ *
  */
 fun Array<String>._provide(block: ArgumentProvider.()->Unit)
 {
@@ -19,7 +22,7 @@ fun Array<String>._provide(block: ArgumentProvider.()->Unit)
 /**
  * Used by [_provide], to get the next argument at each call to the property [arg]
  */
-class ArgumentProvider(private val args: Array<String>)
+class ArgumentProvider(allArgs: Array<String>)
 {
     val arg: String
         get() = if (index>=args.size) throw RuntimeException("Some command-line-arguments are missing.") else args[index++]
@@ -27,6 +30,20 @@ class ArgumentProvider(private val args: Array<String>)
     val again: String
         get() = args[index-1]
 
+    /**
+     * All the remaining arguments (which were not returned yet by "arg").
+     */
+    val remaining: List<String>
+        get() = args.drop(index).also { index = args.size }
+
+    /**
+     * Returns the value of the optional argument "--[name]=value", or [default] if it was not given.
+     */
+    fun option(name: String, default: String): String = options.getOrDefault(name, default)
+
+    private val args = allArgs.filter { !isOption(it) }.toTypedArray()
+    private val options = allArgs.filter { isOption(it) }.map { it.substring(2).substringBefore('=') to it.substringAfter('=') }.toMap()
     private var index = 0
 }
 
+private fun isOption(argument: String): Boolean = argument.startsWith("--") && argument.contains('=')
@@ -0,0 +1,496 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities.Float16
+import com.github.asher_stern.word2vec.utilities.FloatKernels
+import com.github.asher_stern.word2vec.utilities.QuantizedKernels
+import com.github.asher_stern.word2vec.utilities.TopK
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.FloatBuffer
+import java.nio.MappedByteBuffer
+import java.nio.ShortBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Entry point for converting between an [EmbeddingStore] and the file formats of the original word2vec.
+ * @param args IMPORT or EXPORT (see [EmbeddingConversion]), input file, output file.
+ * Optional: --format=TEXT or BINARY, the format of the word2vec file (default TEXT, see [VectorsFormat]),
+ * --precision=FLOAT32, FLOAT16 or INT8, the precision of the imported store (default FLOAT32).
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val conversion = EmbeddingConversion.valueOf(arg)
+        val inputFile = File(arg)
+        val outputFile = File(arg)
+        val format = VectorsFormat.valueOf(option("format", VectorsFormat.TEXT.name))
+        val precision = EmbeddingPrecision.valueOf(option("precision", EmbeddingPrecision.FLOAT32.name))
+        when (conversion)
+        {
+            EmbeddingConversion.IMPORT -> EmbeddingStore.import(inputFile, format, outputFile, precision)
+            EmbeddingConversion.EXPORT -> EmbeddingStore(inputFile).use { it.export(outputFile, format) }
+        }
+    }
+}
+
+
+enum class EmbeddingConversion
+{
+    /**
+     * From a word2vec file to an embedding store.
+     */
+    IMPORT,
+
+    /**
+     * From an embedding store to a word2vec file.
+     */
+    EXPORT
+}
+
+
+/**
+ * The precision of the vectors of an [EmbeddingStore].
+ * @param bytes the size of each element of a vector.
+ */
+enum class EmbeddingPrecision(val bytes: Int)
+{
+    FLOAT32(4),
+
+    /**
+     * IEEE half precision (see [Float16]): half the size, with a relative error of up to 2^-11 (and values larger
+     * than 65504 in absolute value are not supported).
+     */
+    FLOAT16(2),
+
+    /**
+     * Per-row scaled int8: each row is stored as int8 values and a float32 scale (the largest absolute value of the
+     * row divided by 127), so the error of each value is up to half the scale. About a quarter of the size of [FLOAT32].
+     */
+    INT8(1)
+}
+
+
+/**
+ * Word vectors, stored on disk and memory-mapped. Opening a store reads only its header, so it takes milliseconds even
+ * for a multi-GB store, and several processes that open the same store share its pages in the page cache.
+ * [vector] returns the vector of a word as a slice of the mapped file, without copying it.
+ *
+ * The vectors may be stored in lower precision (see [EmbeddingPrecision]), so several models fit in memory together.
+ * Similarities ([dot], [cosine], [squaredDistance], and the exact nearest-words scan of [query]) are computed directly
+ * on the stored values, in any precision (see [QuantizedKernels]), without converting the rows into temporary arrays.
+ *
+ * Write a store by [EmbeddingStore.write] (from [WordVectors]) or by [EmbeddingStore.import] (from a file in a
+ * [VectorsFormat]), then open it with the constructor. This class is thread-safe.
+ *
+ * The store file is little-endian: a header of [HEADER_SIZE] bytes (magic "W2VE", version, precision, dimension, number
+ * of words, and the position of the word offsets), padded to [VECTORS_POSITION]; then the vectors, a row per word; then,
+ * for [EmbeddingPrecision.INT8], the scale of each row (floats, aligned to 4 bytes); then the offset of each word in the
+ * words (number-of-words + 1 longs, aligned to 8 bytes); then the words, UTF-8, a word per line, like words.txt.
+ */
+class EmbeddingStore(storeFile: File) : AutoCloseable
+{
+    companion object
+    {
+        const val MAGIC = 0x45563257 // "W2VE" in little-endian
+        const val VERSION = 1
+        const val HEADER_SIZE = 32
+        const val VECTORS_POSITION = 64
+
+        /**
+         * Writes the given vectors into a store.
+         */
+        fun write(vectors: WordVectors, storeFile: File, precision: EmbeddingPrecision = EmbeddingPrecision.FLOAT32)
+        {
+            write(storeFile, precision, vectors.size, vectors.dimension) { row, vector ->
+                System.arraycopy(vectors.matrix, row*vectors.dimension, vector, 0, vectors.dimension)
+                vectors.words[row]
+            }
+        }
+
+        /**
+         * Writes a store from a file in a format of the original word2vec, reading it word by word.
+         */
+        fun import(vectorsFile: File, format: VectorsFormat, storeFile: File, precision: EmbeddingPrecision = EmbeddingPrecision.FLOAT32)
+        {
+            VectorsReader(vectorsFile, format).use { reader ->
+                write(storeFile, precision, reader.numberOfWords, reader.dimension) { _, vector -> reader.next(vector) }
+            }
+        }
+
+        /**
+         * Writes a store, row by row.
+         * @param row copies the vector of the given row into the given array, and returns the word of that row.
+         */
+        fun write(storeFile: File, precision: EmbeddingPrecision, numberOfWords: Int, dimension: Int, row: (Int, FloatArray) -> String)
+        {
+            val wordBytes = ArrayList<ByteArray>(numberOfWords)
+            RandomAccessFile(storeFile, "rw").use { file ->
+                file.setLength(0)
+                val channel = file.channel
+                val buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                channel.position(VECTORS_POSITION.toLong())
+                val vector = FloatArray(dimension)
+                val quantized = ByteArray(dimension)
+                val scales = FloatArray(if (precision == EmbeddingPrecision.INT8) numberOfWords else 0)
+                for (index in 0 until numberOfWords)
+                {
+                    val word = row(index, vector)
+                    if (word.contains('\n')) { throw RuntimeException("Word $index contains a newline.") }
+                    wordBytes.add(word.toByteArray(Charsets.UTF_8))
+                    if (precision == EmbeddingPrecision.INT8)
+                    {
+                        scales[index] = QuantizedKernels.quantize(vector, 0, dimension, quantized, 0)
+                        if (buffer.remaining() < dimension) { flush(buffer, channel) }
+                        if (buffer.remaining() < dimension) { channel.write(ByteBuffer.wrap(quantized)) } else { buffer.put(quantized) }
+                        continue
+                    }
+                    for (value in vector)
+                    {
+                        if (buffer.remaining() < 4) { flush(buffer, channel) }
+                        if (precision == EmbeddingPrecision.FLOAT32) { buffer.putFloat(value) } else { buffer.putShort(Float16.fromFloat(value)) }
+                    }
+                }
+                flush(buffer, channel)
+                if (precision == EmbeddingPrecision.INT8)
+                {
+                    while (channel.position() % 4 != 0L) { channel.write(ByteBuffer.wrap(ByteArray(1))) }
+                    for (scale in scales)
+                    {
+                        if (buffer.remaining() < 4) { flush(buffer, channel) }
+                        buffer.putFloat(scale)
+                    }
+                    flush(buffer, channel)
+                }
+                // The offsets are aligned to 8 bytes.
+                while (channel.position() % 8 != 0L) { channel.write(ByteBuffer.wrap(ByteArray(1))) }
+                val offsetsPosition = channel.position()
+
+                var offset = 0L
+                for (word in wordBytes)
+                {
+                    if (buffer.remaining() < 8) { flush(buffer, channel) }
+                    buffer.putLong(offset)
+                    offset += word.size + 1
+                }
+                buffer.putLong(offset)
+                flush(buffer, channel)
+                for (word in wordBytes)
+                {
+                    if (buffer.remaining() < word.size + 1) { flush(buffer, channel) }
+                    if (buffer.remaining() < word.size + 1) { channel.write(ByteBuffer.wrap(word)) } else { buffer.put(word) }
+                    buffer.put('\n'.toByte())
+                }
+                flush(buffer, channel)
+
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(precision.ordinal).putInt(dimension).putInt(numberOfWords).putInt(0)
+                        .putLong(offsetsPosition)
+                buffer.flip()
+                channel.write(buffer, 0)
+            }
+        }
+
+        private fun flush(buffer: ByteBuffer, channel: FileChannel)
+        {
+            buffer.flip()
+            while (buffer.hasRemaining()) { channel.write(buffer) }
+            buffer.clear()
+        }
+
+        private const val WRITE_BUFFER_SIZE = 1 shl 20
+        private const val REGION_SIZE = 1L shl 30 // bytes per mapped region of the vectors
+    }
+
+    val precision: EmbeddingPrecision
+    val dimension: Int
+    val size: Int
+
+    /**
+     * Returns the word of the given row.
+     */
+    fun word(index: Int): String
+    {
+        val start = offsets.getLong(8*index).toInt()
+        val end = offsets.getLong(8*(index+1)).toInt() - 1 // without the newline
+        val bytes = ByteArray(end - start)
+        val duplicate = words.duplicate()
+        duplicate.position(start)
+        duplicate.get(bytes)
+        return String(bytes, Charsets.UTF_8)
+    }
+
+    /**
+     * Returns the row of the given word, or -1 if it is not in the store.
+     * The first call reads all the words, to build a map of them.
+     */
+    fun indexOf(word: String): Int = indexes[word] ?: -1
+
+    /**
+     * Returns the vector of the given row. For [EmbeddingPrecision.FLOAT32], this is a read-only slice of the mapped
+     * file (not a copy), valid until the store is closed. For the other precisions, it is a new buffer, with the converted
+     * values (see [float16Vector] and [int8Vector] for slices of the file).
+     */
+    fun vector(index: Int): FloatBuffer
+    {
+        if (precision == EmbeddingPrecision.FLOAT32)
+        {
+            val region = floatRegions[index / rowsPerRegion].duplicate()
+            val offset = (index % rowsPerRegion) * dimension
+            region.position(offset)
+            region.limit(offset + dimension)
+            return region.slice()
+        }
+        val vector = FloatArray(dimension)
+        vector(index, vector)
+        return FloatBuffer.wrap(vector)
+    }
+
+    /**
+     * Returns the vector of the given row of a store of [EmbeddingPrecision.FLOAT16], as a read-only slice of the
+     * mapped file (not a copy), in which each element is a half-precision value (see [Float16]).
+     */
+    fun float16Vector(index: Int): ShortBuffer
+    {
+        if (precision != EmbeddingPrecision.FLOAT16) { throw RuntimeException("The store is of $precision, not of ${EmbeddingPrecision.FLOAT16}.") }
+        val region = shortRegions[index / rowsPerRegion].duplicate()
+        val offset = (index % rowsPerRegion) * dimension
+        region.position(offset)
+        region.limit(offset + dimension)
+        return region.slice()
+    }
+
+    /**
+     * Returns the vector of the given row of a store of [EmbeddingPrecision.INT8], as a read-only slice of the mapped
+     * file (not a copy), in which each element is an int8 value, to be multiplied by [scale].
+     */
+    fun int8Vector(index: Int): ByteBuffer
+    {
+        if (precision != EmbeddingPrecision.INT8) { throw RuntimeException("The store is of $precision, not of ${EmbeddingPrecision.INT8}.") }
+        val region = regions[index / rowsPerRegion].duplicate()
+        val offset = (index % rowsPerRegion) * dimension
+        region.position(offset)
+        region.limit(offset + dimension)
+        return region.slice()
+    }
+
+    /**
+     * Returns the scale of the given row of a store of [EmbeddingPrecision.INT8] (1 for other precisions).
+     */
+    fun scale(index: Int): Float = if (precision == EmbeddingPrecision.INT8) scales.get(index) else 1f
+
+    /**
+     * Returns the dot product of the query and the vector of the given row.
+     */
+    fun dot(query: FloatArray, index: Int): Float
+    {
+        val region = index / rowsPerRegion
+        val position = (index % rowsPerRegion) * dimension
+        return when (precision)
+        {
+            EmbeddingPrecision.FLOAT32 -> FloatKernels.dot(query, 0, floatRegions[region], position, dimension)
+            EmbeddingPrecision.FLOAT16 -> QuantizedKernels.dot(query, 0, shortRegions[region], position, dimension)
+            EmbeddingPrecision.INT8 -> scales.get(index) * QuantizedKernels.dot(query, 0, regions[region], position, dimension)
+        }
+    }
+
+    /**
+     * Returns the squared Euclidean (L2) distance between the query and the vector of the given row.
+     */
+    fun squaredDistance(query: FloatArray, index: Int): Float
+    {
+        val region = index / rowsPerRegion
+        val position = (index % rowsPerRegion) * dimension
+        return when (precision)
+        {
+            EmbeddingPrecision.FLOAT32 -> FloatKernels.squaredDistance(query, 0, floatRegions[region], position, dimension)
+            EmbeddingPrecision.FLOAT16 -> QuantizedKernels.squaredDistance(query, 0, shortRegions[region], position, dimension)
+            EmbeddingPrecision.INT8 -> QuantizedKernels.squaredDistance(query, 0, regions[region], position, scales.get(index), dimension)
+        }
+    }
+
+    /**
+     * Returns the norm of the vector of the given row.
+     */
+    fun norm(index: Int): Float
+    {
+        val region = index / rowsPerRegion
+        val position = (index % rowsPerRegion) * dimension
+        return when (precision)
+        {
+            EmbeddingPrecision.FLOAT32 -> Math.sqrt(FloatKernels.squaredNorm(floatRegions[region], position, dimension).toDouble()).toFloat()
+            EmbeddingPrecision.FLOAT16 -> Math.sqrt(QuantizedKernels.squaredNorm(shortRegions[region], position, dimension).toDouble()).toFloat()
+            EmbeddingPrecision.INT8 -> scales.get(index) * Math.sqrt(QuantizedKernels.squaredNorm(regions[region], position, dimension).toDouble()).toFloat()
+        }
+    }
+
+    /**
+     * Returns the cosine similarity of the query and the vector of the given row, or 0 if either of them is a zero vector.
+     */
+    fun cosine(query: FloatArray, index: Int): Float
+    {
+        val norms = Math.sqrt(FloatKernels.dot(query, 0, query, 0, dimension).toDouble()).toFloat() * norm(index)
+        return if (norms > 0) dot(query, index) / norms else 0f
+    }
+
+    /**
+     * Returns the [k] words most similar to the given word, excluding the word itself, by an exact scan of the store.
+     */
+    fun similarWords(word: String, k: Int, similarity: Similarity = Similarity.COSINE): List<Neighbor>
+    {
+        val index = indexOf(word)
+        if (index < 0) { throw RuntimeException("Unknown word: $word") }
+        return query(FloatArray(dimension).also { vector(index, it) }, k, similarity, index)
+    }
+
+    /**
+     * Returns the [k] words whose vectors are most similar to the given vector, by an exact scan of the store (in a
+     * single thread; see [NearestNeighbors] for a parallel scan of vectors in memory).
+     * @param excluded a row to exclude from the results (usually the row of the query), or -1.
+     */
+    fun query(vector: FloatArray, k: Int, similarity: Similarity = Similarity.COSINE, excluded: Int = -1): List<Neighbor>
+    {
+        if (vector.size != dimension) { throw RuntimeException("Query of dimension ${vector.size}, rather than $dimension.") }
+        val query = vector.copyOf()
+        if (similarity == Similarity.COSINE) { FloatKernels.normalize(query, 0, dimension) }
+        val heap = TopK(k)
+        for (index in 0 until size)
+        {
+            if (index == excluded) { continue }
+            // Distances are kept negated, since a heap keeps the largest scores.
+            heap.offer(index, if (similarity == Similarity.COSINE) { val norm = norm(index); if (norm > 0) dot(query, index) / norm else 0f }
+                              else -squaredDistance(query, index))
+        }
+        val indexes = heap.sortedIndexes()
+        val scores = heap.sortedScores()
+        return indexes.indices.map { Neighbor(indexes[it], word(indexes[it]), if (similarity == Similarity.L2) -scores[it] else scores[it]) }
+    }
+
+    /**
+     * Copies the vector of the given row into [destination], from [offset].
+     */
+    @JvmOverloads
+    fun vector(index: Int, destination: FloatArray, offset: Int = 0)
+    {
+        val region = index / rowsPerRegion
+        val position = (index % rowsPerRegion) * dimension
+        when (precision)
+        {
+            EmbeddingPrecision.FLOAT32 ->
+            {
+                val buffer = floatRegions[region]
+                for (element in 0 until dimension) { destination[offset+element] = buffer.get(position+element) }
+            }
+            EmbeddingPrecision.FLOAT16 ->
+            {
+                val buffer = shortRegions[region]
+                for (element in 0 until dimension) { destination[offset+element] = Float16.toFloat(buffer.get(position+element)) }
+            }
+            EmbeddingPrecision.INT8 ->
+            {
+                val buffer = regions[region]
+                val scale = scales.get(index)
+                for (element in 0 until dimension) { destination[offset+element] = scale * buffer.get(position+element) }
+            }
+        }
+    }
+
+    /**
+     * Reads all the vectors into memory.
+     */
+    fun toWordVectors(): WordVectors
+    {
+        val matrix = FloatArray(size * dimension)
+        for (index in 0 until size) { vector(index, matrix, index*dimension) }
+        return WordVectors((0 until size).map { word(it) }, dimension, matrix)
+    }
+
+    /**
+     * Writes the store into a file in a format of the original word2vec, word by word.
+     */
+    fun export(vectorsFile: File, format: VectorsFormat)
+    {
+        val vector = FloatArray(dimension)
+        VectorsWriter(vectorsFile, format, size, dimension).use { writer ->
+            for (index in 0 until size)
+            {
+                vector(index, vector)
+                writer.write(word(index), vector)
+            }
+        }
+    }
+
+    override fun close()
+    {
+        channel.close()
+    }
+
+
+    private val channel = FileChannel.open(storeFile.toPath(), StandardOpenOption.READ)
+
+    /**
+     * The vectors, in regions of [rowsPerRegion] rows, so no vector crosses a region.
+     */
+    private val regions: Array<MappedByteBuffer>
+    private val rowsPerRegion: Int
+    private val floatRegions: Array<FloatBuffer>
+    private val shortRegions: Array<ShortBuffer>
+    private val scales: FloatBuffer
+
+    private val offsets: MappedByteBuffer
+    private val words: MappedByteBuffer
+
+    init
+    {
+        val header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE.toLong()).order(ByteOrder.LITTLE_ENDIAN)
+        if (header.int != MAGIC) { throw RuntimeException("Not an embedding store file: ${storeFile.path}") }
+        val version = header.int
+        if (version != VERSION) { throw RuntimeException("Unsupported embedding store version: $version") }
+        val precisionOrdinal = header.int
+        if (precisionOrdinal !in EmbeddingPrecision.values().indices) { throw RuntimeException("Unsupported precision in ${storeFile.path}: $precisionOrdinal") }
+        precision = EmbeddingPrecision.values()[precisionOrdinal]
+        dimension = header.int
+        size = header.int
+        header.int
+        val offsetsPosition = header.long
+
+        val rowBytes = dimension.toLong() * precision.bytes
+        rowsPerRegion = Math.max(1L, REGION_SIZE / rowBytes).toInt()
+        regions = Array((size + rowsPerRegion - 1) / rowsPerRegion) { region ->
+            val rows = Math.min(rowsPerRegion, size - region*rowsPerRegion)
+            channel.map(FileChannel.MapMode.READ_ONLY, VECTORS_POSITION + region*rowsPerRegion*rowBytes, rows*rowBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN) as MappedByteBuffer
+        }
+        floatRegions = if (precision == EmbeddingPrecision.FLOAT32) Array(regions.size) { regions[it].asFloatBuffer() } else emptyArray()
+        shortRegions = if (precision == EmbeddingPrecision.FLOAT16) Array(regions.size) { regions[it].asShortBuffer() } else emptyArray()
+        if (precision == EmbeddingPrecision.INT8)
+        {
+            val vectorsEnd = VECTORS_POSITION + size*rowBytes
+            scales = channel.map(FileChannel.MapMode.READ_ONLY, (vectorsEnd + 3) / 4 * 4, 4L*size).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer()
+        }
+        else
+        {
+            scales = FloatBuffer.allocate(0)
+        }
+
+        offsets = channel.map(FileChannel.MapMode.READ_ONLY, offsetsPosition, 8L*(size+1))
+        offsets.order(ByteOrder.LITTLE_ENDIAN)
+        val wordsLength = offsets.getLong(8*size)
+        if (wordsLength > Int.MAX_VALUE) { throw RuntimeException("The words of ${storeFile.path} are too long: $wordsLength bytes.") }
+        words = channel.map(FileChannel.MapMode.READ_ONLY, offsetsPosition + 8L*(size+1), wordsLength)
+    }
+
+    // Declared after init, which reads the size.
+    private val indexes: Map<String, Int> by lazy {
+        val indexes = HashMap<String, Int>(2*size)
+        for (index in 0 until size) { indexes.putIfAbsent(word(index), index) }
+        indexes
+    }
+}
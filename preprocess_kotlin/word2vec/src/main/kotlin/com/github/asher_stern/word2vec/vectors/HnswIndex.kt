@@ -0,0 +1,599 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities.FloatIntHeap
+import com.github.asher_stern.word2vec.utilities.FloatKernels
+import com.github.asher_stern.word2vec.utilities.VectorKernels
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.FloatBuffer
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.util.Random
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Entry point for building an [HnswIndex].
+ * @param args vectors file (in the text format of word2vec, see [WordVectors.loadText]), index file.
+ * Optional: --m=maximum number of links per node (default 16), --ef-construction=size of the candidate list while
+ * building (default 100), --similarity=COSINE or L2 (default COSINE), --seed=random seed (default 1).
+ * See [HnswOptions].
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val vectors = WordVectors.loadText(File(arg))
+        val indexFile = File(arg)
+        val options = HnswOptions(
+                m = option("m", "16").toInt(),
+                efConstruction = option("ef-construction", "100").toInt(),
+                similarity = Similarity.valueOf(option("similarity", Similarity.COSINE.name)),
+                seed = option("seed", "1").toLong()
+        )
+        val start = System.nanoTime()
+        HnswIndex.build(vectors, indexFile, options)
+        println("Indexed ${vectors.size} vectors in ${(System.nanoTime() - start) / 1000000} ms.")
+    }
+}
+
+
+/**
+ * Options of building an [HnswIndex].
+ *
+ * @param m the maximum number of links of a node in each level above level 0 (at least 2). Nodes of level 0 have up to 2*[m] links.
+ * Larger values give better recall, at the cost of memory and of the time of building and searching.
+ * @param efConstruction the number of nearest nodes tracked while searching the links of a new node. Larger values
+ * give a better graph (so a better recall for the same query time), at the cost of building time.
+ * @param similarity the similarity measure of the index. It cannot be changed after the index was built.
+ * @param seed the seed of the random levels of the nodes.
+ */
+data class HnswOptions(
+        val m: Int = 16,
+        val efConstruction: Int = 100,
+        val similarity: Similarity = Similarity.COSINE,
+        val seed: Long = 1
+)
+
+
+/**
+ * An approximate nearest-neighbors index of word vectors: a hierarchical navigable small world (HNSW) graph
+ * (Malkov and Yashunin, 2016), stored on disk and memory-mapped.
+ *
+ * Each vector is a node. Each node has a random level (exponentially less nodes in each higher level), and, in each level up
+ * to its own, links to some of its nearest nodes in that level, chosen so that they lead in different directions. A query
+ * descends greedily from the single node of the top level, and then searches level 0 by a best-first search, which keeps
+ * the *ef* nearest nodes found so far. So a query computes distances to a few thousands of vectors, rather than to all of
+ * them, and *ef* trades recall for query time: larger *ef* gives better recall, and slower queries (see the report of HnswRecall.kt).
+ *
+ * Build the index once by [HnswIndex.build], then open it with the constructor. Opening maps the file into memory, so
+ * it takes no time, and several processes share the same pages. This class is thread-safe.
+ *
+ * The index file is little-endian: a header of [HEADER_SIZE] bytes (magic "W2VH", version, similarity, dimension,
+ * number of nodes, [HnswOptions.m], top level, entry point, length of the upper links, length of the words), then the
+ * offset of the upper links of each node (-1 for nodes of level 0), then the links of level 0 (2*m+1 ints per node: the
+ * number of links, then the links), then the links of the upper levels (m+1 ints per level per node), then the vectors
+ * (normalized, if the similarity is cosine), then the words (UTF-8, a word per line). Nodes are the rows of the
+ * [WordVectors] from which the index was built.
+ */
+class HnswIndex(indexFile: File) : HnswGraph(), AutoCloseable
+{
+    companion object
+    {
+        const val MAGIC = 0x48563257 // "W2VH" in little-endian
+        const val VERSION = 1
+        const val HEADER_SIZE = 48
+        const val DEFAULT_EF = 50
+
+        private const val REGION_SHIFT = 28
+        private const val REGION_MASK = (1L shl REGION_SHIFT) - 1
+        private const val WRITE_BUFFER_SIZE = 1 shl 16
+
+        /**
+         * Builds an index of the given vectors, and writes it into the given file.
+         * The vectors must not be empty, and [HnswOptions.m] must be at least 2.
+         */
+        fun build(vectors: WordVectors, indexFile: File, options: HnswOptions = HnswOptions())
+        {
+            if (options.m < 2) { throw RuntimeException("The maximum number of links (m) must be at least 2, but is ${options.m}.") }
+            if (vectors.size == 0) { throw RuntimeException("Cannot build an index of no vectors.") }
+            HnswBuilder(vectors, options).build().write(indexFile)
+        }
+
+        internal fun newWriteBuffer(): ByteBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+
+        internal fun flush(buffer: ByteBuffer, channel: FileChannel)
+        {
+            buffer.flip()
+            while (buffer.hasRemaining()) { channel.write(buffer) }
+            buffer.clear()
+        }
+    }
+
+    override val similarity: Similarity
+    override val dimension: Int
+    val size: Int
+    val words: List<String>
+
+    /**
+     * Returns the [k] nearest words of the given vector.
+     * @param ef the number of nearest nodes tracked by the search (at least [k]). Larger values give better recall,
+     * and slower queries.
+     */
+    fun search(query: FloatArray, k: Int, ef: Int = DEFAULT_EF): List<Neighbor> = search(query, k, ef, -1)
+
+    /**
+     * Returns the [k] words most similar to the given word, excluding the word itself.
+     */
+    fun similarWords(word: String, k: Int, ef: Int = DEFAULT_EF): List<Neighbor>
+    {
+        val index = indexOf(word)
+        if (index < 0) { throw RuntimeException("Unknown word: $word") }
+        return search(vector(index), k, ef, index)
+    }
+
+    /**
+     * Returns the index (node) of the given word, or -1 if it is not in the index.
+     */
+    fun indexOf(word: String): Int = indexes[word] ?: -1
+
+    /**
+     * Returns a copy of the vector of the given node, as stored in the index (normalized, if the similarity is cosine).
+     */
+    fun vector(index: Int): FloatArray
+    {
+        val region = vectors[index / rowsPerRegion]
+        val offset = (index % rowsPerRegion) * dimension
+        return FloatArray(dimension) { region.get(offset + it) }
+    }
+
+    override fun close()
+    {
+        channel.close()
+    }
+
+
+    private fun search(query: FloatArray, k: Int, ef: Int, excluded: Int): List<Neighbor>
+    {
+        if (query.size != dimension) { throw RuntimeException("Query of dimension ${query.size}, rather than $dimension.") }
+        val normalizedQuery = if (similarity == Similarity.COSINE) query.copyOf().also { FloatKernels.normalize(it, 0, dimension) } else query
+        val scratch = scratches.get()
+        val results = scratch.results
+        var entryPoint = this.entryPoint
+        var entryDistance = distance(normalizedQuery, entryPoint)
+        for (level in topLevel downTo 1)
+        {
+            searchLevel(normalizedQuery, entryPoint, entryDistance, 1, level, scratch)
+            entryPoint = results.peekValue()
+            entryDistance = -results.peekKey()
+        }
+        // One more node, in case the excluded node is found.
+        searchLevel(normalizedQuery, entryPoint, entryDistance, Math.max(ef, k+1), 0, scratch)
+        val nodes = IntArray(results.size())
+        val distances = FloatArray(results.size())
+        for (position in nodes.size-1 downTo 0)
+        {
+            distances[position] = -results.peekKey()
+            nodes[position] = results.pop()
+        }
+        return nodes.indices.filter { nodes[it] != excluded }.take(k).map {
+            Neighbor(nodes[it], words[nodes[it]], if (similarity == Similarity.COSINE) 1f - distances[it] else distances[it])
+        }
+    }
+
+    override fun distance(query: FloatArray, node: Int): Float
+    {
+        val region = vectors[node / rowsPerRegion]
+        val offset = (node % rowsPerRegion) * dimension
+        return if (similarity == Similarity.COSINE) 1f - FloatKernels.dot(query, 0, region, offset, dimension)
+            else FloatKernels.squaredDistance(query, 0, region, offset, dimension)
+    }
+
+    override fun numberOfLinks(node: Int, level: Int): Int = int(linksPosition(node, level))
+
+    override fun link(node: Int, level: Int, index: Int): Int = int(linksPosition(node, level) + 1 + index)
+
+    /**
+     * Returns the position (in ints, from the beginning of the level-0 links) of the links of the given node in the given level.
+     */
+    private fun linksPosition(node: Int, level: Int): Long =
+            if (level == 0) level0Position + node.toLong() * (2*m+1) else upperLinksPosition + int(upperOffsetsPosition + node) + (level-1).toLong() * (m+1)
+
+    private fun int(position: Long): Int = ints[(position ushr REGION_SHIFT).toInt()].getInt(4*(position and REGION_MASK).toInt())
+
+    /**
+     * Maps the given number of ints, from the given position of the file, as regions of 2^[REGION_SHIFT] ints.
+     */
+    private fun mapInts(position: Long, numberOfInts: Long): Array<MappedByteBuffer>
+    {
+        val regionSize = 1L shl REGION_SHIFT
+        val numberOfRegions = ((numberOfInts + regionSize - 1) / regionSize).toInt()
+        return Array(numberOfRegions) { region ->
+            val first = region * regionSize
+            val buffer = channel.map(FileChannel.MapMode.READ_ONLY, position + 4*first, 4*Math.min(regionSize, numberOfInts - first))
+            buffer.order(ByteOrder.LITTLE_ENDIAN)
+            buffer
+        }
+    }
+
+
+    private val channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)
+    private val m: Int
+    private val topLevel: Int
+    private val entryPoint: Int
+
+    /**
+     * The upper-link offsets, the level-0 links, and the upper links, as a single array of ints.
+     */
+    private val ints: Array<MappedByteBuffer>
+    private val upperOffsetsPosition = 0L
+    private val level0Position: Long
+    private val upperLinksPosition: Long
+
+    /**
+     * The vectors, in regions of [rowsPerRegion] rows, so no vector crosses a region.
+     */
+    private val vectors: Array<FloatBuffer>
+    private val rowsPerRegion: Int
+
+    private val indexes: Map<String, Int>
+    private val scratches: ThreadLocal<SearchScratch>
+
+    init
+    {
+        val header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE.toLong()).order(ByteOrder.LITTLE_ENDIAN)
+        if (header.int != MAGIC) { throw RuntimeException("Not an HNSW index file: ${indexFile.path}") }
+        val version = header.int
+        if (version != VERSION) { throw RuntimeException("Unsupported HNSW index version: $version") }
+        similarity = Similarity.values()[header.int]
+        dimension = header.int
+        size = header.int
+        m = header.int
+        topLevel = header.int
+        entryPoint = header.int
+        val upperLinksLength = header.long
+        val wordsLength = header.long
+
+        val level0Length = size.toLong() * (2*m+1)
+        level0Position = size.toLong()
+        upperLinksPosition = level0Position + level0Length
+        val numberOfInts = upperLinksPosition + upperLinksLength
+        ints = mapInts(HEADER_SIZE.toLong(), numberOfInts)
+
+        val vectorsPosition = HEADER_SIZE + 4*numberOfInts
+        rowsPerRegion = Math.max(1, ((1L shl REGION_SHIFT) / dimension).toInt())
+        val numberOfRegions = (size + rowsPerRegion - 1) / rowsPerRegion
+        vectors = Array(numberOfRegions) { region ->
+            val rows = Math.min(rowsPerRegion, size - region*rowsPerRegion)
+            channel.map(FileChannel.MapMode.READ_ONLY, vectorsPosition + 4L*region*rowsPerRegion*dimension, 4L*rows*dimension)
+                    .order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer()
+        }
+
+        val wordsPosition = vectorsPosition + 4L*size*dimension
+        val wordBytes = ByteArray(wordsLength.toInt())
+        channel.map(FileChannel.MapMode.READ_ONLY, wordsPosition, wordsLength).get(wordBytes)
+        words = String(wordBytes, Charsets.UTF_8).split('\n').take(size)
+        if (words.size != size) { throw RuntimeException("The index has ${words.size} words, rather than $size: ${indexFile.path}") }
+        indexes = HashMap<String, Int>(2*size).apply { words.forEachIndexed { index, word -> putIfAbsent(word, index) } }
+        scratches = ThreadLocal.withInitial { SearchScratch(size) }
+    }
+}
+
+
+/**
+ * The search of an HNSW graph, shared by [HnswIndex] and by the builder of the index.
+ */
+abstract class HnswGraph
+{
+    abstract val similarity: Similarity
+    abstract val dimension: Int
+
+    /**
+     * Returns the distance between the query and the vector of the given node: 1 - cosine for cosine similarity (the
+     * query is normalized), and the squared Euclidean distance for L2.
+     */
+    protected abstract fun distance(query: FloatArray, node: Int): Float
+
+    protected abstract fun numberOfLinks(node: Int, level: Int): Int
+
+    protected abstract fun link(node: Int, level: Int, index: Int): Int
+
+    /**
+     * Searches the given level, from the given entry point, for the [ef] nodes nearest to the query.
+     * The nodes found are left in [SearchScratch.results], as a heap whose root is the farthest of them (their keys are
+     * the negated distances).
+     */
+    protected fun searchLevel(query: FloatArray, entryPoint: Int, entryDistance: Float, ef: Int, level: Int, scratch: SearchScratch)
+    {
+        val candidates = scratch.candidates
+        val results = scratch.results
+        scratch.newSearch()
+        candidates.clear()
+        results.clear()
+        scratch.visit(entryPoint)
+        candidates.push(entryDistance, entryPoint)
+        results.push(-entryDistance, entryPoint)
+        while (!candidates.isEmpty())
+        {
+            if (candidates.peekKey() > -results.peekKey()) { break }
+            val node = candidates.pop()
+            for (index in 0 until numberOfLinks(node, level))
+            {
+                val neighbor = link(node, level, index)
+                if (!scratch.visit(neighbor)) { continue }
+                val distance = distance(query, neighbor)
+                if ( (results.size() < ef) || (distance < -results.peekKey()) )
+                {
+                    candidates.push(distance, neighbor)
+                    results.push(-distance, neighbor)
+                    if (results.size() > ef) { results.pop() }
+                }
+            }
+        }
+    }
+}
+
+
+/**
+ * The per-thread state of searching an HNSW graph: the visited nodes (marked by the number of the search, so they are
+ * not cleared between searches), and the heaps.
+ */
+class SearchScratch(numberOfNodes: Int)
+{
+    val candidates = FloatIntHeap(64)
+    val results = FloatIntHeap(64)
+
+    fun newSearch()
+    {
+        ++search
+        if (search == 0)
+        {
+            visited.fill(0)
+            search = 1
+        }
+    }
+
+    /**
+     * Marks the given node as visited, and returns false if it was already visited by this search.
+     */
+    fun visit(node: Int): Boolean
+    {
+        if (visited[node] == search) { return false }
+        visited[node] = search
+        return true
+    }
+
+    private val visited = IntArray(numberOfNodes)
+    private var search = 0
+}
+
+
+/**
+ * Builds an HNSW graph in memory, by inserting the vectors one by one, and writes it in the format of [HnswIndex].
+ */
+private class HnswBuilder(private val vectors: WordVectors, private val options: HnswOptions) : HnswGraph()
+{
+    override val similarity = options.similarity
+    override val dimension = vectors.dimension
+
+    fun build(): HnswBuilder
+    {
+        for (node in 0 until size)
+        {
+            insert(node)
+            if (0 == ((node+1) % PROGRESS_INTERVAL)) { println("Indexed ${node+1} of $size vectors.") }
+        }
+        return this
+    }
+
+    fun write(indexFile: File)
+    {
+        val upperOffsets = IntArray(size)
+        var upperLinksLength = 0L
+        for (node in 0 until size)
+        {
+            val links = upper[node]
+            upperOffsets[node] = if (links == null) -1 else upperLinksLength.toInt()
+            upperLinksLength += links?.size ?: 0
+        }
+        val wordBytes = vectors.words.joinToString("\n").toByteArray(Charsets.UTF_8)
+
+        RandomAccessFile(indexFile, "rw").use { file ->
+            file.setLength(0)
+            val channel = file.channel
+            val buffer = HnswIndex.newWriteBuffer()
+            buffer.putInt(HnswIndex.MAGIC).putInt(HnswIndex.VERSION).putInt(similarity.ordinal).putInt(dimension).putInt(size)
+                    .putInt(m).putInt(topLevel).putInt(entryPoint).putLong(upperLinksLength).putLong(wordBytes.size.toLong())
+            fun putInt(value: Int)
+            {
+                if (buffer.remaining() < 4) { HnswIndex.flush(buffer, channel) }
+                buffer.putInt(value)
+            }
+            upperOffsets.forEach(::putInt)
+            level0.forEach(::putInt)
+            for (links in upper) { links?.forEach(::putInt) }
+            for (value in matrix)
+            {
+                if (buffer.remaining() < 4) { HnswIndex.flush(buffer, channel) }
+                buffer.putFloat(value)
+            }
+            HnswIndex.flush(buffer, channel)
+            channel.write(ByteBuffer.wrap(wordBytes))
+        }
+    }
+
+
+    private fun insert(node: Int)
+    {
+        val level = randomLevel()
+        if (level > 0) { upper[node] = IntArray(level * (m+1)) }
+        if (entryPoint < 0)
+        {
+            entryPoint = node
+            topLevel = level
+            return
+        }
+
+        val query = matrix.copyOfRange(node*dimension, (node+1)*dimension)
+        var entry = entryPoint
+        var entryDistance = distance(query, entry)
+        for (descentLevel in topLevel downTo level+1)
+        {
+            searchLevel(query, entry, entryDistance, 1, descentLevel, scratch)
+            entry = scratch.results.peekValue()
+            entryDistance = -scratch.results.peekKey()
+        }
+        for (linkLevel in Math.min(level, topLevel) downTo 0)
+        {
+            searchLevel(query, entry, entryDistance, options.efConstruction, linkLevel, scratch)
+            val results = scratch.results
+            val candidates = IntArray(results.size())
+            val distances = FloatArray(results.size())
+            for (position in candidates.size-1 downTo 0)
+            {
+                distances[position] = -results.peekKey()
+                candidates[position] = results.pop()
+            }
+            entry = candidates[0]
+            entryDistance = distances[0]
+
+            val selected = selectLinks(candidates, distances, candidates.size, m)
+            setLinks(node, linkLevel, selected, selected.size)
+            for (neighbor in selected) { addLink(neighbor, linkLevel, node) }
+        }
+        if (level > topLevel)
+        {
+            entryPoint = node
+            topLevel = level
+        }
+    }
+
+    /**
+     * Adds a link from [node] to [neighbor]. If [node] already has the maximum number of links, its links are selected
+     * again from the existing links and the new one.
+     */
+    private fun addLink(node: Int, level: Int, neighbor: Int)
+    {
+        val count = numberOfLinks(node, level)
+        val capacity = capacity(level)
+        if (count < capacity)
+        {
+            val links = links(node, level)
+            links[position(node, level) + 1 + count] = neighbor
+            links[position(node, level)] = count + 1
+            return
+        }
+        val candidates = IntArray(count+1) { if (it < count) link(node, level, it) else neighbor }
+        val distances = FloatArray(count+1) { distanceBetween(node, candidates[it]) }
+        sortByDistance(candidates, distances)
+        val selected = selectLinks(candidates, distances, candidates.size, capacity)
+        setLinks(node, level, selected, selected.size)
+    }
+
+    /**
+     * Selects links from candidates sorted by their distance from a node: a candidate is selected only if it is nearer to
+     * the node than to any candidate selected before it, so the links lead in different directions, rather than all to
+     * a single cluster (the heuristic of the HNSW paper).
+     */
+    private fun selectLinks(candidates: IntArray, distances: FloatArray, numberOfCandidates: Int, capacity: Int): IntArray
+    {
+        val selected = IntArray(Math.min(capacity, numberOfCandidates))
+        var count = 0
+        for (index in 0 until numberOfCandidates)
+        {
+            if (count == selected.size) { break }
+            val candidate = candidates[index]
+            var diverse = true
+            for (selectedIndex in 0 until count)
+            {
+                if (distanceBetween(candidate, selected[selectedIndex]) < distances[index])
+                {
+                    diverse = false
+                    break
+                }
+            }
+            if (diverse) { selected[count++] = candidate }
+        }
+        return selected.copyOf(count)
+    }
+
+    private fun setLinks(node: Int, level: Int, selected: IntArray, count: Int)
+    {
+        val links = links(node, level)
+        val position = position(node, level)
+        links[position] = count
+        System.arraycopy(selected, 0, links, position+1, count)
+    }
+
+    private fun sortByDistance(nodes: IntArray, distances: FloatArray)
+    {
+        // Insertion sort: there are at most 2*m+1 links.
+        for (index in 1 until nodes.size)
+        {
+            val node = nodes[index]
+            val distance = distances[index]
+            var position = index - 1
+            while ( (position >= 0) && ( (distances[position] > distance) || ( (distances[position] == distance) && (nodes[position] > node) ) ) )
+            {
+                nodes[position+1] = nodes[position]
+                distances[position+1] = distances[position]
+                --position
+            }
+            nodes[position+1] = node
+            distances[position+1] = distance
+        }
+    }
+
+    private fun randomLevel(): Int = Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier).toInt()
+
+    private fun capacity(level: Int): Int = if (level == 0) 2*m else m
+
+    private fun links(node: Int, level: Int): IntArray = if (level == 0) level0 else upper[node]!!
+
+    private fun position(node: Int, level: Int): Int = if (level == 0) node*(2*m+1) else (level-1)*(m+1)
+
+    override fun numberOfLinks(node: Int, level: Int): Int = links(node, level)[position(node, level)]
+
+    override fun link(node: Int, level: Int, index: Int): Int = links(node, level)[position(node, level) + 1 + index]
+
+    override fun distance(query: FloatArray, node: Int): Float =
+            if (similarity == Similarity.COSINE) 1f - kernels.dot(query, 0, matrix, node*dimension, dimension)
+            else kernels.squaredDistance(query, 0, matrix, node*dimension, dimension)
+
+    private fun distanceBetween(node1: Int, node2: Int): Float =
+            if (similarity == Similarity.COSINE) 1f - kernels.dot(matrix, node1*dimension, matrix, node2*dimension, dimension)
+            else kernels.squaredDistance(matrix, node1*dimension, matrix, node2*dimension, dimension)
+
+
+    companion object
+    {
+        private const val PROGRESS_INTERVAL = 100000
+    }
+
+
+    private val size = vectors.size
+    private val m = options.m
+    private val kernels = VectorKernels.get()
+
+    /**
+     * The vectors, normalized if the similarity is cosine.
+     */
+    private val matrix = if (similarity == Similarity.COSINE) vectors.matrix.copyOf().also { matrix ->
+        for (row in 0 until size) { FloatKernels.normalize(matrix, row*dimension, dimension) }
+    } else vectors.matrix
+
+    private val level0 = IntArray(size * (2*m+1))
+    private val upper = arrayOfNulls<IntArray>(size)
+    private var entryPoint = -1
+    private var topLevel = 0
+
+    private val levelMultiplier = 1.0 / Math.log(m.toDouble())
+    private val random = Random(options.seed)
+    private val scratch = SearchScratch(size)
+}
@@ -0,0 +1,73 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.util.Random
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Reports the recall and the latency of an [HnswIndex], for several values of *ef*, against the exact scan of
+ * [NearestNeighbors]. The queries are words drawn at random from the vectors file, and their neighbors exclude
+ * themselves (as in [HnswIndex.similarWords]).
+ * Recall@k is the fraction of the exact k nearest words that are found by the index, averaged over the queries.
+ * Both the index and the exact scan answer each query on a single thread, so the speedup compares the algorithms, not the
+ * number of cores.
+ * @param args vectors file (in the text format of word2vec), index file (built from the same vectors by [HnswIndex.build]).
+ * Optional: --queries=number of queries (default 1000), --k=number of neighbors (default 10),
+ * --ef=comma-separated values of ef (default 10,20,50,100,200), --seed=random seed of the queries (default 1).
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val vectors = WordVectors.loadText(File(arg))
+        val indexFile = File(arg)
+        val numberOfQueries = option("queries", "1000").toInt()
+        val k = option("k", "10").toInt()
+        val efs = option("ef", "10,20,50,100,200").split(',').map { it.trim().toInt() }
+        val random = Random(option("seed", "1").toLong())
+
+        HnswIndex(indexFile).use { index ->
+            if (index.size != vectors.size) { throw RuntimeException("The index has ${index.size} vectors, rather than ${vectors.size}.") }
+            val queries = IntArray(numberOfQueries) { random.nextInt(vectors.size) }
+            // The exact scan runs on a single thread, like the index.
+            val pool = ForkJoinPool(1)
+            val exact = NearestNeighbors(vectors, pool)
+
+            var start = 0L
+            val expected = try
+            {
+                // Like each ef below, the exact scan is warmed up by a first pass, which is not timed.
+                queries.forEach { exact.similarWords(vectors.words[it], k, index.similarity) }
+                start = System.nanoTime()
+                queries.map { query -> exact.similarWords(vectors.words[query], k, index.similarity).map { it.index }.toSet() }
+            }
+            finally
+            {
+                pool.shutdown()
+            }
+            val exactMicros = (System.nanoTime() - start) / 1000.0 / numberOfQueries
+
+            val report = StringBuilder()
+            report.append("ef\trecall@$k\tmicroseconds per query\tspeedup\n")
+            report.append("exact\t1.000\t${String.format("%.1f", exactMicros)}\t1.0\n")
+            for (ef in efs)
+            {
+                // A first pass warms up the index (pages of the file, and compilation), and is not timed.
+                queries.forEach { index.similarWords(vectors.words[it], k, ef) }
+                start = System.nanoTime()
+                val found = queries.map { query -> index.similarWords(vectors.words[query], k, ef) }
+                val micros = (System.nanoTime() - start) / 1000.0 / numberOfQueries
+                val recall = found.indices.sumByDouble { query ->
+                    found[query].count { it.index in expected[query] }.toDouble() / Math.max(1, expected[query].size)
+                } / numberOfQueries
+                report.append("$ef\t${String.format("%.3f", recall)}\t${String.format("%.1f", micros)}\t${String.format("%.1f", exactMicros / micros)}\n")
+            }
+            print(report)
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities.FloatKernels
+import com.github.asher_stern.word2vec.utilities.VectorKernels
+import com.github.asher_stern.word2vec.utilities.TopK
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveTask
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Entry point for [NearestNeighbors]: prints the most similar words of each given word.
+ * @param args vectors file (in the text format of word2vec, see [WordVectors.loadText]), then the words. If no word is
+ * given, words are read from the standard input, one per line.
+ * Optional: --k=number of similar words (default 10), --similarity=COSINE or L2 (default COSINE),
+ * --threads=number of threads (default: the number of processors).
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val vectors = WordVectors.loadText(File(arg))
+        val words = remaining
+        val k = option("k", "10").toInt()
+        val similarity = Similarity.valueOf(option("similarity", Similarity.COSINE.name))
+        val threads = option("threads", Runtime.getRuntime().availableProcessors().toString()).toInt()
+
+        val pool = ForkJoinPool(threads)
+        try
+        {
+            val engine = NearestNeighbors(vectors, pool)
+            val print = { word: String, neighbors: List<Neighbor> ->
+                println("$word: " + neighbors.joinToString(" ") { "${it.word} (${it.score})" })
+            }
+            if (words.isNotEmpty())
+            {
+                val known = words.filter { vectors.indexOf(it) >= 0 }
+                (words - known).forEach { println("$it: unknown word") }
+                known.zip(engine.similarWords(known, k, similarity)).forEach { (word, neighbors) -> print(word, neighbors) }
+            }
+            else
+            {
+                while (true)
+                {
+                    val word = readLine()?.trim() ?: break
+                    if (vectors.indexOf(word) < 0) { println("$word: unknown word") }
+                    else { print(word, engine.similarWords(word, k, similarity)) }
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown()
+        }
+    }
+}
+
+
+/**
+ * The similarity measure of [NearestNeighbors].
+ */
+enum class Similarity
+{
+    /**
+     * Cosine similarity. Larger is more similar.
+     */
+    COSINE,
+
+    /**
+     * Squared Euclidean distance, like `helper.sort_by_similarity` of the Python model. Smaller is more similar.
+     */
+    L2
+}
+
+/**
+ * A result of a nearest-neighbors query.
+ * @param index the index (row) of the word in [WordVectors].
+ * @param score the cosine similarity or the squared distance, by the [Similarity] of the query.
+ */
+data class Neighbor(val index: Int, val word: String, val score: Float)
+
+
+/**
+ * Answers top-*k* nearest-neighbors queries over [WordVectors], by an exact scan of all the vectors.
+ *
+ * The vectors are kept in a flat, row-major array, and a normalized copy of them is made once, at construction, so a cosine
+ * query is a dot product per row. Squared distances are computed directly from the differences (rather than from dot
+ * products and norms, which lose precision for near vectors, like the nearest neighbors).
+ *
+ * The rows are split into blocks, which are scanned in parallel by [pool] (a fork-join pool), each into its own bounded
+ * heap ([TopK]), and the heaps are merged. A batch of queries is answered in a single scan: each row is compared with all the
+ * queries while it is in the cache, so the matrix is read from memory once per batch, rather than once per query.
+ * The results do not depend on the number of threads.
+ *
+ * @param vectors the vectors.
+ * @param pool the fork-join pool which runs the scans.
+ */
+class NearestNeighbors(
+        val vectors: WordVectors,
+        private val pool: ForkJoinPool = ForkJoinPool.commonPool()
+)
+{
+    /**
+     * Returns the [k] words most similar to the given word, excluding the word itself.
+     */
+    fun similarWords(word: String, k: Int, similarity: Similarity = Similarity.COSINE): List<Neighbor> = similarWords(listOf(word), k, similarity)[0]
+
+    /**
+     * Like [similarWords], for a batch of words, which are answered by a single scan.
+     */
+    fun similarWords(words: List<String>, k: Int, similarity: Similarity = Similarity.COSINE): List<List<Neighbor>>
+    {
+        val indexes = words.map { word -> vectors.indexOf(word).also { if (it < 0) { throw RuntimeException("Unknown word: $word") } } }
+        return query(indexes.map { vectors.vector(it) }, k, similarity, indexes.toIntArray())
+    }
+
+    /**
+     * Returns the [k] words whose vectors are most similar to the given vector.
+     */
+    fun query(vector: FloatArray, k: Int, similarity: Similarity = Similarity.COSINE): List<Neighbor> = query(listOf(vector), k, similarity)[0]
+
+    /**
+     * Returns the [k] most similar words of each of the given vectors, by a single scan.
+     * @param excluded if not null, the index of a word to exclude from the results of each query (usually the word of the query).
+     */
+    fun query(queries: List<FloatArray>, k: Int, similarity: Similarity = Similarity.COSINE, excluded: IntArray? = null): List<List<Neighbor>>
+    {
+        if (queries.isEmpty()) { return emptyList() }
+        val dimension = vectors.dimension
+        val batch = FloatArray(queries.size * dimension)
+        for ( (query, vector) in queries.withIndex())
+        {
+            if (vector.size != dimension) { throw RuntimeException("Query of dimension ${vector.size}, rather than $dimension.") }
+            System.arraycopy(vector, 0, batch, query*dimension, dimension)
+            if (similarity == Similarity.COSINE) { FloatKernels.normalize(batch, query*dimension, dimension) }
+        }
+
+        val blockSize = Math.max(MINIMUM_BLOCK_SIZE, vectors.size / (BLOCKS_PER_THREAD * pool.parallelism))
+        val heaps = pool.invoke(ScanTask(batch, queries.size, k, similarity, excluded, 0, vectors.size, blockSize))
+        return heaps.map { heap ->
+            val indexes = heap.sortedIndexes()
+            val scores = heap.sortedScores()
+            // Distances are kept negated, since a heap keeps the largest scores.
+            indexes.indices.map { Neighbor(indexes[it], vectors.words[indexes[it]], if (similarity == Similarity.L2) -scores[it] else scores[it]) }
+        }
+    }
+
+
+    /**
+     * Scans the rows [begin]..[end] (exclusive), by splitting them into halves until they are not larger than [blockSize].
+     */
+    private inner class ScanTask(
+            private val batch: FloatArray,
+            private val numberOfQueries: Int,
+            private val k: Int,
+            private val similarity: Similarity,
+            private val excluded: IntArray?,
+            private val begin: Int,
+            private val end: Int,
+            private val blockSize: Int
+    ) : RecursiveTask<Array<TopK>>()
+    {
+        override fun compute(): Array<TopK>
+        {
+            if ((end - begin) > blockSize)
+            {
+                val middle = (begin + end) ushr 1
+                val left = ScanTask(batch, numberOfQueries, k, similarity, excluded, begin, middle, blockSize)
+                val right = ScanTask(batch, numberOfQueries, k, similarity, excluded, middle, end, blockSize)
+                left.fork()
+                val ret = right.compute()
+                val leftHeaps = left.join()
+                for (query in 0 until numberOfQueries) { ret[query].addAll(leftHeaps[query]) }
+                return ret
+            }
+            return scan()
+        }
+
+        private fun scan(): Array<TopK>
+        {
+            val heaps = Array(numberOfQueries) { TopK(k) }
+            val dimension = vectors.dimension
+            val matrix = if (similarity == Similarity.COSINE) normalized else vectors.matrix
+            for (row in begin until end)
+            {
+                val rowOffset = row*dimension
+                for (query in 0 until numberOfQueries)
+                {
+                    if ( (excluded != null) && (excluded[query] == row) ) { continue }
+                    val score = if (similarity == Similarity.COSINE) kernels.dot(batch, query*dimension, matrix, rowOffset, dimension)
+                                else -kernels.squaredDistance(batch, query*dimension, matrix, rowOffset, dimension)
+                    heaps[query].offer(row, score)
+                }
+            }
+            return heaps
+        }
+    }
+
+    companion object
+    {
+        private const val MINIMUM_BLOCK_SIZE = 1024
+        private const val BLOCKS_PER_THREAD = 4
+    }
+
+
+    private val kernels = VectorKernels.get()
+    private val normalized = vectors.matrix.copyOf().also { matrix ->
+        for (row in 0 until vectors.size) { FloatKernels.normalize(matrix, row*vectors.dimension, vectors.dimension) }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities._provide
+import java.io.File
+import java.nio.file.Files
+import java.util.Random
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Reports, for each [EmbeddingPrecision], the size of an [EmbeddingStore] of the given vectors, and how much its
+ * nearest words agree with those of full precision ([EmbeddingPrecision.FLOAT32]).
+ * Overlap@k is the fraction of the k nearest words in full precision that are also found in the given precision,
+ * averaged over queries drawn at random from the vocabulary (excluding the word of the query, as in
+ * [EmbeddingStore.similarWords]).
+ * @param args vectors file (in a format of the original word2vec), followed by zero or more words.txt files (generated by
+ * [com.github.asher_stern.word2vec.corpora.preprocess.CorpusToTokensAndSentences], e.g., of BNC and of Reuters). For each
+ * words.txt file, the report is of the vectors of its words (see [WordVectors.subset]). With no words.txt file, the
+ * report is of all the vectors.
+ * Optional: --format=TEXT or BINARY (default TEXT), --k=number of neighbors (default 10), --queries=number of queries
+ * (default 200), --similarity=COSINE or L2 (default COSINE), --seed=random seed of the queries (default 1).
+ */
+fun main(args: Array<String>)
+{
+    args._provide {
+        val vectors = WordVectors.load(File(arg), VectorsFormat.valueOf(option("format", VectorsFormat.TEXT.name)))
+        val wordFiles = remaining.map { File(it) }
+        val k = option("k", "10").toInt()
+        val numberOfQueries = option("queries", "200").toInt()
+        val similarity = Similarity.valueOf(option("similarity", Similarity.COSINE.name))
+        val seed = option("seed", "1").toLong()
+
+        val vocabularies = if (wordFiles.isEmpty()) listOf("all" to vectors)
+            else wordFiles.map { it.path to vectors.subset(it.readLines(Charsets.UTF_8).filter { it.isNotEmpty() }) }
+        val report = StringBuilder()
+        report.append("vocabulary\twords\tprecision\tbytes\tsaving\toverlap@$k\tmicroseconds per query\n")
+        val directory = Files.createTempDirectory("quantization").toFile()
+        try
+        {
+            for ( (name, subset) in vocabularies)
+            {
+                if (subset.size < 2) { throw RuntimeException("$name has ${subset.size} words with vectors.") }
+                val random = Random(seed)
+                val queries = IntArray(numberOfQueries) { random.nextInt(subset.size) }
+                var expected: List<Set<Int>>? = null
+                var fullBytes = 0L
+                // FLOAT32 is the first, so the results of full precision are known before the others.
+                for (precision in EmbeddingPrecision.values())
+                {
+                    val storeFile = File(directory, "$precision.w2ve")
+                    EmbeddingStore.write(subset, storeFile, precision)
+                    val bytes = storeFile.length()
+                    EmbeddingStore(storeFile).use { store ->
+                        // A first pass warms up the store (pages of the file, and compilation), and is not timed.
+                        queries.forEach { store.similarWords(subset.words[it], k, similarity) }
+                        val start = System.nanoTime()
+                        val found = queries.map { query -> store.similarWords(subset.words[query], k, similarity).map { it.index }.toSet() }
+                        val micros = (System.nanoTime() - start) / 1000.0 / numberOfQueries
+                        if (expected == null)
+                        {
+                            expected = found
+                            fullBytes = bytes
+                        }
+                        val reference = expected!!
+                        val overlap = found.indices.sumByDouble { query ->
+                            found[query].count { it in reference[query] }.toDouble() / Math.max(1, reference[query].size)
+                        } / numberOfQueries
+                        report.append("$name\t${subset.size}\t$precision\t$bytes\t${String.format("%.1f%%", 100.0 * (fullBytes - bytes) / fullBytes)}\t")
+                        report.append("${String.format("%.3f", overlap)}\t${String.format("%.1f", micros)}\n")
+                    }
+                    storeFile.delete()
+                }
+            }
+        }
+        finally
+        {
+            directory.deleteRecursively()
+        }
+        print(report)
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * The file formats of the original word2vec. Both start with a line with the number of words and the dimension.
+ * In [TEXT], each following line is a word, followed by its vector (separated by spaces).
+ * In [BINARY], each word is followed by a space, then its vector as little-endian float32 values, then a newline.
+ */
+enum class VectorsFormat
+{
+    TEXT,
+    BINARY
+}
+
+
+/**
+ * Reads a file in a [VectorsFormat], word by word, so files of any size can be converted without holding all the
+ * vectors in memory. The file may be compressed (see [CompressedFiles]).
+ */
+class VectorsReader(private val file: File, val format: VectorsFormat) : AutoCloseable
+{
+    val numberOfWords: Int
+    val dimension: Int
+
+    /**
+     * Reads the next word, and copies its vector into [vector], from [offset].
+     * @return the word
+     */
+    fun next(vector: FloatArray, offset: Int = 0): String
+    {
+        if (read == numberOfWords) { throw RuntimeException("$file has only $numberOfWords words.") }
+        ++read
+        return if (format == VectorsFormat.TEXT) nextText(vector, offset) else nextBinary(vector, offset)
+    }
+
+    override fun close()
+    {
+        input.close()
+    }
+
+
+    private fun nextText(vector: FloatArray, offset: Int): String
+    {
+        val line = readLine() ?: throw RuntimeException("$file has ${read-1} words, rather than $numberOfWords.")
+        val fields = line.trim().split(' ')
+        if (fields.size != dimension+1) { throw RuntimeException("Malformed line ${read+1} in $file: ${fields.size-1} values, rather than $dimension.") }
+        for (index in 0 until dimension)
+        {
+            vector[offset+index] = fields[index+1].toFloat()
+        }
+        return fields[0]
+    }
+
+    private fun nextBinary(vector: FloatArray, offset: Int): String
+    {
+        word.reset()
+        var byte = input.read()
+        // The newline after the previous vector (some writers omit it).
+        while ( (byte == '\n'.toInt()) || (byte == '\r'.toInt()) ) { byte = input.read() }
+        while (byte != ' '.toInt())
+        {
+            if (byte < 0) { throw RuntimeException("$file has ${read-1} words, rather than $numberOfWords.") }
+            word.write(byte)
+            byte = input.read()
+        }
+        var position = 0
+        while (position < vectorBytes.size)
+        {
+            val length = input.read(vectorBytes, position, vectorBytes.size - position)
+            if (length < 0) { throw RuntimeException("$file ends in the vector of word $read.") }
+            position += length
+        }
+        ByteBuffer.wrap(vectorBytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector, offset, dimension)
+        return String(word.toByteArray(), Charsets.UTF_8)
+    }
+
+    /**
+     * Reads a line of UTF-8 text, or returns null at the end of the file.
+     */
+    private fun readLine(): String?
+    {
+        word.reset()
+        var byte = input.read()
+        if (byte < 0) { return null }
+        while ( (byte >= 0) && (byte != '\n'.toInt()) )
+        {
+            word.write(byte)
+            byte = input.read()
+        }
+        return String(word.toByteArray(), Charsets.UTF_8)
+    }
+
+
+    private val input: InputStream = CompressedFiles.newInputStream(file)
+    private val word = ByteArrayOutputStream()
+    private val vectorBytes: ByteArray
+    private var read = 0
+
+    init
+    {
+        val header = (readLine() ?: throw RuntimeException("Empty vectors file: $file")).trim().split(' ')
+        if (header.size != 2) { throw RuntimeException("Malformed header in $file: ${header.joinToString(" ")}") }
+        numberOfWords = header[0].toInt()
+        dimension = header[1].toInt()
+        vectorBytes = ByteArray(if (format == VectorsFormat.BINARY) 4*dimension else 0)
+    }
+}
+
+
+/**
+ * Writes a file in a [VectorsFormat], word by word. The file is compressed if its name has the extension of a
+ * compression format (see [CompressedFiles]).
+ */
+class VectorsWriter(file: File, private val format: VectorsFormat, numberOfWords: Int, private val dimension: Int) : AutoCloseable
+{
+    /**
+     * Writes a word, and its vector, which is [vector] from [offset].
+     */
+    fun write(word: String, vector: FloatArray, offset: Int = 0)
+    {
+        if (format == VectorsFormat.TEXT)
+        {
+            line.setLength(0)
+            line.append(word)
+            for (index in offset until offset+dimension)
+            {
+                line.append(' ').append(vector[index])
+            }
+            line.append('\n')
+            output.write(line.toString().toByteArray(Charsets.UTF_8))
+        }
+        else
+        {
+            output.write(word.toByteArray(Charsets.UTF_8))
+            output.write(' '.toInt())
+            buffer.clear()
+            buffer.asFloatBuffer().put(vector, offset, dimension)
+            output.write(buffer.array())
+            output.write('\n'.toInt())
+        }
+    }
+
+    override fun close()
+    {
+        output.close()
+    }
+
+
+    private val output: OutputStream = CompressedFiles.newOutputStream(file)
+    private val line = StringBuilder()
+    private val buffer = ByteBuffer.allocate(4*dimension).order(ByteOrder.LITTLE_ENDIAN)
+
+    init
+    {
+        output.write("$numberOfWords $dimension\n".toByteArray(Charsets.UTF_8))
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.asher_stern.word2vec.vectors
+
+import com.github.asher_stern.word2vec.utilities.CompressedFiles
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Trained word vectors, in memory: the words, and their vectors in a flat, row-major matrix: the vector of the word
+ * at index *i* of [words] is `matrix[i*dimension until (i+1)*dimension]`.
+ *
+ * @param words the words, in the order of the rows.
+ * @param dimension the size of each vector.
+ * @param matrix the vectors.
+ */
+class WordVectors(val words: List<String>, val dimension: Int, val matrix: FloatArray)
+{
+    init
+    {
+        if (matrix.size.toLong() != words.size.toLong() * dimension)
+        {
+            throw RuntimeException("The matrix has ${matrix.size} elements, rather than ${words.size} words * $dimension.")
+        }
+    }
+
+    val size: Int get() = words.size
+
+    /**
+     * Returns the index (row) of the given word, or -1 if it is not in the vocabulary.
+     */
+    fun indexOf(word: String): Int = indexes[word] ?: -1
+
+    /**
+     * Returns a copy of the vector of the word at the given index.
+     */
+    fun vector(index: Int): FloatArray = matrix.copyOfRange(index*dimension, (index+1)*dimension)
+
+    companion object
+    {
+        /**
+         * Loads vectors from a file in the text format of the original word2vec (as written by
+         * [com.github.asher_stern.word2vec.model.SkipGramModel.saveText]): a line with the number of words and the
+         * dimension, then a line per word: the word, followed by its vector. The file may be compressed (see [CompressedFiles]).
+         */
+        fun loadText(file: File): WordVectors = load(file, VectorsFormat.TEXT)
+
+        /**
+         * Loads vectors from a file in a format of the original word2vec (see [VectorsFormat]), possibly compressed.
+         */
+        fun load(file: File, format: VectorsFormat): WordVectors
+        {
+            VectorsReader(file, format).use { reader ->
+                val dimension = reader.dimension
+                val words = ArrayList<String>(reader.numberOfWords)
+                val matrix = FloatArray(reader.numberOfWords * dimension)
+                for (row in 0 until reader.numberOfWords)
+                {
+                    words.add(reader.next(matrix, row*dimension))
+                }
+                return WordVectors(words, dimension, matrix)
+            }
+        }
+    }
+
+    /**
+     * Returns the vectors of the given words (e.g., the vocabulary of words.txt), in the order of [words].
+     * Words which have no vector are skipped.
+     */
+    fun subset(words: List<String>): WordVectors
+    {
+        val rows = words.map { indexOf(it) }.filter { it >= 0 }
+        val subsetMatrix = FloatArray(rows.size * dimension)
+        rows.forEachIndexed { row, index -> System.arraycopy(matrix, index*dimension, subsetMatrix, row*dimension, dimension) }
+        return WordVectors(rows.map { this.words[it] }, dimension, subsetMatrix)
+    }
+
+    /**
+     * Writes the vectors into a file in a format of the original word2vec (see [VectorsFormat]). The file is
+     * compressed if its name has the extension of a compression format (see [CompressedFiles]).
+     */
+    fun save(file: File, format: VectorsFormat)
+    {
+        VectorsWriter(file, format, size, dimension).use { writer ->
+            for (row in 0 until size)
+            {
+                writer.write(words[row], matrix, row*dimension)
+            }
+        }
+    }
+
+
+    private val indexes: Map<String, Int> = HashMap<String, Int>(2*words.size).apply { words.forEachIndexed { index, word -> putIfAbsent(word, index) } }
+}
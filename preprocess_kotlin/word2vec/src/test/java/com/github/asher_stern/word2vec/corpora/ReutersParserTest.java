@@ -0,0 +1,148 @@
+package com.github.asher_stern.word2vec.corpora;
+
+import com.github.asher_stern.word2vec.corpora.ReutersParser.ParseType;
+import com.github.asher_stern.word2vec.corpora.ReutersParser.XmlParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies that the DOM and the StAX parsers of {@link ReutersParser} give identical results.
+ *
+ * <p>
+ * Date: Oct 18, 2026
+ *
+ */
+public class ReutersParserTest
+{
+    @Test
+    public void simpleDocument()
+    {
+        String xml = document("<text><p>First paragraph.</p>\n<p>  Second paragraph.  </p></text>");
+        assertEquals(Arrays.asList("First paragraph.", "Second paragraph."), parseBoth(xml).paragraphs);
+        assertEquals("First paragraph. Second paragraph.", parseBoth(xml).text);
+    }
+
+    @Test
+    public void comments()
+    {
+        parseBoth(document("<!-- before --><text><!-- in text --><p>Before<!-- a comment -->after</p><p><!-- first -->Text</p><p>A &amp; B</p></text>"));
+    }
+
+    @Test
+    public void cdata()
+    {
+        parseBoth(document("<text><p>Before<![CDATA[ <inside> ]]>after</p><p><![CDATA[only cdata]]></p><p>Text <![CDATA[x]]></p></text>"));
+    }
+
+    @Test
+    public void nestedElements()
+    {
+        parseBoth(document("<text><p>Outer <b>bold <i>italic</i></b> tail</p><p><b>no leading text</b> then text</p><div><p>Not a paragraph of text</p></div><p/><p>   </p></text>"));
+    }
+
+    @Test
+    public void missingText()
+    {
+        assertEquals("RuntimeException", parseBoth(document("<headline>No text</headline>")).exception);
+    }
+
+    @Test
+    public void repeatedText()
+    {
+        assertEquals("RuntimeException", parseBoth(document("<text><p>One</p></text><text><p>Two</p></text>")).exception);
+    }
+
+    @Test
+    public void iso88591()
+    {
+        String xml = "<?xml version=\"1.0\" encoding=\"iso-8859-1\" ?>\n" +
+                "<newsitem itemid=\"1\"><headline>Caf\u00e9</headline><text><p>Le caf\u00e9 na\u00efve \u00e0 Z\u00fcrich.</p></text></newsitem>\n";
+        byte[] bytes = xml.getBytes(StandardCharsets.ISO_8859_1);
+        Parsed dom = parse(ReutersParser.fromStream(new ByteArrayInputStream(bytes)), XmlParser.DOM);
+        Parsed streaming = parse(ReutersParser.fromStream(new ByteArrayInputStream(bytes)), XmlParser.STREAMING);
+        assertEquals(dom, streaming);
+        assertEquals(Arrays.asList("Le caf\u00e9 na\u00efve \u00e0 Z\u00fcrich."), streaming.paragraphs);
+    }
+
+
+    private static String document(String contents)
+    {
+        return "<?xml version=\"1.0\" encoding=\"iso-8859-1\" ?>\n<newsitem itemid=\"1\" id=\"root\" date=\"1996-08-20\" xml:lang=\"en\">" +
+                "<title>Title</title><headline>Headline</headline>" + contents + "<metadata><codes class=\"bip:topics:1.0\"/></metadata></newsitem>\n";
+    }
+
+    /**
+     * Parses the given XML (given both as a string and as bytes) by both parsers, asserts that they give identical results,
+     * and returns the result.
+     */
+    private static Parsed parseBoth(String xml)
+    {
+        Parsed expected = parse(new ReutersParser(xml), XmlParser.DOM);
+        assertEquals(expected, parse(new ReutersParser(xml), XmlParser.STREAMING));
+        byte[] bytes = xml.getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(expected, parse(ReutersParser.fromStream(new ByteArrayInputStream(bytes)), XmlParser.DOM));
+        assertEquals(expected, parse(ReutersParser.fromStream(new ByteArrayInputStream(bytes)), XmlParser.STREAMING));
+        return expected;
+    }
+
+    private static Parsed parse(ReutersParser parser, XmlParser xmlParser)
+    {
+        try
+        {
+            parser.parse(ParseType.TEXT, xmlParser);
+            String text = parser.getText();
+            parser.parse(ParseType.PARAGRAPHS, xmlParser);
+            return new Parsed(text, parser.getParagraphs(), null);
+        }
+        catch (RuntimeException e)
+        {
+            return new Parsed(null, null, e.getClass().getSimpleName());
+        }
+    }
+
+
+    /**
+     * The result of parsing a document: its text and paragraphs, or the exception thrown by the parser.
+     */
+    private static class Parsed
+    {
+        public Parsed(String text, List<String> paragraphs, String exception)
+        {
+            super();
+            this.text = text;
+            this.paragraphs = paragraphs;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Parsed)) {return false;}
+            Parsed other = (Parsed) obj;
+            return String.valueOf(text).equals(String.valueOf(other.text)) && String.valueOf(paragraphs).equals(String.valueOf(other.paragraphs)) &&
+                    String.valueOf(exception).equals(String.valueOf(other.exception));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return String.valueOf(text).hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "text="+text+", paragraphs="+paragraphs+", exception="+exception;
+        }
+
+        private final String text;
+        private final List<String> paragraphs;
+        private final String exception;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.asher_stern.word2vec.corpora
+
+import com.github.asher_stern.word2vec.utilities._use
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
+import org.apache.uima.fit.factory.JCasFactory
+import org.apache.uima.fit.util.JCasUtil
+import org.apache.uima.jcas.JCas
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+/**
+ * Verifies that the DOM and the streaming parsers of [BncDocumentLoader] give identical CAS contents.
+ */
+class BncDocumentLoaderTest
+{
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @Test
+    fun simpleDocument()
+    {
+        val document = loadBoth(wtext("""<p><s n="1"><w c5="AT0" hw="the" pos="ART">The </w><w c5="NN1" hw="cat" pos="SUBST">cat </w><w c5="VVD" hw="sit" pos="VERB">sat</w><c c5="PUN">.</c></s></p>"""), false)
+        assertEquals("The  cat  sat.", document.text)
+        assertEquals(listOf(0 to 14), document.sentences)
+        assertEquals(listOf(
+                listOf(0, 4, "ART", "the"), listOf(5, 9, "N", "cat"), listOf(10, 13, "V", "sit"), listOf(13, 14, "PUNC", ".")
+        ), document.tokens)
+    }
+
+    @Test
+    fun heads()
+    {
+        val xml = wtext("""<div><head><s n="0"><w hw="title" pos="SUBST">Title</w></s></head><p><s n="1"><w hw="word" pos="SUBST">word</w></s></p></div>""")
+        assertEquals("word", loadBoth(xml, false).text)
+        assertEquals("Title word", loadBoth(xml, true).text)
+    }
+
+    @Test
+    fun nestedElements()
+    {
+        loadBoth(wtext("""<div level="1"><div level="2"><p><s n="1"><mw c5="AV0"><w hw="of" pos="PREP">of </w><w hw="course" pos="SUBST">course</w></mw> <hi rend="it"><w hw="not" pos="ADV">not</w></hi><c c5="PUN">!</c></s><pb n="2"/><s n="2"><w hw="two" pos="ADJ">two</w></s></p></div><list><item><s n="3"><w hw="item" pos="SUBST">item</w></s></item></list></div>"""), true)
+    }
+
+    @Test
+    fun commentsAndCdata()
+    {
+        loadBoth(wtext("""<!-- a comment --><p><!-- in a paragraph --><s n="1"><w hw="be" pos="VERB">is<!-- in a word -->n't</w> <w hw="x" pos="UNC"><![CDATA[a<b]]> rest</w><w hw="y" pos="UNC">first<gap/>second</w><w pos="SUBST">nolemma</w><w hw="empty" pos="SUBST"></w><c c5="PUN">?</c></s></p><?pi instruction?>"""), false)
+    }
+
+    @Test
+    fun spokenText()
+    {
+        loadBoth("""<?xml version="1.0"?><bncDoc><teiHeader/><stext type="CONVRSN"><u who="A"><s n="1"><w hw="yes" pos="ADV">Yes</w><c c5="PUN">.</c></s></u><u who="B"><p><s n="2"><w hw="no" pos="ADV">No</w></s></p></u></stext></bncDoc>""", true)
+    }
+
+    @Test
+    fun accentedCharacters()
+    {
+        loadBoth(wtext("""<p><s n="1"><w hw="café" pos="SUBST">Café </w><w hw="naïve" pos="ADJ">naïve</w><c c5="PUN">…</c></s></p>"""), false)
+    }
+
+    @Test(expected = RuntimeException::class)
+    fun noTextElementDom()
+    {
+        load("""<?xml version="1.0"?><bncDoc><teiHeader/></bncDoc>""", false, BncXmlParser.DOM)
+    }
+
+    @Test(expected = RuntimeException::class)
+    fun noTextElementStreaming()
+    {
+        load("""<?xml version="1.0"?><bncDoc><teiHeader/></bncDoc>""", false, BncXmlParser.STREAMING)
+    }
+
+
+    private fun wtext(content: String): String = """<?xml version="1.0" encoding="UTF-8"?>
+<bncDoc xml:id="A00"><teiHeader><fileDesc><titleStmt><title>Test</title></titleStmt></fileDesc></teiHeader>
+<wtext type="OTHERPUB">$content</wtext></bncDoc>
+"""
+
+    /**
+     * Loads the given XML by both parsers, asserts that they give identical results, and returns the result.
+     */
+    private fun loadBoth(xml: String, includeHeads: Boolean): LoadedDocument
+    {
+        val expected = load(xml, includeHeads, BncXmlParser.DOM)
+        val actual = load(xml, includeHeads, BncXmlParser.STREAMING)
+        assertEquals(expected, actual)
+        return actual
+    }
+
+    private fun load(xml: String, includeHeads: Boolean, parser: BncXmlParser): LoadedDocument
+    {
+        val file = File(folder.root, "document.xml")
+        file.writeText(xml, Charsets.UTF_8)
+        var ret: LoadedDocument? = null
+        JCasFactory.createJCas()._use { jcas ->
+            BncDocumentLoader(jcas, file, includeHeads, parser).load()
+            ret = loaded(jcas)
+        }
+        return ret!!
+    }
+
+    private fun loaded(jcas: JCas) = LoadedDocument(
+            jcas.documentText,
+            JCasUtil.select(jcas, Sentence::class.java).map { it.begin to it.end },
+            JCasUtil.select(jcas, Token::class.java).map { listOf(it.begin, it.end, it.pos.type.shortName, it.lemma.value) }
+    )
+
+
+    private data class LoadedDocument(val text: String, val sentences: List<Pair<Int, Int>>, val tokens: List<List<Any>>)
+}
@@ -0,0 +1,164 @@
+package com.github.asher_stern.word2vec.corpora.preprocess
+
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics
+import com.github.asher_stern.word2vec.utilities.PipelineMetrics.Counter
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.PrintStream
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+class BuildNeighborsTest
+{
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @Test
+    fun longSentenceByLine()
+    {
+        val sentence = longSentence(1000)
+        val output = PairsCollector()
+        createBuildNeighbors(listOf(sentence), output).use { buildNeighbors ->
+            assertEquals(expectedPairs(1000), buildNeighbors.build(sentence))
+        }
+        assertEquals(expectedPairs(1000), output.pairs.size)
+        assertEquals(listOf(3 to 1, 3 to 2, 3 to 4, 3 to 5), output.pairs.take(4))
+    }
+
+    @Test
+    fun longSentenceByFile()
+    {
+        val output = PairsCollector()
+        createBuildNeighbors(listOf(longSentence(300), longSentence(1000), longSentence(10)), output).use { it.build() }
+        assertEquals(expectedPairs(300) + expectedPairs(1000) + expectedPairs(10), output.pairs.size)
+    }
+
+    @Test
+    fun blocksLikeLines()
+    {
+        // More lines than a block, and random windows and subsampling, which must be drawn in the same order.
+        val sentences = (0 until 1000).map { longSentence(3 + (it*7) % 40) }
+        File(folder.root, CorpusToTokensAndSentences.COUNTS_FILE).writeText(WORDS.indices.joinToString("\n", postfix = "\n") { "${1000*(it+1)}" })
+        val options = NeighborsOptions(subsamplingThreshold = 0.1, dynamicWindow = true, seed = 7)
+
+        val byFile = PairsCollector()
+        val metrics = PipelineMetrics(BuildNeighbors.METRICS_PIPELINE)
+        createBuildNeighbors(sentences, byFile, options = options).use { it.build(metrics) }
+        val byLine = PairsCollector()
+        createBuildNeighbors(sentences, byLine, options = options).use { buildNeighbors -> sentences.forEach { buildNeighbors.build(it) } }
+
+        assertEquals(byLine.pairs, byFile.pairs)
+        assertEquals(1000L, metrics.get(Counter.SENTENCES))
+        assertEquals(sentences.map { it.split(" ").size.toLong() }.sum(), metrics.get(Counter.TOKENS))
+        assertEquals(byFile.pairs.size.toLong(), metrics.get(Counter.PAIRS))
+    }
+
+    @Test
+    fun noReportByDefault()
+    {
+        val standardOutput = System.out
+        val captured = ByteArrayOutputStream()
+        System.setOut(PrintStream(captured, true))
+        try
+        {
+            createBuildNeighbors(listOf(longSentence(10)), PairsCollector()).use { it.build() }
+        }
+        finally
+        {
+            System.setOut(standardOutput)
+        }
+        assertEquals("", captured.toString())
+    }
+
+    @Test
+    fun sentenceEdgesSkip()
+    {
+        val output = buildEdgesCorpus(SentenceEdges.SKIP)
+        // Only the middle words of the sentences of 7 and 5 words have full windows.
+        assertEquals(3*4 + 4, output.pairs.size)
+        assertEquals(listOf(3 to 1, 3 to 2, 3 to 4, 3 to 5), output.pairs.take(4))
+        assertEquals(listOf(5 to 3, 5 to 4, 5 to 6, 5 to 7), output.pairs.subList(8, 12))
+        assertEquals(listOf(3 to 1, 3 to 2, 3 to 4, 3 to 5), output.pairs.subList(12, 16))
+    }
+
+    @Test
+    fun sentenceEdgesClip()
+    {
+        val output = buildEdgesCorpus(SentenceEdges.CLIP)
+        // 7 words: 2+3+4+4+4+3+2. 3 words: 2+2+2. 1 word: none. 5 words: 2+3+4+3+2.
+        assertEquals(22 + 6 + 0 + 14, output.pairs.size)
+        assertEquals(listOf(1 to 2, 1 to 3, 2 to 1, 2 to 3, 2 to 4), output.pairs.take(5))
+        assertEquals(listOf(7 to 5, 7 to 6), output.pairs.subList(20, 22))
+        assertEquals(listOf(1 to 2, 1 to 3, 2 to 1, 2 to 3, 3 to 1, 3 to 2), output.pairs.subList(22, 28))
+    }
+
+
+    /**
+     * Builds the pairs, with a window of [WINDOW_SIZE] words, of sentences of 7, 3, 1 and 5 words, whose word-IDs are
+     * 1, 2, 3, ... by their positions.
+     */
+    private fun buildEdgesCorpus(sentenceEdges: SentenceEdges): PairsCollector
+    {
+        val output = PairsCollector()
+        val sentences = listOf("a b c d e f g", "a b c", "a", "a b c d e")
+        createBuildNeighbors(sentences, output, EDGES_WORDS, NeighborsOptions(sentenceEdges = sentenceEdges)).use { it.build() }
+        return output
+    }
+
+    /**
+     * A sentence of the given number of tokens, which cycles over the words of [WORDS].
+     */
+    private fun longSentence(length: Int): String = (0 until length).joinToString(" ") { WORDS[it % WORDS.size] }
+
+    /**
+     * The number of pairs of [longSentence], with a window of [WINDOW_SIZE] words in [SentenceEdges.SKIP] mode.
+     */
+    private fun expectedPairs(length: Int): Int = Math.max(length - 2*WINDOW_SIZE, 0) * 2*WINDOW_SIZE
+
+    private fun createBuildNeighbors(sentences: List<String>, output: NeighborsWriter, words: List<String> = WORDS,
+                                     options: NeighborsOptions = NeighborsOptions()): BuildNeighbors
+    {
+        val wordFile = File(folder.root, "words.txt")
+        wordFile.writeText(words.joinToString("\n", postfix = "\n"))
+        val sentenceFile = File(folder.root, "sentences.txt")
+        sentenceFile.writeText(sentences.joinToString("\n", postfix = "\n"))
+        return BuildNeighbors(wordFile, sentenceFile, words.size, WINDOW_SIZE, 0, output, options)
+    }
+
+    companion object
+    {
+        private val WORDS = listOf("a", "b", "c", "d", "e")
+        private val EDGES_WORDS = listOf("a", "b", "c", "d", "e", "f", "g")
+        private const val WINDOW_SIZE = 2
+    }
+}
+
+
+/**
+ * Keeps the pairs in memory, for tests.
+ */
+class PairsCollector : NeighborsWriter
+{
+    val pairs = mutableListOf<Pair<Int, Int>>()
+
+    override fun write(wordId: Int, contextWordId: Int)
+    {
+        pairs.add(wordId to contextWordId)
+    }
+
+    override fun write(wordId: Int, contextWordId: Int, count: Int)
+    {
+        repeat(count) { write(wordId, contextWordId) }
+    }
+
+    override fun close()
+    {
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.asher_stern.word2vec.model
+
+import com.github.asher_stern.word2vec.corpora.preprocess.BuildNeighbors
+import com.github.asher_stern.word2vec.corpora.preprocess.CorpusToTokensAndSentences
+import com.github.asher_stern.word2vec.corpora.preprocess.NeighborsOptions
+import com.github.asher_stern.word2vec.corpora.preprocess.PairsCollector
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.PrintStream
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+class SkipGramTrainerTest
+{
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @Test
+    fun epochsDrawOtherPairs()
+    {
+        val options = NeighborsOptions(subsamplingThreshold = 0.1, dynamicWindow = true, seed = 5)
+        assertEquals(options, epochNeighborsOptions(options, 1))
+
+        val firstEpoch = buildPairs(epochNeighborsOptions(options, 1))
+        val secondEpoch = buildPairs(epochNeighborsOptions(options, 2))
+        assertNotEquals(firstEpoch, secondEpoch)
+        assertEquals(firstEpoch, buildPairs(epochNeighborsOptions(options, 1)))
+    }
+
+    @Test
+    fun progressOnlyToListener()
+    {
+        val trainer = SkipGramTrainer(SkipGramModel(10, 4), UniformNegativeSampler(1, 10))
+        val standardOutput = System.out
+        val captured = ByteArrayOutputStream()
+        System.setOut(PrintStream(captured, true))
+        try
+        {
+            repeat(1000000) { trainer.train(1 + it % 10, 1 + (it+1) % 10) }
+            val reported = mutableListOf<Long>()
+            trainer.progressListener = { steps, _ -> reported.add(steps) }
+            repeat(1000000) { trainer.train(1 + it % 10, 1 + (it+1) % 10) }
+            assertEquals(listOf(2000000L), reported)
+        }
+        finally
+        {
+            System.setOut(standardOutput)
+        }
+        assertEquals("", captured.toString())
+    }
+
+
+    private fun buildPairs(options: NeighborsOptions): List<Pair<Int, Int>>
+    {
+        val wordFile = File(folder.root, "words.txt")
+        wordFile.writeText(WORDS.joinToString("\n", postfix = "\n"))
+        File(folder.root, CorpusToTokensAndSentences.COUNTS_FILE).writeText(WORDS.indices.joinToString("\n", postfix = "\n") { "${1000*(it+1)}" })
+        val sentenceFile = File(folder.root, "sentences.txt")
+        sentenceFile.writeText((0 until 100).joinToString("\n", postfix = "\n") { line -> (0 until 20).joinToString(" ") { WORDS[(line+it) % WORDS.size] } })
+
+        val output = PairsCollector()
+        BuildNeighbors(wordFile, sentenceFile, WORDS.size, 2, 0, output, options).use { it.build() }
+        return output.pairs
+    }
+
+    companion object
+    {
+        private val WORDS = listOf("a", "b", "c", "d", "e")
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.asher_stern.word2vec.vectors
+
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.util.Random
+
+/**
+ * Created on October-18 2026.
+ */
+
+
+class HnswIndexTest
+{
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @Test
+    fun searchFindsEachVector()
+    {
+        val vectors = randomVectors(500, 8)
+        val indexFile = File(folder.root, "index.hnsw")
+        HnswIndex.build(vectors, indexFile)
+        HnswIndex(indexFile).use { index ->
+            assertEquals(vectors.size, index.size)
+            for (row in 0 until vectors.size)
+            {
+                assertEquals(row, index.search(vectors.vector(row), 1, 100).first().index)
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException::class)
+    fun rejectsSingleLink()
+    {
+        HnswIndex.build(randomVectors(10, 4), File(folder.root, "index.hnsw"), HnswOptions(m = 1))
+    }
+
+    @Test(expected = RuntimeException::class)
+    fun rejectsEmptyVectors()
+    {
+        HnswIndex.build(WordVectors(emptyList(), 4, FloatArray(0)), File(folder.root, "index.hnsw"))
+    }
+
+
+    private fun randomVectors(size: Int, dimension: Int): WordVectors
+    {
+        val random = Random(1)
+        return WordVectors((0 until size).map { "w$it" }, dimension, FloatArray(size*dimension) { random.nextGaussian().toFloat() })
+    }
+}